@@ -0,0 +1,64 @@
+package com.thoughtworks.springbootemployee.analytics;
+
+import com.thoughtworks.springbootemployee.entity.Employee;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a filtered salary aggregate over the columnar snapshot with the same aggregate streamed over a list of
+ * {@code Employee} objects, the shape the service holds after {@code findAll}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmployeeColumnsBenchmark {
+    private static final int COMPANIES = 100;
+    private static final EmployeeAnalyticsQuery QUERY = new EmployeeAnalyticsQuery(30, 45, 2000, null, "female", "company7");
+
+    @Param({"10000", "1000000"})
+    private int employees;
+
+    private EmployeeColumns columns;
+    private List<Employee> employeeList;
+
+    @Setup
+    public void setUp() {
+        columns = new EmployeeColumns(employees);
+        employeeList = new ArrayList<>(employees);
+        for (int i = 0; i < employees; i++) {
+            Employee employee = new Employee(new ObjectId().toHexString(), "Tom" + i, 18 + i % 50, i % 2 == 0 ? "male" : "female", 1000 + i % 5000);
+            employee.setCompanyId("company" + i % COMPANIES);
+            employeeList.add(employee);
+            columns.upsert(employee.getId(), employee.getAge(), employee.getSalary(), employee.getGender(), employee.getCompanyId());
+        }
+    }
+
+    @Benchmark
+    public EmployeeAggregate columnarAggregate() {
+        return columns.aggregate(QUERY);
+    }
+
+    @Benchmark
+    public IntSummaryStatistics objectStreamAggregate() {
+        return employeeList.stream()
+            .filter(employee -> "female".equals(employee.getGender()))
+            .filter(employee -> "company7".equals(employee.getCompanyId()))
+            .filter(employee -> employee.getAge() != null && employee.getAge() >= 30 && employee.getAge() <= 45)
+            .filter(employee -> employee.getSalary() != null && employee.getSalary() >= 2000)
+            .map(Employee::getSalary)
+            .mapToInt(Integer::intValue)
+            .summaryStatistics();
+    }
+}
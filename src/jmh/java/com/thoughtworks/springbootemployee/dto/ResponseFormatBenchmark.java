@@ -0,0 +1,78 @@
+package com.thoughtworks.springbootemployee.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode time of an employee list per wire format, optionally gzipped as the server compression would. The payload
+ * size of each combination is printed once per trial, since JMH only reports time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseFormatBenchmark {
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private ObjectWriter writer;
+    private List<EmployeeResponse> employeeResponses;
+
+    @Setup
+    public void setUp() throws IOException {
+        writer = mapper(format).writer();
+        employeeResponses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            employeeResponses.add(new EmployeeResponse(Integer.toHexString(i), "Tom" + i, 18 + i % 50, i % 2 == 0 ? "male" : "female", 1000 + i, "company" + i % 100));
+        }
+
+        System.out.printf("%n%s%s, %d employees: %d bytes%n", format, gzip ? "+gzip" : "", size, encodeEmployeeResponses().length);
+    }
+
+    @Benchmark
+    public byte[] encodeEmployeeResponses() throws IOException {
+        byte[] payload = writer.writeValueAsBytes(employeeResponses);
+        if (!gzip) {
+            return payload;
+        }
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(payload.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(payload);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static ObjectMapper mapper(String format) {
+        switch (format) {
+            case "smile":
+                return new ObjectMapper(new SmileFactory());
+            case "cbor":
+                return new ObjectMapper(new CBORFactory());
+            default:
+                return new ObjectMapper();
+        }
+    }
+}
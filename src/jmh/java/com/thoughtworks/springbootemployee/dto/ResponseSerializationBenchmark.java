@@ -0,0 +1,63 @@
+package com.thoughtworks.springbootemployee.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseSerializationBenchmark {
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private ObjectWriter writer;
+    private ObjectWriter projectedWriter;
+    private List<EmployeeResponse> employeeResponses;
+    private List<CompanyResponse> companyResponses;
+
+    @Setup
+    public void setUp() {
+        writer = new ObjectMapper().writer();
+        projectedWriter = new ObjectMapper()
+            .addMixIn(EmployeeResponse.class, FieldSelection.Filtered.class)
+            .writer(new SimpleFilterProvider()
+                .addFilter(FieldSelection.FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept("name", "companyId")));
+        employeeResponses = new ArrayList<>(size);
+        companyResponses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            employeeResponses.add(new EmployeeResponse(Integer.toHexString(i), "Tom" + i, 18 + i % 50, i % 2 == 0 ? "male" : "female", 1000 + i, "company" + i % 100));
+            companyResponses.add(new CompanyResponse(Integer.toHexString(i), "Company" + i, i % 1000));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeEmployeeResponses() throws JsonProcessingException {
+        return writer.writeValueAsBytes(employeeResponses);
+    }
+
+    @Benchmark
+    public byte[] serializeProjectedEmployeeResponses() throws JsonProcessingException {
+        return projectedWriter.writeValueAsBytes(employeeResponses);
+    }
+
+    @Benchmark
+    public byte[] serializeCompanyResponses() throws JsonProcessingException {
+        return writer.writeValueAsBytes(companyResponses);
+    }
+}
@@ -0,0 +1,51 @@
+package com.thoughtworks.springbootemployee.mapper;
+
+import com.thoughtworks.springbootemployee.dto.CompanyRequest;
+import com.thoughtworks.springbootemployee.entity.Company;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CompanyMapperBenchmark {
+    private static final int COMPANIES = 100_000;
+
+    private final CompanyMapper companyMapper = new CompanyMapper();
+    private List<Company> companies;
+    private List<CompanyRequest> companyRequests;
+
+    @Setup
+    public void setUp() {
+        companies = new ArrayList<>(COMPANIES);
+        companyRequests = new ArrayList<>(COMPANIES);
+        for (int i = 0; i < COMPANIES; i++) {
+            companies.add(new Company(Integer.toHexString(i), "Company" + i, i % 1000));
+            companyRequests.add(new CompanyRequest("Company" + i, i % 1000));
+        }
+    }
+
+    @Benchmark
+    public void mapperToResponse(Blackhole blackhole) {
+        for (Company company : companies) {
+            blackhole.consume(companyMapper.toResponse(company));
+        }
+    }
+
+    @Benchmark
+    public void mapperToEntity(Blackhole blackhole) {
+        for (CompanyRequest companyRequest : companyRequests) {
+            blackhole.consume(companyMapper.toEntity(companyRequest));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.thoughtworks.springbootemployee.mapper;
+
+import com.thoughtworks.springbootemployee.dto.EmployeeRequest;
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import com.thoughtworks.springbootemployee.entity.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.beans.BeanUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EmployeeMapperBenchmark {
+    private static final int EMPLOYEES = 100_000;
+
+    private final EmployeeMapper employeeMapper = new EmployeeMapper();
+    private List<Employee> employees;
+    private List<EmployeeRequest> employeeRequests;
+
+    @Setup
+    public void setUp() {
+        employees = new ArrayList<>(EMPLOYEES);
+        employeeRequests = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            Employee employee = new Employee("Tom" + i, 18 + i % 50, i % 2 == 0 ? "male" : "female", 1000 + i, "company" + i % 100);
+            employee.setId(Integer.toHexString(i));
+            employees.add(employee);
+            employeeRequests.add(new EmployeeRequest("Tom" + i, 18 + i % 50, i % 2 == 0 ? "male" : "female", 1000 + i, "company" + i % 100));
+        }
+    }
+
+    @Benchmark
+    public void beanUtilsToResponse(Blackhole blackhole) {
+        for (Employee employee : employees) {
+            EmployeeResponse employeeResponse = new EmployeeResponse();
+            BeanUtils.copyProperties(employee, employeeResponse);
+            blackhole.consume(employeeResponse);
+        }
+    }
+
+    @Benchmark
+    public void mapperToResponse(Blackhole blackhole) {
+        for (Employee employee : employees) {
+            blackhole.consume(employeeMapper.toResponse(employee));
+        }
+    }
+
+    @Benchmark
+    public void beanUtilsToEntity(Blackhole blackhole) {
+        for (EmployeeRequest employeeRequest : employeeRequests) {
+            Employee employee = new Employee();
+            BeanUtils.copyProperties(employeeRequest, employee);
+            blackhole.consume(employee);
+        }
+    }
+
+    @Benchmark
+    public void mapperToEntity(Blackhole blackhole) {
+        for (EmployeeRequest employeeRequest : employeeRequests) {
+            blackhole.consume(employeeMapper.toEntity(employeeRequest));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.thoughtworks.springbootemployee.services;
+
+import com.thoughtworks.springbootemployee.entity.Company;
+import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.repository.CompanyRepository;
+import com.thoughtworks.springbootemployee.repository.EmployeeRepository;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+final class InMemoryRepositories {
+    private InMemoryRepositories() {
+    }
+
+    static EmployeeRepository employees(Map<String, Employee> employees) {
+        return proxy(EmployeeRepository.class, employees, (method, args) -> {
+            switch (method) {
+                case "findAllByGender":
+                    return filter(employees, employee -> args[0].equals(employee.getGender()));
+                case "findAllByCompanyId":
+                    return filter(employees, employee -> args[0].equals(employee.getCompanyId()));
+                default:
+                    return null;
+            }
+        });
+    }
+
+    static CompanyRepository companies(Map<String, Company> companies, Map<String, Employee> employees) {
+        return proxy(CompanyRepository.class, companies, (method, args) -> {
+            if ("streamEmployees".equals(method)) {
+                return companies.containsKey(args[0])
+                    ? Optional.of(filter(employees, employee -> args[0].equals(employee.getCompanyId())).stream())
+                    : Optional.empty();
+            }
+            return null;
+        });
+    }
+
+    static <T> Map<String, T> index(List<T> entities, Function<T, String> idExtractor) {
+        return entities.stream()
+            .collect(Collectors.toMap(idExtractor, Function.identity()));
+    }
+
+    private static <T> List<T> filter(Map<String, T> store, Predicate<T> predicate) {
+        return store.values().stream()
+            .filter(predicate)
+            .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R, T> R proxy(Class<R> repositoryType, Map<String, T> store, QueryHandler queries) {
+        return (R) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "findAll":
+                    List<T> all = new ArrayList<>(store.values());
+                    if (args != null && args.length == 1 && args[0] instanceof Pageable) {
+                        return page(all, (Pageable) args[0]);
+                    }
+                    return all;
+                case "findById":
+                    return Optional.ofNullable(store.get(args[0]));
+                case "existsById":
+                    return store.containsKey(args[0]);
+                case "count":
+                    return (long) store.size();
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return repositoryType.getSimpleName() + "InMemory";
+                default:
+                    Object result = queries.handle(method.getName(), args);
+                    if (result == null) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return result;
+            }
+        });
+    }
+
+    private static <T> PageImpl<T> page(List<T> all, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+
+        return new PageImpl<>(all.subList(from, to), pageable, all.size());
+    }
+
+    private interface QueryHandler {
+        Object handle(String method, Object[] args);
+    }
+}
@@ -0,0 +1,93 @@
+package com.thoughtworks.springbootemployee.services;
+
+import com.thoughtworks.springbootemployee.entity.Company;
+import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.existence.ExistenceIndex;
+import com.thoughtworks.springbootemployee.repository.CompanyRepository;
+import com.thoughtworks.springbootemployee.repository.EmployeeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServiceBenchmark {
+    private static final int COMPANIES = 100;
+
+    @Param({"1000", "100000"})
+    private int employees;
+
+    private EmployeeService employeeService;
+    private CompanyService companyService;
+    private List<String> employeeIds;
+    private List<String> companyIds;
+
+    @Setup
+    public void setUp() {
+        List<Company> companyList = new ArrayList<>(COMPANIES);
+        for (int i = 0; i < COMPANIES; i++) {
+            companyList.add(new Company("company" + i, "Company" + i, employees / COMPANIES));
+        }
+        List<Employee> employeeList = new ArrayList<>(employees);
+        for (int i = 0; i < employees; i++) {
+            Employee employee = new Employee("Tom" + i, 18 + i % 50, i % 2 == 0 ? "male" : "female", 1000 + i, "company" + i % COMPANIES);
+            employee.setId(Integer.toHexString(i));
+            employeeList.add(employee);
+        }
+
+        EmployeeRepository employeeRepository = InMemoryRepositories.employees(InMemoryRepositories.index(employeeList, Employee::getId));
+        CompanyRepository companyRepository = InMemoryRepositories.companies(InMemoryRepositories.index(companyList, Company::getCompanyId), InMemoryRepositories.index(employeeList, Employee::getId));
+        ExistenceIndex existenceIndex = new ExistenceIndex(null, false, 0, 0.01);
+        employeeService = new EmployeeService(employeeRepository, companyRepository, null, existenceIndex, Duration.ZERO);
+        companyService = new CompanyService(companyRepository, employeeRepository, null, existenceIndex);
+        employeeIds = new ArrayList<>(InMemoryRepositories.index(employeeList, Employee::getId).keySet());
+        companyIds = new ArrayList<>(InMemoryRepositories.index(companyList, Company::getCompanyId).keySet());
+    }
+
+    @Benchmark
+    public List<Employee> employeeGetAll() {
+        return employeeService.getAll();
+    }
+
+    @Benchmark
+    public Employee employeeGetOneById() {
+        return employeeService.getOneById(employeeIds.get(ThreadLocalRandom.current().nextInt(employeeIds.size())));
+    }
+
+    @Benchmark
+    public List<Employee> employeeGetAllByGender() {
+        return employeeService.getAllByGender("male");
+    }
+
+    @Benchmark
+    public Object employeeGetAllPaginated() {
+        return employeeService.getAllPaginated(1, 20);
+    }
+
+    @Benchmark
+    public List<Company> companyGetAll() {
+        return companyService.getAll();
+    }
+
+    @Benchmark
+    public Company companyGetOne() {
+        return companyService.getOne(companyIds.get(ThreadLocalRandom.current().nextInt(companyIds.size())));
+    }
+
+    @Benchmark
+    public List<Employee> companyGetCompanyEmployees() {
+        return companyService.getCompanyEmployees(companyIds.get(ThreadLocalRandom.current().nextInt(companyIds.size())));
+    }
+}
@@ -0,0 +1,138 @@
+package com.thoughtworks.springbootemployee.loadtest;
+
+import com.thoughtworks.springbootemployee.SpringBootEmployeeApplication;
+import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.repository.EmployeeRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Boots the application once per stack (blocking servlet, then the {@code reactive} profile) against
+ * embedded Mongo, drives both with the same request mix and prints throughput, p50 and p99.
+ *
+ * <p>Run with {@code ./gradlew loadTest}; tune with {@code -DloadTest.concurrency}, {@code -DloadTest.employees},
+ * {@code -DloadTest.warmupSeconds} and {@code -DloadTest.durationSeconds}. The blocking stack answers
+ * {@code /employees/{id}} from its Caffeine cache while the reactive one always goes to Mongo, so the
+ * page requests in the mix are the like-for-like part of the comparison.
+ */
+public class StackLoadTest {
+    private static final int CONCURRENCY = Integer.getInteger("loadTest.concurrency", 256);
+    private static final int EMPLOYEES = Integer.getInteger("loadTest.employees", 10_000);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("loadTest.warmupSeconds", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("loadTest.durationSeconds", 30));
+    private static final int PAGE_SIZE = 20;
+    private static final int PAGE_REQUEST_PERCENT = 20;
+
+    public static void main(String[] args) {
+        List<Result> results = new ArrayList<>();
+        results.add(run("blocking"));
+        results.add(run("reactive"));
+
+        System.out.printf("%n%-10s %12s %10s %10s %8s%n", "stack", "req/s", "p50 ms", "p99 ms", "errors");
+        results.forEach(result -> System.out.printf("%-10s %12.1f %10.2f %10.2f %8d%n",
+            result.stack, result.throughput, result.p50Millis, result.p99Millis, result.errors));
+    }
+
+    private static Result run(String stack) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(SpringBootEmployeeApplication.class)
+            .properties("server.port=0", "spring.data.mongodb.port=0");
+        if ("reactive".equals(stack)) {
+            builder.profiles("reactive");
+        }
+        try (ConfigurableApplicationContext context = builder.run()) {
+            List<String> ids = seed(context.getBean(EmployeeRepository.class));
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            WebClient client = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(
+                    HttpClient.create(ConnectionProvider.builder(stack).maxConnections(CONCURRENCY).build())))
+                .build();
+
+            drive(client, ids, WARMUP, new AtomicLong());
+            AtomicLong errors = new AtomicLong();
+            List<Long> latencies = drive(client, ids, DURATION, errors);
+            return new Result(stack, latencies, errors.get());
+        }
+    }
+
+    private static List<String> seed(EmployeeRepository employeeRepository) {
+        employeeRepository.deleteAll();
+        List<Employee> employees = IntStream.range(0, EMPLOYEES)
+            .mapToObj(index -> new Employee("employee" + index, 20 + index % 40, index % 2 == 0 ? "male" : "female", 1000 + index))
+            .collect(Collectors.toList());
+        return employeeRepository.insert(employees).stream()
+            .map(Employee::getId)
+            .collect(Collectors.toList());
+    }
+
+    private static List<Long> drive(WebClient client, List<String> ids, Duration duration, AtomicLong errors) {
+        int pages = Math.max(1, ids.size() / PAGE_SIZE);
+        return Flux.<String>generate(sink -> sink.next(nextUri(ids, pages)))
+            .flatMap(uri -> timed(client, uri, errors), CONCURRENCY)
+            .take(duration)
+            .collectList()
+            .block();
+    }
+
+    private static String nextUri(List<String> ids, int pages) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(100) < PAGE_REQUEST_PERCENT) {
+            return "/employees?page=" + (random.nextInt(pages) + 1) + "&pageSize=" + PAGE_SIZE;
+        }
+        return "/employees/" + ids.get(random.nextInt(ids.size()));
+    }
+
+    private static Mono<Long> timed(WebClient client, String uri, AtomicLong errors) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return client.get().uri(uri)
+                .retrieve()
+                .toBodilessEntity()
+                .map(response -> System.nanoTime() - start)
+                .onErrorResume(error -> {
+                    errors.incrementAndGet();
+                    return Mono.empty();
+                });
+        });
+    }
+
+    private static class Result {
+        private final String stack;
+        private final double throughput;
+        private final double p50Millis;
+        private final double p99Millis;
+        private final long errors;
+
+        Result(String stack, List<Long> latencies, long errors) {
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            this.stack = stack;
+            this.throughput = sorted.size() / (double) DURATION.getSeconds();
+            this.p50Millis = percentile(sorted, 0.50) / 1_000_000.0;
+            this.p99Millis = percentile(sorted, 0.99) / 1_000_000.0;
+            this.errors = errors;
+        }
+
+        private static long percentile(List<Long> sorted, double quantile) {
+            if (sorted.isEmpty()) {
+                return 0;
+            }
+            return sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(quantile * sorted.size()) - 1));
+        }
+    }
+}
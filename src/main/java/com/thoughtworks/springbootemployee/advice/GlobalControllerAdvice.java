@@ -1,7 +1,9 @@
 package com.thoughtworks.springbootemployee.advice;
 
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import com.thoughtworks.springbootemployee.exceptions.CompanyNotFoundException;
 import com.thoughtworks.springbootemployee.exceptions.EmployeeNotFoundException;
+import com.thoughtworks.springbootemployee.exceptions.ImportJobNotFoundException;
 import com.thoughtworks.springbootemployee.response.ErrorResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -11,7 +13,8 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @RestControllerAdvice
 public class GlobalControllerAdvice {
     @ExceptionHandler({
-        IllegalArgumentException.class
+        IllegalArgumentException.class,
+        RuntimeJsonMappingException.class
     })
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handIllegalArgumentException(RuntimeException exception) {
@@ -20,7 +23,8 @@ public class GlobalControllerAdvice {
 
     @ExceptionHandler({
         CompanyNotFoundException.class,
-        EmployeeNotFoundException.class
+        EmployeeNotFoundException.class,
+        ImportJobNotFoundException.class
     })
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleEntityNotFoundException(RuntimeException exception) {
@@ -0,0 +1,45 @@
+package com.thoughtworks.springbootemployee.analytics;
+
+public class EmployeeAggregate {
+    public static final EmployeeAggregate EMPTY = new EmployeeAggregate(0, 0, null, null, null, null);
+
+    private final long count;
+    private final long salarySum;
+    private final Double salaryAverage;
+    private final Integer salaryMin;
+    private final Integer salaryMax;
+    private final Double ageAverage;
+
+    public EmployeeAggregate(long count, long salarySum, Double salaryAverage, Integer salaryMin, Integer salaryMax, Double ageAverage) {
+        this.count = count;
+        this.salarySum = salarySum;
+        this.salaryAverage = salaryAverage;
+        this.salaryMin = salaryMin;
+        this.salaryMax = salaryMax;
+        this.ageAverage = ageAverage;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSalarySum() {
+        return salarySum;
+    }
+
+    public Double getSalaryAverage() {
+        return salaryAverage;
+    }
+
+    public Integer getSalaryMin() {
+        return salaryMin;
+    }
+
+    public Integer getSalaryMax() {
+        return salaryMax;
+    }
+
+    public Double getAgeAverage() {
+        return ageAverage;
+    }
+}
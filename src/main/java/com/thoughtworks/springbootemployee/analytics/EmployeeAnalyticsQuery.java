@@ -0,0 +1,43 @@
+package com.thoughtworks.springbootemployee.analytics;
+
+public class EmployeeAnalyticsQuery {
+    private final Integer minAge;
+    private final Integer maxAge;
+    private final Integer minSalary;
+    private final Integer maxSalary;
+    private final String gender;
+    private final String companyId;
+
+    public EmployeeAnalyticsQuery(Integer minAge, Integer maxAge, Integer minSalary, Integer maxSalary, String gender, String companyId) {
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        this.minSalary = minSalary;
+        this.maxSalary = maxSalary;
+        this.gender = gender;
+        this.companyId = companyId;
+    }
+
+    public Integer getMinAge() {
+        return minAge;
+    }
+
+    public Integer getMaxAge() {
+        return maxAge;
+    }
+
+    public Integer getMinSalary() {
+        return minSalary;
+    }
+
+    public Integer getMaxSalary() {
+        return maxSalary;
+    }
+
+    public String getGender() {
+        return gender;
+    }
+
+    public String getCompanyId() {
+        return companyId;
+    }
+}
@@ -0,0 +1,263 @@
+package com.thoughtworks.springbootemployee.analytics;
+
+import org.bson.types.ObjectId;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-oriented copy of the employee fields that analytics filter and aggregate on. Age and salary live in primitive
+ * {@code int[]} columns, gender and company id are dictionary-encoded into {@code int} codes, and every gender code
+ * has a bitmap of its rows, so a query touches a few arrays instead of a graph of {@code Employee} objects.
+ *
+ * <p>Rows are addressed by the 12 bytes of the employee {@code ObjectId}; removing an employee only clears its live
+ * bit, the row is reclaimed by the next rebuild. Not thread-safe, {@link EmployeeSnapshot} guards it with a lock.
+ */
+public class EmployeeColumns {
+    private static final int NULL = Integer.MIN_VALUE;
+    private static final int NO_CODE = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Dictionary genders = new Dictionary();
+    private final Dictionary companies = new Dictionary();
+    private final List<BitSet> genderRows = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    private int[] idTimestamps;
+    private long[] idCounters;
+    private int[] ages;
+    private int[] salaries;
+    private int[] genderCodes;
+    private int[] companyCodes;
+    private int[] slots;
+    private int rows;
+
+    public EmployeeColumns() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public EmployeeColumns(int expectedRows) {
+        int capacity = Math.max(16, expectedRows);
+        this.idTimestamps = new int[capacity];
+        this.idCounters = new long[capacity];
+        this.ages = new int[capacity];
+        this.salaries = new int[capacity];
+        this.genderCodes = new int[capacity];
+        this.companyCodes = new int[capacity];
+        this.slots = new int[tableSize(capacity)];
+    }
+
+    /**
+     * Inserts the employee or overwrites the row it already has. Ids that are not {@code ObjectId}s are ignored, the
+     * employee collection never stores any.
+     */
+    public void upsert(String id, Integer age, Integer salary, String gender, String companyId) {
+        if (id == null || !ObjectId.isValid(id)) {
+            return;
+        }
+
+        ByteBuffer bytes = ByteBuffer.wrap(new ObjectId(id).toByteArray());
+        int timestamp = bytes.getInt();
+        long counter = bytes.getLong();
+        int row = find(timestamp, counter);
+        if (row < 0) {
+            row = append(timestamp, counter);
+        } else {
+            int oldGender = this.genderCodes[row];
+            if (oldGender != NO_CODE) {
+                this.genderRows.get(oldGender).clear(row);
+            }
+        }
+
+        this.ages[row] = age == null ? NULL : age;
+        this.salaries[row] = salary == null ? NULL : salary;
+        this.genderCodes[row] = this.genders.encode(gender);
+        this.companyCodes[row] = this.companies.encode(companyId);
+        if (this.genderCodes[row] != NO_CODE) {
+            genderRows(this.genderCodes[row]).set(row);
+        }
+        this.live.set(row);
+    }
+
+    public void remove(String id) {
+        if (id == null || !ObjectId.isValid(id)) {
+            return;
+        }
+
+        ByteBuffer bytes = ByteBuffer.wrap(new ObjectId(id).toByteArray());
+        int row = find(bytes.getInt(), bytes.getLong());
+        if (row >= 0) {
+            this.live.clear(row);
+        }
+    }
+
+    public EmployeeAggregate aggregate(EmployeeAnalyticsQuery query) {
+        BitSet candidates = (BitSet) this.live.clone();
+        if (query.getGender() != null) {
+            int gender = this.genders.lookup(query.getGender());
+            if (gender == NO_CODE) {
+                return EmployeeAggregate.EMPTY;
+            }
+            candidates.and(this.genderRows.get(gender));
+        }
+        int company = NO_CODE;
+        if (query.getCompanyId() != null) {
+            company = this.companies.lookup(query.getCompanyId());
+            if (company == NO_CODE) {
+                return EmployeeAggregate.EMPTY;
+            }
+        }
+
+        boolean ageFiltered = query.getMinAge() != null || query.getMaxAge() != null;
+        boolean salaryFiltered = query.getMinSalary() != null || query.getMaxSalary() != null;
+        int minAge = query.getMinAge() == null ? Integer.MIN_VALUE : query.getMinAge();
+        int maxAge = query.getMaxAge() == null ? Integer.MAX_VALUE : query.getMaxAge();
+        int minSalary = query.getMinSalary() == null ? Integer.MIN_VALUE : query.getMinSalary();
+        int maxSalary = query.getMaxSalary() == null ? Integer.MAX_VALUE : query.getMaxSalary();
+
+        long count = 0;
+        long salaryCount = 0;
+        long salarySum = 0;
+        int salaryMin = Integer.MAX_VALUE;
+        int salaryMax = Integer.MIN_VALUE;
+        long ageCount = 0;
+        long ageSum = 0;
+        for (int row = candidates.nextSetBit(0); row >= 0; row = candidates.nextSetBit(row + 1)) {
+            if (company != NO_CODE && this.companyCodes[row] != company) {
+                continue;
+            }
+            int age = this.ages[row];
+            if (ageFiltered && (age == NULL || age < minAge || age > maxAge)) {
+                continue;
+            }
+            int salary = this.salaries[row];
+            if (salaryFiltered && (salary == NULL || salary < minSalary || salary > maxSalary)) {
+                continue;
+            }
+
+            count++;
+            if (salary != NULL) {
+                salaryCount++;
+                salarySum += salary;
+                salaryMin = Math.min(salaryMin, salary);
+                salaryMax = Math.max(salaryMax, salary);
+            }
+            if (age != NULL) {
+                ageCount++;
+                ageSum += age;
+            }
+        }
+
+        return new EmployeeAggregate(
+            count,
+            salarySum,
+            salaryCount == 0 ? null : (double) salarySum / salaryCount,
+            salaryCount == 0 ? null : salaryMin,
+            salaryCount == 0 ? null : salaryMax,
+            ageCount == 0 ? null : (double) ageSum / ageCount
+        );
+    }
+
+    public int size() {
+        return this.live.cardinality();
+    }
+
+    /**
+     * Approximate heap taken by the columns, the id table and the bitmaps, leaving out the dictionary strings.
+     */
+    public long estimatedBytes() {
+        long columns = (long) this.ages.length * (Integer.BYTES * 5 + Long.BYTES);
+        long table = (long) this.slots.length * Integer.BYTES;
+        long bitmaps = this.live.size() / Byte.SIZE;
+        for (BitSet rowsOfGender : this.genderRows) {
+            bitmaps += rowsOfGender.size() / Byte.SIZE;
+        }
+
+        return columns + table + bitmaps;
+    }
+
+    private int find(int timestamp, long counter) {
+        int mask = this.slots.length - 1;
+        for (int slot = hash(timestamp, counter) & mask; this.slots[slot] != 0; slot = (slot + 1) & mask) {
+            int row = this.slots[slot] - 1;
+            if (this.idTimestamps[row] == timestamp && this.idCounters[row] == counter) {
+                return row;
+            }
+        }
+
+        return -1;
+    }
+
+    private int append(int timestamp, long counter) {
+        if (this.rows == this.ages.length) {
+            grow();
+        }
+
+        int row = this.rows++;
+        this.idTimestamps[row] = timestamp;
+        this.idCounters[row] = counter;
+        place(row);
+
+        return row;
+    }
+
+    private void place(int row) {
+        int mask = this.slots.length - 1;
+        int slot = hash(this.idTimestamps[row], this.idCounters[row]) & mask;
+        while (this.slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        this.slots[slot] = row + 1;
+    }
+
+    private void grow() {
+        int capacity = this.ages.length * 2;
+        this.idTimestamps = Arrays.copyOf(this.idTimestamps, capacity);
+        this.idCounters = Arrays.copyOf(this.idCounters, capacity);
+        this.ages = Arrays.copyOf(this.ages, capacity);
+        this.salaries = Arrays.copyOf(this.salaries, capacity);
+        this.genderCodes = Arrays.copyOf(this.genderCodes, capacity);
+        this.companyCodes = Arrays.copyOf(this.companyCodes, capacity);
+        this.slots = new int[tableSize(capacity)];
+        for (int row = 0; row < this.rows; row++) {
+            place(row);
+        }
+    }
+
+    private BitSet genderRows(int gender) {
+        while (this.genderRows.size() <= gender) {
+            this.genderRows.add(new BitSet());
+        }
+
+        return this.genderRows.get(gender);
+    }
+
+    private static int tableSize(int capacity) {
+        return Integer.highestOneBit(capacity * 2 - 1) << 1;
+    }
+
+    private static int hash(int timestamp, long counter) {
+        long h = (counter ^ ((long) timestamp << 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        private int encode(String value) {
+            if (value == null) {
+                return NO_CODE;
+            }
+
+            return this.codes.computeIfAbsent(value, key -> this.codes.size());
+        }
+
+        private int lookup(String value) {
+            return this.codes.getOrDefault(value, NO_CODE);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.thoughtworks.springbootemployee.analytics;
+
+import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.repository.EmployeesModifiedEvent;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Keeps {@link EmployeeColumns} in step with the employee collection. A periodic rebuild streams the collection into
+ * fresh, compacted columns; between rebuilds the Mongo mapping events of every write are applied incrementally, and
+ * writes that land while a rebuild is streaming are replayed on the new columns before they are swapped in. Writes that
+ * cannot be applied row by row mark the snapshot stale: queries keep reading the previous columns while a background
+ * rebuild catches up, and only the very first query waits for a full build.
+ */
+@Component
+@ConditionalOnProperty(name = "app.analytics-snapshot.enabled", havingValue = "true")
+public class EmployeeSnapshot {
+    private final MongoTemplate mongoTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private EmployeeColumns columns = new EmployeeColumns();
+    private List<Consumer<EmployeeColumns>> pending;
+    private boolean stalePending;
+    private volatile boolean ready;
+    private volatile boolean built;
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor();
+    private final AtomicReference<Future<?>> queuedRebuild = new AtomicReference<>();
+
+    public EmployeeSnapshot(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public EmployeeAggregate aggregate(EmployeeAnalyticsQuery query) {
+        ensureBuilt();
+        this.lock.readLock().lock();
+        try {
+            return this.columns.aggregate(query);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onAfterSave(AfterSaveEvent<?> event) {
+        if (!(event.getSource() instanceof Employee)) {
+            return;
+        }
+
+        Employee employee = (Employee) event.getSource();
+        Object id = event.getDocument() == null ? employee.getId() : event.getDocument().get("_id");
+        if (id != null) {
+            apply(columns -> columns.upsert(id.toString(), employee.getAge(), employee.getSalary(), employee.getGender(), employee.getCompanyId()));
+        }
+    }
+
+    /**
+     * Drops the row of a delete by id. Any other delete query is not resolved here, it marks the snapshot stale so the
+     * next query starts a rebuild.
+     */
+    @EventListener
+    public void onAfterDelete(AfterDeleteEvent<?> event) {
+        if (event.getType() != Employee.class) {
+            return;
+        }
+
+        Document query = event.getDocument();
+        Object id = query == null || query.size() != 1 ? null : query.getOrDefault("_id", query.get("id"));
+        if (id == null || id instanceof Document) {
+            markStale();
+            return;
+        }
+        apply(columns -> columns.remove(id.toString()));
+    }
+
+    @EventListener
+    public void onEmployeesModified(EmployeesModifiedEvent event) {
+        markStale();
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.analytics-snapshot.rebuild-interval:PT10M}")
+    public synchronized void rebuild() {
+        this.lock.writeLock().lock();
+        try {
+            this.pending = new ArrayList<>();
+            this.stalePending = false;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+
+        try {
+            String collectionName = this.mongoTemplate.getCollectionName(Employee.class);
+            long documents = this.mongoTemplate.getCollection(collectionName).estimatedDocumentCount();
+            EmployeeColumns next = new EmployeeColumns((int) Math.min(documents, Integer.MAX_VALUE / 4));
+            Query query = new Query();
+            query.fields().include("age").include("salary").include("gender").include("companyId");
+            try (CloseableIterator<Employee> employees = this.mongoTemplate.stream(query, Employee.class)) {
+                employees.forEachRemaining(employee -> next.upsert(employee.getId(), employee.getAge(), employee.getSalary(), employee.getGender(), employee.getCompanyId()));
+            }
+
+            this.lock.writeLock().lock();
+            try {
+                this.pending.forEach(change -> change.accept(next));
+                this.columns = next;
+                this.ready = !this.stalePending;
+                this.built = true;
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        } finally {
+            this.lock.writeLock().lock();
+            try {
+                this.pending = null;
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.columns.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public long estimatedBytes() {
+        this.lock.readLock().lock();
+        try {
+            return this.columns.estimatedBytes();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.rebuilder.shutdownNow();
+    }
+
+    private void ensureBuilt() {
+        if (this.ready) {
+            return;
+        }
+
+        Future<?> rebuild = requestRebuild();
+        if (this.built) {
+            return;
+        }
+        try {
+            rebuild.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while building the employee snapshot");
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+            throw new IllegalStateException(exception.getCause());
+        }
+    }
+
+    /**
+     * Queues a rebuild unless one is already queued or running; a write marking the snapshot stale while that one
+     * streams leaves it not ready, so the next query queues another.
+     */
+    private Future<?> requestRebuild() {
+        Future<?> queued = this.queuedRebuild.get();
+        if (queued != null && !queued.isDone()) {
+            return queued;
+        }
+
+        FutureTask<Void> rebuild = new FutureTask<>(this::rebuild, null);
+        if (!this.queuedRebuild.compareAndSet(queued, rebuild)) {
+            return this.queuedRebuild.get();
+        }
+        this.rebuilder.execute(rebuild);
+        return rebuild;
+    }
+
+    private void markStale() {
+        this.lock.writeLock().lock();
+        try {
+            this.ready = false;
+            this.stalePending = this.pending != null;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<EmployeeColumns> change) {
+        this.lock.writeLock().lock();
+        try {
+            change.accept(this.columns);
+            if (this.pending != null) {
+                this.pending.add(change);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.thoughtworks.springbootemployee.batch;
+
+public class BatchItemResult {
+    private final int index;
+    private final String id;
+    private final String error;
+
+    public BatchItemResult(int index, String id, String error) {
+        this.index = index;
+        this.id = id;
+        this.error = error;
+    }
+
+    public static BatchItemResult inserted(int index, String id) {
+        return new BatchItemResult(index, id, null);
+    }
+
+    public static BatchItemResult failed(int index, String error) {
+        return new BatchItemResult(index, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,43 @@
+package com.thoughtworks.springbootemployee.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchResult {
+    private final List<BatchItemResult> items = new ArrayList<>();
+    private int inserted;
+    private int failed;
+    private String error;
+
+    public void add(BatchItemResult item) {
+        this.items.add(item);
+        if (item.getError() == null) {
+            this.inserted++;
+        } else {
+            this.failed++;
+        }
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * The reason reading the input stopped early, or {@code null} when every item was read.
+     */
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public List<BatchItemResult> getItems() {
+        return items;
+    }
+}
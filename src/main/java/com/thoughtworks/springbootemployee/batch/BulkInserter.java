@@ -0,0 +1,117 @@
+package com.thoughtworks.springbootemployee.batch;
+
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+@Component
+public class BulkInserter {
+    static final int CHUNK_SIZE = 1000;
+    private static final String NOT_ATTEMPTED = "Not inserted: an earlier item failed in ordered mode";
+
+    private final MongoTemplate mongoTemplate;
+
+    public BulkInserter(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Inserts the items in chunks of {@value #CHUNK_SIZE}, handing each chunk's stored items to {@code onStored} as
+     * soon as the chunk is written, so side effects stay in step with the rows already in Mongo. When reading the
+     * items fails part-way, the items read so far are still inserted and the result carries the read error.
+     */
+    public <T> BatchResult insertAll(Iterator<T> items, Class<T> type, Function<T, String> idGetter, BiConsumer<T, String> idSetter, boolean ordered, Consumer<List<T>> onStored) {
+        BatchResult result = new BatchResult();
+        List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+        int offset = 0;
+        boolean aborted = false;
+
+        while (true) {
+            T item;
+            try {
+                if (!items.hasNext()) {
+                    break;
+                }
+                item = items.next();
+            } catch (RuntimeException exception) {
+                result.setError(exception.getMessage());
+                break;
+            }
+
+            if (aborted) {
+                result.add(BatchItemResult.failed(offset++, NOT_ATTEMPTED));
+                continue;
+            }
+
+            chunk.add(item);
+            if (chunk.size() == CHUNK_SIZE) {
+                aborted = !insertChunk(chunk, offset, type, idGetter, idSetter, ordered, result, onStored) && ordered;
+                offset += chunk.size();
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            insertChunk(chunk, offset, type, idGetter, idSetter, ordered, result, onStored);
+        }
+
+        return result;
+    }
+
+    private <T> boolean insertChunk(List<T> chunk, int offset, Class<T> type, Function<T, String> idGetter, BiConsumer<T, String> idSetter, boolean ordered, BatchResult result, Consumer<List<T>> onStored) {
+        chunk.stream()
+            .filter(item -> idGetter.apply(item) == null)
+            .forEach(item -> idSetter.accept(item, new ObjectId().toHexString()));
+
+        BulkOperations.BulkMode mode = ordered ? BulkOperations.BulkMode.ORDERED : BulkOperations.BulkMode.UNORDERED;
+        Map<Integer, String> errors = new HashMap<>();
+        int attempted = chunk.size();
+
+        try {
+            this.mongoTemplate.bulkOps(mode, type)
+                .insert(chunk)
+                .execute();
+        } catch (BulkOperationException exception) {
+            for (BulkWriteError error : exception.getErrors()) {
+                errors.put(error.getIndex(), error.getMessage());
+            }
+            if (ordered) {
+                attempted = errors.keySet().stream().min(Integer::compare).orElse(chunk.size() - 1) + 1;
+            }
+        } catch (DataAccessException exception) {
+            for (int index = 0; index < chunk.size(); index++) {
+                errors.put(index, exception.getMessage());
+            }
+        }
+
+        List<T> stored = new ArrayList<>(chunk.size());
+        for (int index = 0; index < chunk.size(); index++) {
+            if (errors.containsKey(index)) {
+                result.add(BatchItemResult.failed(offset + index, errors.get(index)));
+            } else if (index < attempted) {
+                result.add(BatchItemResult.inserted(offset + index, idGetter.apply(chunk.get(index))));
+                stored.add(chunk.get(index));
+            } else {
+                result.add(BatchItemResult.failed(offset + index, NOT_ATTEMPTED));
+            }
+        }
+        if (!stored.isEmpty()) {
+            onStored.accept(stored);
+        }
+
+        return errors.isEmpty();
+    }
+}
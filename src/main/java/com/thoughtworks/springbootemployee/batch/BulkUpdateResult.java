@@ -0,0 +1,19 @@
+package com.thoughtworks.springbootemployee.batch;
+
+public class BulkUpdateResult {
+    private final long matched;
+    private final long modified;
+
+    public BulkUpdateResult(long matched, long modified) {
+        this.matched = matched;
+        this.modified = modified;
+    }
+
+    public long getMatched() {
+        return matched;
+    }
+
+    public long getModified() {
+        return modified;
+    }
+}
@@ -0,0 +1,107 @@
+package com.thoughtworks.springbootemployee.batch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Merges single-key lookups that arrive within a short window into one bulk load. The first caller of a batch waits
+ * out the window, then loads every key collected meanwhile on its own thread and hands each waiting caller its value;
+ * a batch that reaches its maximum size is loaded at once by the caller that filled it. No thread is kept around, and
+ * callers that arrive alone pay the window and a single-key load, so the employee lookups only batch once
+ * {@code app.employee-lookup.batch-window} is set.
+ */
+public class LookupBatcher<K, V> {
+    private final Function<Collection<K>, Map<K, V>> loader;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private Batch pending;
+
+    public LookupBatcher(Function<Collection<K>, Map<K, V>> loader, Duration window, int maxBatchSize) {
+        this.loader = loader;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Returns the value loaded for the key, or {@code null} when the loader found none. A failed load, {@link Error}s
+     * included, is rethrown to every caller of the batch.
+     */
+    public V get(K key) {
+        Batch batch;
+        CompletableFuture<V> value;
+        boolean leader;
+        boolean full;
+        synchronized (this) {
+            leader = this.pending == null;
+            if (leader) {
+                this.pending = new Batch();
+            }
+            batch = this.pending;
+            value = batch.add(key);
+            full = batch.size() >= this.maxBatchSize;
+            if (full) {
+                this.pending = null;
+            }
+        }
+
+        if (full) {
+            batch.load();
+        } else if (leader) {
+            LockSupport.parkNanos(this.windowNanos);
+            if (detach(batch)) {
+                batch.load();
+            }
+        }
+
+        try {
+            return value.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+            if (exception.getCause() instanceof Error) {
+                throw (Error) exception.getCause();
+            }
+            throw exception;
+        }
+    }
+
+    private synchronized boolean detach(Batch batch) {
+        if (this.pending != batch) {
+            return false;
+        }
+
+        this.pending = null;
+        return true;
+    }
+
+    private class Batch {
+        private final Map<K, CompletableFuture<V>> values = new LinkedHashMap<>();
+
+        private CompletableFuture<V> add(K key) {
+            return this.values.computeIfAbsent(key, ignored -> new CompletableFuture<>());
+        }
+
+        private int size() {
+            return this.values.size();
+        }
+
+        private void load() {
+            List<K> keys = new ArrayList<>(this.values.keySet());
+            try {
+                Map<K, V> loaded = loader.apply(keys);
+                this.values.forEach((key, value) -> value.complete(loaded.get(key)));
+            } catch (Throwable throwable) {
+                this.values.values().forEach(value -> value.completeExceptionally(throwable));
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.thoughtworks.springbootemployee.coalescing;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the load, callers arriving while it is in flight
+ * wait for it and share its result or its exception. Nothing is kept once the load completes, so a later caller loads
+ * again; this only collapses a burst of identical reads, it is not a cache.
+ */
+public class SingleFlight<K, V> {
+    private final String name;
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> leader = this.inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            this.collapsed.increment();
+            return await(leader);
+        }
+
+        this.loads.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (Throwable throwable) {
+            flight.completeExceptionally(throwable);
+            throw throwable;
+        } finally {
+            this.inFlight.remove(key, flight);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getLoads() {
+        return this.loads.sum();
+    }
+
+    public long getCollapsed() {
+        return this.collapsed.sum();
+    }
+
+    public int getInFlight() {
+        return this.inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+            if (exception.getCause() instanceof Error) {
+                throw (Error) exception.getCause();
+            }
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.thoughtworks.springbootemployee.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Bounded list responses ({@code page} or {@code limit} requested) get a strong ETag hashed from the rendered body
+ * and answer a matching If-None-Match with 304. The filter buffers the whole body to hash it, so writes, unpaged
+ * lists and single-entity endpoints, which set a version based ETag themselves, go through unbuffered.
+ */
+@Configuration
+@Profile("!reactive")
+public class ConditionalGetConfig {
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new BoundedListEtagHeaderFilter());
+        registration.addUrlPatterns("/employees/*", "/companies/*");
+        return registration;
+    }
+
+    static class BoundedListEtagHeaderFilter extends ShallowEtagHeaderFilter {
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            return !HttpMethod.GET.matches(request.getMethod())
+                || request.getParameter("page") == null && request.getParameter("limit") == null;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.thoughtworks.springbootemployee.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.thoughtworks.springbootemployee.dto.CompanyResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+@Configuration
+public class JacksonConfig {
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSelectionCustomizer() {
+        return builder -> builder
+            .mixIn(EmployeeResponse.class, FieldSelection.Filtered.class)
+            .mixIn(CompanyResponse.class, FieldSelection.Filtered.class)
+            .filters(FieldSelection.SERIALIZE_ALL);
+    }
+
+    /**
+     * Serves {@code application/x-jackson-smile} on request. It takes the slot of the default Smile converter, after
+     * the JSON one, so clients that accept anything still get JSON; unlike the default it carries the field selection
+     * filter of the customized builder.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Serves {@code application/cbor} on request, built from the customized builder like the Smile converter.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
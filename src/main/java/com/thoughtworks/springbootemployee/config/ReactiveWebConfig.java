@@ -0,0 +1,40 @@
+package com.thoughtworks.springbootemployee.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thoughtworks.springbootemployee.streaming.NdjsonWriter;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.util.MimeType;
+
+import java.util.Arrays;
+
+@Configuration
+@Profile("reactive")
+public class ReactiveWebConfig {
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(NdjsonWriter.APPLICATION_NDJSON_VALUE);
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    @Order(1)
+    public CodecCustomizer ndjsonCodecCustomizer(ObjectMapper objectMapper) {
+        Jackson2JsonEncoder encoder = new Jackson2JsonEncoder(
+            objectMapper,
+            MediaType.APPLICATION_JSON,
+            new MimeType("application", "*+json"),
+            APPLICATION_NDJSON
+        );
+        encoder.setStreamingMediaTypes(Arrays.asList(MediaType.APPLICATION_STREAM_JSON, APPLICATION_NDJSON));
+
+        return configurer -> configurer.defaultCodecs().jackson2JsonEncoder(encoder);
+    }
+}
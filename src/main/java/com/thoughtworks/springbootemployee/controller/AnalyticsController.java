@@ -0,0 +1,33 @@
+package com.thoughtworks.springbootemployee.controller;
+
+import com.thoughtworks.springbootemployee.analytics.EmployeeAggregate;
+import com.thoughtworks.springbootemployee.analytics.EmployeeAnalyticsQuery;
+import com.thoughtworks.springbootemployee.analytics.EmployeeSnapshot;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Profile("!reactive")
+@ConditionalOnProperty(name = "app.analytics-snapshot.enabled", havingValue = "true")
+@RequestMapping("/analytics")
+public class AnalyticsController {
+    private final EmployeeSnapshot employeeSnapshot;
+
+    public AnalyticsController(EmployeeSnapshot employeeSnapshot) {
+        this.employeeSnapshot = employeeSnapshot;
+    }
+
+    @GetMapping("/employees")
+    public EmployeeAggregate aggregateEmployees(@RequestParam(required = false) Integer minAge,
+                                                @RequestParam(required = false) Integer maxAge,
+                                                @RequestParam(required = false) Integer minSalary,
+                                                @RequestParam(required = false) Integer maxSalary,
+                                                @RequestParam(required = false) String gender,
+                                                @RequestParam(required = false) String companyId) {
+        return this.employeeSnapshot.aggregate(new EmployeeAnalyticsQuery(minAge, maxAge, minSalary, maxSalary, gender, companyId));
+    }
+}
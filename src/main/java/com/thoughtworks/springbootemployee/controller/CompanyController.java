@@ -1,16 +1,34 @@
 package com.thoughtworks.springbootemployee.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.thoughtworks.springbootemployee.batch.BatchResult;
+import com.thoughtworks.springbootemployee.batch.BulkUpdateResult;
 import com.thoughtworks.springbootemployee.dto.CompanyRequest;
 import com.thoughtworks.springbootemployee.dto.CompanyResponse;
+import com.thoughtworks.springbootemployee.dto.CompanyStatsResponse;
 import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
 import com.thoughtworks.springbootemployee.entity.Company;
+import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.etag.EntityTags;
 import com.thoughtworks.springbootemployee.mapper.CompanyMapper;
 import com.thoughtworks.springbootemployee.mapper.EmployeeMapper;
+import com.thoughtworks.springbootemployee.pagination.CountedPage;
+import com.thoughtworks.springbootemployee.pagination.CursorPage;
+import com.thoughtworks.springbootemployee.pagination.TotalCount;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
 import com.thoughtworks.springbootemployee.services.CompanyService;
-import org.springframework.data.domain.Page;
+import com.thoughtworks.springbootemployee.services.EmployeeCascade;
+import com.thoughtworks.springbootemployee.streaming.JsonArrayWriter;
+import com.thoughtworks.springbootemployee.streaming.JsonSequenceReader;
+import com.thoughtworks.springbootemployee.streaming.NdjsonWriter;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -19,51 +37,151 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/companies")
 public class CompanyController {
     private final CompanyService companyService;
     private final CompanyMapper companyMapper;
     private final EmployeeMapper employeeMapper;
+    private final NdjsonWriter ndjsonWriter;
+    private final JsonArrayWriter jsonArrayWriter;
+    private final JsonSequenceReader jsonSequenceReader;
 
-    public CompanyController(CompanyService companyService, CompanyMapper companyMapper, EmployeeMapper employeeMapper) {
+    public CompanyController(CompanyService companyService, CompanyMapper companyMapper, EmployeeMapper employeeMapper, NdjsonWriter ndjsonWriter, JsonArrayWriter jsonArrayWriter, JsonSequenceReader jsonSequenceReader) {
         this.companyService = companyService;
         this.companyMapper = companyMapper;
         this.employeeMapper = employeeMapper;
+        this.ndjsonWriter = ndjsonWriter;
+        this.jsonArrayWriter = jsonArrayWriter;
+        this.jsonSequenceReader = jsonSequenceReader;
     }
 
     @GetMapping
-    public List<CompanyResponse> getAll() {
-        return this.companyService.getAll().stream()
+    public MappingJacksonValue getAll(@RequestParam(value = "fields", required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, CompanyResponse.class);
+
+        return selection.wrap(this.companyService.getAll(selection).stream()
             .map(companyMapper::toResponse)
-            .collect(Collectors.toList());
+            .collect(Collectors.toList()));
+    }
+
+    @GetMapping(produces = NdjsonWriter.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamAll(HttpServletRequest request) {
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        return this.ndjsonWriter.write(this.companyService::streamAll, companyMapper::toResponse);
     }
 
     @GetMapping(params = {
         "page",
         "pageSize"
     })
-    public Page<CompanyResponse> getAllPaginated(@RequestParam("page") Integer page, @RequestParam("pageSize") Integer pageSize) {
-        return this.companyService.getAllPaginated(page, pageSize)
-            .map(companyMapper::toResponse);
+    public MappingJacksonValue getAllPaginated(@RequestParam("page") Integer page, @RequestParam("pageSize") Integer pageSize, @RequestParam(value = "fields", required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, CompanyResponse.class);
+
+        return selection.wrap(this.companyService.getAllPaginated(page, pageSize, selection)
+            .map(companyMapper::toResponse));
+    }
+
+    @GetMapping(params = {
+        "page",
+        "pageSize",
+        "total=none"
+    })
+    public MappingJacksonValue getSlice(@RequestParam("page") Integer page, @RequestParam("pageSize") Integer pageSize, @RequestParam(value = "fields", required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, CompanyResponse.class);
+
+        return selection.wrap(this.companyService.getSlice(page, pageSize, selection)
+            .map(companyMapper::toResponse));
+    }
+
+    @GetMapping(params = {
+        "page",
+        "pageSize",
+        "total"
+    })
+    public MappingJacksonValue getAllPaginated(@RequestParam("page") Integer page, @RequestParam("pageSize") Integer pageSize, @RequestParam("total") String total, @RequestParam(value = "fields", required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, CompanyResponse.class);
+
+        return selection.wrap(this.companyService.getAllPaginated(page, pageSize, TotalCount.from(total), selection)
+            .map(companyMapper::toResponse));
+    }
+
+    @GetMapping(params = "limit")
+    public MappingJacksonValue getAllAfter(@RequestParam(value = "after", required = false) String after, @RequestParam("limit") Integer limit, @RequestParam(value = "fields", required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, CompanyResponse.class);
+
+        return selection.wrap(this.companyService.getAllAfter(after, limit, selection)
+            .map(companyMapper::toResponse));
+    }
+
+    @GetMapping("/stats")
+    public List<CompanyStatsResponse> getStats(@RequestParam(value = "companyIds", required = false) List<String> companyIds) {
+        return this.companyService.getStats(companyIds).stream()
+            .map(companyMapper::toResponse)
+            .collect(Collectors.toList());
     }
 
     @GetMapping("/{companyId}")
-    public CompanyResponse getOne(@PathVariable String companyId) {
-        Company company = this.companyService.getOne(companyId);
+    public MappingJacksonValue getOne(@PathVariable String companyId, @RequestParam(value = "fields", required = false) String fields, WebRequest request, HttpServletResponse response) {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        FieldSelection selection = FieldSelection.parse(fields, CompanyResponse.class);
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+            && request.checkNotModified(EntityTags.of(companyId, this.companyService.getVersion(companyId), selection, request.getHeader(HttpHeaders.ACCEPT)))) {
+            return null;
+        }
+
+        Company company = this.companyService.getOne(companyId, selection);
+        request.checkNotModified(EntityTags.of(company.getCompanyId(), company.getVersion(), selection, request.getHeader(HttpHeaders.ACCEPT)));
 
-        return this.companyMapper.toResponse(company);
+        return selection.wrap(this.companyMapper.toResponse(company));
     }
 
     @GetMapping("/{companyId}/employees")
-    public List<EmployeeResponse> getCompanyEmployees(@PathVariable String companyId) {
-        return this.companyService.getCompanyEmployees(companyId).stream()
-            .map(employeeMapper::toResponse)
-            .collect(Collectors.toList());
+    public StreamingResponseBody getCompanyEmployees(@PathVariable String companyId, @RequestParam(value = "fields", required = false) String fields, HttpServletRequest request, HttpServletResponse response) {
+        FieldSelection selection = FieldSelection.parse(fields, EmployeeResponse.class);
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        Stream<Employee> employees = this.companyService.streamCompanyEmployees(companyId, selection);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        return this.jsonArrayWriter.write(() -> employees, employeeMapper::toResponse, selection);
+    }
+
+    @GetMapping(value = "/{companyId}/employees", produces = NdjsonWriter.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamCompanyEmployees(@PathVariable String companyId, HttpServletRequest request) {
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        Stream<Employee> employees = this.companyService.streamCompanyEmployees(companyId, FieldSelection.ALL);
+
+        return this.ndjsonWriter.write(() -> employees, employeeMapper::toResponse);
+    }
+
+    @GetMapping(value = "/{companyId}/employees", params = "limit")
+    public MappingJacksonValue getCompanyEmployeesAfter(@PathVariable String companyId, @RequestParam(value = "after", required = false) String after, @RequestParam("limit") Integer limit, @RequestParam(value = "fields", required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, EmployeeResponse.class);
+
+        return selection.wrap(this.companyService.getCompanyEmployeesAfter(companyId, after, limit, selection)
+            .map(employeeMapper::toResponse));
+    }
+
+    @GetMapping("/{companyId}/stats")
+    public CompanyStatsResponse getStats(@PathVariable String companyId) {
+        return this.companyMapper.toResponse(this.companyService.getStats(companyId));
     }
 
     @PostMapping
@@ -75,6 +193,25 @@ public class CompanyController {
         return this.companyMapper.toResponse(createdCompany);
     }
 
+    @PostMapping(value = "/batch", consumes = {
+        MediaType.APPLICATION_JSON_VALUE,
+        NdjsonWriter.APPLICATION_NDJSON_VALUE
+    })
+    public BatchResult createAll(InputStream body, @RequestParam(value = "ordered", defaultValue = "true") boolean ordered) throws IOException {
+        try (MappingIterator<CompanyRequest> requests = this.jsonSequenceReader.read(body, CompanyRequest.class)) {
+            Iterator<Company> companies = StreamSupport.stream(Spliterators.spliteratorUnknownSize(requests, Spliterator.ORDERED), false)
+                .map(companyMapper::toEntity)
+                .iterator();
+
+            return this.companyService.createAll(companies, ordered);
+        }
+    }
+
+    @PostMapping("/employees-number/recount")
+    public BulkUpdateResult recountEmployeesNumbers() {
+        return this.companyService.recountEmployeesNumbers();
+    }
+
     @PutMapping("/{companyId}")
     public CompanyResponse update(@PathVariable String companyId, @RequestBody CompanyRequest companyRequest) {
         Company company = this.companyMapper.toEntity(companyRequest);
@@ -83,9 +220,16 @@ public class CompanyController {
         return this.companyMapper.toResponse(updatedCompany);
     }
 
+    @PatchMapping("/{companyId}")
+    public CompanyResponse patch(@PathVariable String companyId, @RequestBody CompanyRequest companyRequest) {
+        Company patchedCompany = this.companyService.patch(companyId, this.companyMapper.toEntity(companyRequest));
+
+        return this.companyMapper.toResponse(patchedCompany);
+    }
+
     @DeleteMapping("/{companyId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void delete(@PathVariable String companyId) {
-        this.companyService.delete(companyId);
+    public void delete(@PathVariable String companyId, @RequestParam(value = "employees", defaultValue = "keep") String employees) {
+        this.companyService.delete(companyId, EmployeeCascade.from(employees));
     }
 }
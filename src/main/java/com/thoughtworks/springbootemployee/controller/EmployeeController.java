@@ -1,14 +1,32 @@
 package com.thoughtworks.springbootemployee.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.thoughtworks.springbootemployee.batch.BatchResult;
+import com.thoughtworks.springbootemployee.batch.BulkUpdateResult;
+import com.thoughtworks.springbootemployee.dto.EmployeeLookupRequest;
 import com.thoughtworks.springbootemployee.dto.EmployeeRequest;
 import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import com.thoughtworks.springbootemployee.dto.SalaryAdjustmentRequest;
 import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.etag.EntityTags;
+import com.thoughtworks.springbootemployee.filter.EmployeeFilter;
+import com.thoughtworks.springbootemployee.filter.EmployeeSort;
 import com.thoughtworks.springbootemployee.mapper.EmployeeMapper;
+import com.thoughtworks.springbootemployee.pagination.CountedPage;
+import com.thoughtworks.springbootemployee.pagination.CursorPage;
+import com.thoughtworks.springbootemployee.pagination.TotalCount;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
 import com.thoughtworks.springbootemployee.services.EmployeeService;
-import org.springframework.data.domain.Page;
+import com.thoughtworks.springbootemployee.streaming.JsonSequenceReader;
+import com.thoughtworks.springbootemployee.streaming.NdjsonWriter;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -17,49 +35,132 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/employees")
 public class EmployeeController {
     private final EmployeeService employeeService;
     private final EmployeeMapper employeeMapper;
+    private final NdjsonWriter ndjsonWriter;
+    private final JsonSequenceReader jsonSequenceReader;
 
-    public EmployeeController(EmployeeService employeeService, EmployeeMapper employeeMapper) {
+    public EmployeeController(EmployeeService employeeService, EmployeeMapper employeeMapper, NdjsonWriter ndjsonWriter, JsonSequenceReader jsonSequenceReader) {
         this.employeeService = employeeService;
         this.employeeMapper = employeeMapper;
+        this.ndjsonWriter = ndjsonWriter;
+        this.jsonSequenceReader = jsonSequenceReader;
     }
 
     @GetMapping
-    public List<EmployeeResponse> getAll() {
-        return this.employeeService.getAll().stream()
+    public MappingJacksonValue getAll(EmployeeFilter filter, @RequestParam(value = "sort", required = false) String sort, @RequestParam(value = "fields", required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, EmployeeResponse.class);
+
+        return selection.wrap(this.employeeService.getAll(filter, EmployeeSort.parse(sort), selection).stream()
             .map(employeeMapper::toResponse)
-            .collect(Collectors.toList());
+            .collect(Collectors.toList()));
+    }
+
+    @GetMapping(produces = NdjsonWriter.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamAll(HttpServletRequest request) {
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        return this.ndjsonWriter.write(this.employeeService::streamAll, employeeMapper::toResponse);
     }
 
     @GetMapping(params = {
         "page",
         "pageSize"
     })
-    public Page<EmployeeResponse> getAllPaginated(@RequestParam("page") Integer page, @RequestParam("pageSize") Integer pageSize) {
-        return this.employeeService.getAllPaginated(page, pageSize)
-            .map(employeeMapper::toResponse);
+    public MappingJacksonValue getAllPaginated(@RequestParam("page") Integer page, @RequestParam("pageSize") Integer pageSize, EmployeeFilter filter, @RequestParam(value = "sort", required = false) String sort, @RequestParam(value = "fields", required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, EmployeeResponse.class);
+
+        return selection.wrap(this.employeeService.getAllPaginated(page, pageSize, filter, EmployeeSort.parse(sort), selection)
+            .map(employeeMapper::toResponse));
+    }
+
+    @GetMapping(params = {
+        "page",
+        "pageSize",
+        "total=none"
+    })
+    public MappingJacksonValue getSlice(@RequestParam("page") Integer page, @RequestParam("pageSize") Integer pageSize, EmployeeFilter filter, @RequestParam(value = "sort", required = false) String sort, @RequestParam(value = "fields", required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, EmployeeResponse.class);
+
+        return selection.wrap(this.employeeService.getSlice(page, pageSize, filter, EmployeeSort.parse(sort), selection)
+            .map(employeeMapper::toResponse));
+    }
+
+    @GetMapping(params = {
+        "page",
+        "pageSize",
+        "total"
+    })
+    public MappingJacksonValue getAllPaginated(@RequestParam("page") Integer page, @RequestParam("pageSize") Integer pageSize, @RequestParam("total") String total, EmployeeFilter filter, @RequestParam(value = "sort", required = false) String sort, @RequestParam(value = "fields", required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, EmployeeResponse.class);
+
+        return selection.wrap(this.employeeService.getAllPaginated(page, pageSize, TotalCount.from(total), filter, EmployeeSort.parse(sort), selection)
+            .map(employeeMapper::toResponse));
+    }
+
+    @GetMapping(params = "limit")
+    public MappingJacksonValue getAllAfter(@RequestParam(value = "after", required = false) String after, @RequestParam("limit") Integer limit, EmployeeFilter filter, @RequestParam(value = "sort", required = false) String sort, @RequestParam(value = "fields", required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, EmployeeResponse.class);
+
+        return selection.wrap(this.employeeService.getAllAfter(after, limit, filter, EmployeeSort.parse(sort), selection)
+            .map(employeeMapper::toResponse));
     }
 
-    @GetMapping(params = "gender")
-    public List<EmployeeResponse> getAllByGender(@RequestParam("gender") String gender) {
-        return this.employeeService.getAllByGender(gender).stream()
+    @GetMapping(params = "ids")
+    public MappingJacksonValue getAllByIds(@RequestParam("ids") List<String> ids, @RequestParam(value = "fields", required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, EmployeeResponse.class);
+
+        return selection.wrap(this.employeeService.getAllByIds(ids, selection).stream()
+            .map(employeeMapper::toResponse)
+            .collect(Collectors.toList()));
+    }
+
+    @PostMapping("/lookup")
+    public MappingJacksonValue lookup(@RequestBody EmployeeLookupRequest lookupRequest, @RequestParam(value = "fields", required = false) String fields) {
+        return getAllByIds(lookupRequest.getIds() == null ? Collections.emptyList() : lookupRequest.getIds(), fields);
+    }
+
+    @GetMapping("/search")
+    public List<EmployeeResponse> search(@RequestParam("q") String query, @RequestParam(value = "limit", defaultValue = "10") Integer limit) {
+        return this.employeeService.search(query, limit).stream()
             .map(employeeMapper::toResponse)
             .collect(Collectors.toList());
     }
 
     @GetMapping("/{employeeId}")
-    public EmployeeResponse findEmployee(@PathVariable String employeeId) {
-        Employee employee = this.employeeService.getOneById(employeeId);
+    public MappingJacksonValue findEmployee(@PathVariable String employeeId, @RequestParam(value = "fields", required = false) String fields, WebRequest request, HttpServletResponse response) {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        FieldSelection selection = FieldSelection.parse(fields, EmployeeResponse.class);
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+            && request.checkNotModified(EntityTags.of(employeeId, this.employeeService.getVersion(employeeId), selection, request.getHeader(HttpHeaders.ACCEPT)))) {
+            return null;
+        }
+
+        Employee employee = selection.isAll()
+            ? this.employeeService.getOneById(employeeId)
+            : this.employeeService.getOneById(employeeId, selection);
+        request.checkNotModified(EntityTags.of(employee.getId(), employee.getVersion(), selection, request.getHeader(HttpHeaders.ACCEPT)));
 
-        return employeeMapper.toResponse(employee);
+        return selection.wrap(employeeMapper.toResponse(employee));
     }
 
     @PostMapping
@@ -71,6 +172,25 @@ public class EmployeeController {
         return employeeMapper.toResponse(createdEmployee);
     }
 
+    @PostMapping(value = "/batch", consumes = {
+        MediaType.APPLICATION_JSON_VALUE,
+        NdjsonWriter.APPLICATION_NDJSON_VALUE
+    })
+    public BatchResult createAll(InputStream body, @RequestParam(value = "ordered", defaultValue = "true") boolean ordered) throws IOException {
+        try (MappingIterator<EmployeeRequest> requests = this.jsonSequenceReader.read(body, EmployeeRequest.class)) {
+            Iterator<Employee> employees = StreamSupport.stream(Spliterators.spliteratorUnknownSize(requests, Spliterator.ORDERED), false)
+                .map(employeeMapper::toEntity)
+                .iterator();
+
+            return this.employeeService.createAll(employees, ordered);
+        }
+    }
+
+    @PostMapping("/salary-adjustments")
+    public BulkUpdateResult adjustSalaries(EmployeeFilter filter, @RequestBody SalaryAdjustmentRequest adjustment) {
+        return this.employeeService.adjustSalaries(filter, adjustment.getPercent(), adjustment.getAmount());
+    }
+
     @PutMapping("/{employeeId}")
     public EmployeeResponse update(@PathVariable String employeeId, @RequestBody EmployeeRequest employeeRequest) {
         Employee employee = this.employeeMapper.toEntity(employeeRequest);
@@ -79,6 +199,13 @@ public class EmployeeController {
         return employeeMapper.toResponse(updatedEmployee);
     }
 
+    @PatchMapping("/{employeeId}")
+    public EmployeeResponse patch(@PathVariable String employeeId, @RequestBody EmployeeRequest employeeRequest) {
+        Employee patchedEmployee = this.employeeService.patch(employeeId, this.employeeMapper.toEntity(employeeRequest));
+
+        return this.employeeMapper.toResponse(patchedEmployee);
+    }
+
     @DeleteMapping("/{employeeId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable String employeeId) {
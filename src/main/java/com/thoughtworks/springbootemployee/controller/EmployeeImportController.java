@@ -0,0 +1,37 @@
+package com.thoughtworks.springbootemployee.controller;
+
+import com.thoughtworks.springbootemployee.imports.EmployeeCsvImporter;
+import com.thoughtworks.springbootemployee.imports.ImportJob;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/employees/imports")
+public class EmployeeImportController {
+    private final EmployeeCsvImporter employeeCsvImporter;
+
+    public EmployeeImportController(EmployeeCsvImporter employeeCsvImporter) {
+        this.employeeCsvImporter = employeeCsvImporter;
+    }
+
+    @PostMapping(consumes = "text/csv")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJob start(InputStream csv) throws IOException {
+        return this.employeeCsvImporter.start(csv);
+    }
+
+    @GetMapping("/{jobId}")
+    public ImportJob get(@PathVariable String jobId) {
+        return this.employeeCsvImporter.get(jobId);
+    }
+}
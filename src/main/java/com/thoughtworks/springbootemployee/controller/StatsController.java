@@ -0,0 +1,85 @@
+package com.thoughtworks.springbootemployee.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.thoughtworks.springbootemployee.coalescing.SingleFlight;
+import com.thoughtworks.springbootemployee.dto.CacheStatsResponse;
+import com.thoughtworks.springbootemployee.dto.SingleFlightStatsResponse;
+import com.thoughtworks.springbootemployee.indexes.QueryPlan;
+import com.thoughtworks.springbootemployee.indexes.QueryPlanReport;
+import com.thoughtworks.springbootemployee.services.CompanyService;
+import com.thoughtworks.springbootemployee.services.EmployeeService;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/stats")
+public class StatsController {
+    private final CacheManager cacheManager;
+    private final QueryPlanReport queryPlanReport;
+    private final EmployeeService employeeService;
+    private final CompanyService companyService;
+
+    public StatsController(CacheManager cacheManager, QueryPlanReport queryPlanReport, EmployeeService employeeService, CompanyService companyService) {
+        this.cacheManager = cacheManager;
+        this.queryPlanReport = queryPlanReport;
+        this.employeeService = employeeService;
+        this.companyService = companyService;
+    }
+
+    @GetMapping("/caches")
+    public List<CacheStatsResponse> getCacheStats() {
+        return this.cacheManager.getCacheNames().stream()
+            .map(this.cacheManager::getCache)
+            .filter(CaffeineCache.class::isInstance)
+            .map(CaffeineCache.class::cast)
+            .map(cache -> toResponse(cache.getName(), cache.getNativeCache()))
+            .collect(Collectors.toList());
+    }
+
+    @GetMapping("/query-plans")
+    public List<QueryPlan> getQueryPlans() {
+        return this.queryPlanReport.explainAll();
+    }
+
+    @GetMapping("/single-flight")
+    public List<SingleFlightStatsResponse> getSingleFlightStats() {
+        return Stream.of(this.employeeService.getReadFlight(), this.companyService.getReadFlight())
+            .map(StatsController::toResponse)
+            .collect(Collectors.toList());
+    }
+
+    private static SingleFlightStatsResponse toResponse(SingleFlight<?, ?> flight) {
+        long requests = flight.getLoads() + flight.getCollapsed();
+
+        return new SingleFlightStatsResponse(
+            flight.getName(),
+            flight.getLoads(),
+            flight.getCollapsed(),
+            requests == 0 ? 0 : (double) flight.getCollapsed() / requests,
+            flight.getInFlight()
+        );
+    }
+
+    private static CacheStatsResponse toResponse(String name, Cache<Object, Object> cache) {
+        CacheStats stats = cache.stats();
+
+        return new CacheStatsResponse(
+            name,
+            cache.estimatedSize(),
+            stats.hitCount(),
+            stats.missCount(),
+            stats.hitRate(),
+            stats.evictionCount()
+        );
+    }
+}
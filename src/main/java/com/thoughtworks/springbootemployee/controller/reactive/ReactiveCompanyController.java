@@ -0,0 +1,121 @@
+package com.thoughtworks.springbootemployee.controller.reactive;
+
+import com.thoughtworks.springbootemployee.dto.CompanyRequest;
+import com.thoughtworks.springbootemployee.dto.CompanyResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import com.thoughtworks.springbootemployee.mapper.CompanyMapper;
+import com.thoughtworks.springbootemployee.mapper.EmployeeMapper;
+import com.thoughtworks.springbootemployee.pagination.CountedPage;
+import com.thoughtworks.springbootemployee.pagination.CursorPage;
+import com.thoughtworks.springbootemployee.pagination.TotalCount;
+import com.thoughtworks.springbootemployee.services.reactive.ReactiveCompanyService;
+import com.thoughtworks.springbootemployee.streaming.NdjsonWriter;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/companies")
+public class ReactiveCompanyController {
+    private final ReactiveCompanyService companyService;
+    private final CompanyMapper companyMapper;
+    private final EmployeeMapper employeeMapper;
+
+    public ReactiveCompanyController(ReactiveCompanyService companyService, CompanyMapper companyMapper, EmployeeMapper employeeMapper) {
+        this.companyService = companyService;
+        this.companyMapper = companyMapper;
+        this.employeeMapper = employeeMapper;
+    }
+
+    @GetMapping
+    public Flux<CompanyResponse> getAll() {
+        return this.companyService.getAll()
+            .map(companyMapper::toResponse);
+    }
+
+    @GetMapping(produces = NdjsonWriter.APPLICATION_NDJSON_VALUE)
+    public Flux<CompanyResponse> streamAll() {
+        return getAll();
+    }
+
+    @GetMapping(params = {
+        "page",
+        "pageSize"
+    })
+    public Mono<Page<CompanyResponse>> getAllPaginated(@RequestParam("page") Integer page, @RequestParam("pageSize") Integer pageSize) {
+        return this.companyService.getAllPaginated(page, pageSize)
+            .map(companies -> companies.map(companyMapper::toResponse));
+    }
+
+    @GetMapping(params = {
+        "page",
+        "pageSize",
+        "total=none"
+    })
+    public Mono<Slice<CompanyResponse>> getSlice(@RequestParam("page") Integer page, @RequestParam("pageSize") Integer pageSize) {
+        return this.companyService.getSlice(page, pageSize)
+            .map(companies -> companies.map(companyMapper::toResponse));
+    }
+
+    @GetMapping(params = {
+        "page",
+        "pageSize",
+        "total"
+    })
+    public Mono<CountedPage<CompanyResponse>> getAllPaginated(@RequestParam("page") Integer page, @RequestParam("pageSize") Integer pageSize, @RequestParam("total") String total) {
+        return Mono.fromCallable(() -> TotalCount.from(total))
+            .flatMap(totalCount -> this.companyService.getAllPaginated(page, pageSize, totalCount))
+            .map(companies -> companies.map(companyMapper::toResponse));
+    }
+
+    @GetMapping(params = "limit")
+    public Mono<CursorPage<CompanyResponse>> getAllAfter(@RequestParam(value = "after", required = false) String after, @RequestParam("limit") Integer limit) {
+        return this.companyService.getAllAfter(after, limit)
+            .map(companies -> companies.map(companyMapper::toResponse));
+    }
+
+    @GetMapping("/{companyId}")
+    public Mono<CompanyResponse> getOne(@PathVariable String companyId) {
+        return this.companyService.getOne(companyId)
+            .map(companyMapper::toResponse);
+    }
+
+    @GetMapping("/{companyId}/employees")
+    public Flux<EmployeeResponse> getCompanyEmployees(@PathVariable String companyId) {
+        return this.companyService.getCompanyEmployees(companyId)
+            .map(employeeMapper::toResponse);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<CompanyResponse> create(@RequestBody CompanyRequest companyRequest) {
+        return this.companyService.create(this.companyMapper.toEntity(companyRequest))
+            .map(companyMapper::toResponse);
+    }
+
+    @PutMapping("/{companyId}")
+    public Mono<CompanyResponse> update(@PathVariable String companyId, @RequestBody CompanyRequest companyRequest) {
+        return this.companyService.update(companyId, this.companyMapper.toEntity(companyRequest))
+            .map(companyMapper::toResponse);
+    }
+
+    @DeleteMapping("/{companyId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> delete(@PathVariable String companyId) {
+        return this.companyService.delete(companyId);
+    }
+}
@@ -0,0 +1,117 @@
+package com.thoughtworks.springbootemployee.controller.reactive;
+
+import com.thoughtworks.springbootemployee.dto.EmployeeRequest;
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import com.thoughtworks.springbootemployee.mapper.EmployeeMapper;
+import com.thoughtworks.springbootemployee.pagination.CountedPage;
+import com.thoughtworks.springbootemployee.pagination.CursorPage;
+import com.thoughtworks.springbootemployee.pagination.TotalCount;
+import com.thoughtworks.springbootemployee.services.reactive.ReactiveEmployeeService;
+import com.thoughtworks.springbootemployee.streaming.NdjsonWriter;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/employees")
+public class ReactiveEmployeeController {
+    private final ReactiveEmployeeService employeeService;
+    private final EmployeeMapper employeeMapper;
+
+    public ReactiveEmployeeController(ReactiveEmployeeService employeeService, EmployeeMapper employeeMapper) {
+        this.employeeService = employeeService;
+        this.employeeMapper = employeeMapper;
+    }
+
+    @GetMapping
+    public Flux<EmployeeResponse> getAll() {
+        return this.employeeService.getAll()
+            .map(employeeMapper::toResponse);
+    }
+
+    @GetMapping(produces = NdjsonWriter.APPLICATION_NDJSON_VALUE)
+    public Flux<EmployeeResponse> streamAll() {
+        return getAll();
+    }
+
+    @GetMapping(params = {
+        "page",
+        "pageSize"
+    })
+    public Mono<Page<EmployeeResponse>> getAllPaginated(@RequestParam("page") Integer page, @RequestParam("pageSize") Integer pageSize) {
+        return this.employeeService.getAllPaginated(page, pageSize)
+            .map(employees -> employees.map(employeeMapper::toResponse));
+    }
+
+    @GetMapping(params = {
+        "page",
+        "pageSize",
+        "total=none"
+    })
+    public Mono<Slice<EmployeeResponse>> getSlice(@RequestParam("page") Integer page, @RequestParam("pageSize") Integer pageSize) {
+        return this.employeeService.getSlice(page, pageSize)
+            .map(employees -> employees.map(employeeMapper::toResponse));
+    }
+
+    @GetMapping(params = {
+        "page",
+        "pageSize",
+        "total"
+    })
+    public Mono<CountedPage<EmployeeResponse>> getAllPaginated(@RequestParam("page") Integer page, @RequestParam("pageSize") Integer pageSize, @RequestParam("total") String total) {
+        return Mono.fromCallable(() -> TotalCount.from(total))
+            .flatMap(totalCount -> this.employeeService.getAllPaginated(page, pageSize, totalCount))
+            .map(employees -> employees.map(employeeMapper::toResponse));
+    }
+
+    @GetMapping(params = "limit")
+    public Mono<CursorPage<EmployeeResponse>> getAllAfter(@RequestParam(value = "after", required = false) String after, @RequestParam("limit") Integer limit) {
+        return this.employeeService.getAllAfter(after, limit)
+            .map(employees -> employees.map(employeeMapper::toResponse));
+    }
+
+    @GetMapping(params = "gender")
+    public Flux<EmployeeResponse> getAllByGender(@RequestParam("gender") String gender) {
+        return this.employeeService.getAllByGender(gender)
+            .map(employeeMapper::toResponse);
+    }
+
+    @GetMapping("/{employeeId}")
+    public Mono<EmployeeResponse> findEmployee(@PathVariable String employeeId) {
+        return this.employeeService.getOneById(employeeId)
+            .map(employeeMapper::toResponse);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<EmployeeResponse> create(@RequestBody EmployeeRequest employeeRequest) {
+        return this.employeeService.create(this.employeeMapper.toEntity(employeeRequest))
+            .map(employeeMapper::toResponse);
+    }
+
+    @PutMapping("/{employeeId}")
+    public Mono<EmployeeResponse> update(@PathVariable String employeeId, @RequestBody EmployeeRequest employeeRequest) {
+        return this.employeeService.update(employeeId, this.employeeMapper.toEntity(employeeRequest))
+            .map(employeeMapper::toResponse);
+    }
+
+    @DeleteMapping("/{employeeId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> delete(@PathVariable String employeeId) {
+        return this.employeeService.delete(employeeId);
+    }
+}
@@ -0,0 +1,92 @@
+package com.thoughtworks.springbootemployee.dto;
+
+import java.util.Map;
+
+public class CompanyStatsResponse {
+    private String companyId;
+    private long headcount;
+    private long salarySum;
+    private Double salaryAverage;
+    private Integer salaryMin;
+    private Integer salaryMax;
+    private Double ageAverage;
+    private Map<String, Long> genders;
+
+    public CompanyStatsResponse() {
+    }
+
+    public CompanyStatsResponse(String companyId, long headcount, long salarySum, Double salaryAverage, Integer salaryMin, Integer salaryMax, Double ageAverage, Map<String, Long> genders) {
+        this.companyId = companyId;
+        this.headcount = headcount;
+        this.salarySum = salarySum;
+        this.salaryAverage = salaryAverage;
+        this.salaryMin = salaryMin;
+        this.salaryMax = salaryMax;
+        this.ageAverage = ageAverage;
+        this.genders = genders;
+    }
+
+    public String getCompanyId() {
+        return companyId;
+    }
+
+    public void setCompanyId(String companyId) {
+        this.companyId = companyId;
+    }
+
+    public long getHeadcount() {
+        return headcount;
+    }
+
+    public void setHeadcount(long headcount) {
+        this.headcount = headcount;
+    }
+
+    public long getSalarySum() {
+        return salarySum;
+    }
+
+    public void setSalarySum(long salarySum) {
+        this.salarySum = salarySum;
+    }
+
+    public Double getSalaryAverage() {
+        return salaryAverage;
+    }
+
+    public void setSalaryAverage(Double salaryAverage) {
+        this.salaryAverage = salaryAverage;
+    }
+
+    public Integer getSalaryMin() {
+        return salaryMin;
+    }
+
+    public void setSalaryMin(Integer salaryMin) {
+        this.salaryMin = salaryMin;
+    }
+
+    public Integer getSalaryMax() {
+        return salaryMax;
+    }
+
+    public void setSalaryMax(Integer salaryMax) {
+        this.salaryMax = salaryMax;
+    }
+
+    public Double getAgeAverage() {
+        return ageAverage;
+    }
+
+    public void setAgeAverage(Double ageAverage) {
+        this.ageAverage = ageAverage;
+    }
+
+    public Map<String, Long> getGenders() {
+        return genders;
+    }
+
+    public void setGenders(Map<String, Long> genders) {
+        this.genders = genders;
+    }
+}
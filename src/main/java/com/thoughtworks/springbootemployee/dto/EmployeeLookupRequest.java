@@ -0,0 +1,22 @@
+package com.thoughtworks.springbootemployee.dto;
+
+import java.util.List;
+
+public class EmployeeLookupRequest {
+    private List<String> ids;
+
+    public EmployeeLookupRequest() {
+    }
+
+    public EmployeeLookupRequest(List<String> ids) {
+        this.ids = ids;
+    }
+
+    public List<String> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<String> ids) {
+        this.ids = ids;
+    }
+}
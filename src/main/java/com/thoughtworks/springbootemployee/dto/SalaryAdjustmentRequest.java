@@ -0,0 +1,30 @@
+package com.thoughtworks.springbootemployee.dto;
+
+public class SalaryAdjustmentRequest {
+    private Double percent;
+    private Integer amount;
+
+    public SalaryAdjustmentRequest() {
+    }
+
+    public SalaryAdjustmentRequest(Double percent, Integer amount) {
+        this.percent = percent;
+        this.amount = amount;
+    }
+
+    public Double getPercent() {
+        return percent;
+    }
+
+    public void setPercent(Double percent) {
+        this.percent = percent;
+    }
+
+    public Integer getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Integer amount) {
+        this.amount = amount;
+    }
+}
@@ -0,0 +1,60 @@
+package com.thoughtworks.springbootemployee.dto;
+
+public class SingleFlightStatsResponse {
+    private String name;
+    private long loads;
+    private long collapsed;
+    private double collapseRate;
+    private int inFlight;
+
+    public SingleFlightStatsResponse() {
+    }
+
+    public SingleFlightStatsResponse(String name, long loads, long collapsed, double collapseRate, int inFlight) {
+        this.name = name;
+        this.loads = loads;
+        this.collapsed = collapsed;
+        this.collapseRate = collapseRate;
+        this.inFlight = inFlight;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getLoads() {
+        return loads;
+    }
+
+    public void setLoads(long loads) {
+        this.loads = loads;
+    }
+
+    public long getCollapsed() {
+        return collapsed;
+    }
+
+    public void setCollapsed(long collapsed) {
+        this.collapsed = collapsed;
+    }
+
+    public double getCollapseRate() {
+        return collapseRate;
+    }
+
+    public void setCollapseRate(double collapseRate) {
+        this.collapseRate = collapseRate;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public void setInFlight(int inFlight) {
+        this.inFlight = inFlight;
+    }
+}
@@ -10,6 +10,7 @@ public class Company {
     private String companyId;
     private String companyName;
     private Integer employeesNumber;
+    private Long version;
 
     public Company() {
     }
@@ -48,4 +49,12 @@ public class Company {
     public void setEmployeesNumber(Integer employeesNumber) {
         this.employeesNumber = employeesNumber;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,62 @@
+package com.thoughtworks.springbootemployee.entity;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class CompanyStats {
+    private final String companyId;
+    private final long headcount;
+    private final long salarySum;
+    private final Double salaryAverage;
+    private final Integer salaryMin;
+    private final Integer salaryMax;
+    private final Double ageAverage;
+    private final Map<String, Long> genders;
+
+    public CompanyStats(String companyId, long headcount, long salarySum, Double salaryAverage, Integer salaryMin, Integer salaryMax, Double ageAverage, Map<String, Long> genders) {
+        this.companyId = companyId;
+        this.headcount = headcount;
+        this.salarySum = salarySum;
+        this.salaryAverage = salaryAverage;
+        this.salaryMin = salaryMin;
+        this.salaryMax = salaryMax;
+        this.ageAverage = ageAverage;
+        this.genders = genders;
+    }
+
+    public static CompanyStats empty(String companyId) {
+        return new CompanyStats(companyId, 0, 0, null, null, null, null, new LinkedHashMap<>());
+    }
+
+    public String getCompanyId() {
+        return companyId;
+    }
+
+    public long getHeadcount() {
+        return headcount;
+    }
+
+    public long getSalarySum() {
+        return salarySum;
+    }
+
+    public Double getSalaryAverage() {
+        return salaryAverage;
+    }
+
+    public Integer getSalaryMin() {
+        return salaryMin;
+    }
+
+    public Integer getSalaryMax() {
+        return salaryMax;
+    }
+
+    public Double getAgeAverage() {
+        return ageAverage;
+    }
+
+    public Map<String, Long> getGenders() {
+        return genders;
+    }
+}
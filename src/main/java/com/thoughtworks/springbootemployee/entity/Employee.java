@@ -1,10 +1,20 @@
 package com.thoughtworks.springbootemployee.entity;
 
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.FieldType;
 import org.springframework.data.mongodb.core.mapping.MongoId;
 
+import java.util.List;
+
 @Document
+@CompoundIndexes({
+    @CompoundIndex(name = "companyId_gender_age_salary", def = "{'companyId': 1, 'gender': 1, 'age': 1, 'salary': 1}"),
+    @CompoundIndex(name = "companyId_id", def = "{'companyId': 1, '_id': 1}"),
+    @CompoundIndex(name = "gender_age_salary", def = "{'gender': 1, 'age': 1, 'salary': 1}")
+})
 public class Employee {
     @MongoId(FieldType.OBJECT_ID)
     private String id;
@@ -13,6 +23,9 @@ public class Employee {
     private String gender;
     private Integer salary;
     private String companyId;
+    private Long version;
+    @Indexed
+    private List<String> nameTokens;
 
     public Employee() {
     }
@@ -87,4 +100,20 @@ public class Employee {
     public void setCompanyId(String companyId) {
         this.companyId = companyId;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public List<String> getNameTokens() {
+        return nameTokens;
+    }
+
+    public void setNameTokens(List<String> nameTokens) {
+        this.nameTokens = nameTokens;
+    }
 }
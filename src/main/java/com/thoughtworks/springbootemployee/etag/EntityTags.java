@@ -0,0 +1,61 @@
+package com.thoughtworks.springbootemployee.etag;
+
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Strong entity tags derived from the document id and its version, so a conditional GET can be answered from the
+ * version alone. A field selection, or a binary encoding picked from the {@code Accept} header, is a different
+ * representation of the same version and gets its own tag; responses carrying these tags must {@code Vary: Accept}.
+ */
+public final class EntityTags {
+    private static final List<MediaType> BINARY_TYPES = Arrays.asList(
+        MediaType.parseMediaType("application/x-jackson-smile"),
+        MediaType.parseMediaType("application/cbor")
+    );
+
+    private EntityTags() {
+    }
+
+    public static String of(String id, Long version, FieldSelection fields, String accept) {
+        String tag = id + "-" + (version == null ? 0 : version);
+        if (!fields.isAll()) {
+            tag += "-" + String.join(",", new TreeSet<>(fields.getFields()));
+        }
+        MediaType binaryType = binaryType(accept);
+
+        return binaryType == null ? tag : tag + "-" + binaryType.getSubtype();
+    }
+
+    /**
+     * Mirrors the converter order: JSON is registered first, so any accepted type compatible with it wins, and a
+     * binary type is only served when the most preferred acceptable type asks for it.
+     */
+    private static MediaType binaryType(String accept) {
+        if (accept == null) {
+            return null;
+        }
+
+        List<MediaType> acceptedTypes = MediaType.parseMediaTypes(accept);
+        MediaType.sortBySpecificityAndQuality(acceptedTypes);
+        for (MediaType acceptedType : acceptedTypes) {
+            if (acceptedType.getQualityValue() == 0) {
+                continue;
+            }
+            if (acceptedType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return null;
+            }
+            for (MediaType binaryType : BINARY_TYPES) {
+                if (acceptedType.isCompatibleWith(binaryType)) {
+                    return binaryType;
+                }
+            }
+        }
+
+        return null;
+    }
+}
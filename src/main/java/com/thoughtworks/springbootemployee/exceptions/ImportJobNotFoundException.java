@@ -0,0 +1,7 @@
+package com.thoughtworks.springbootemployee.exceptions;
+
+public class ImportJobNotFoundException extends RuntimeException {
+    public ImportJobNotFoundException(String jobId) {
+        super(String.format("Import job with id: %s not found", jobId));
+    }
+}
@@ -0,0 +1,94 @@
+package com.thoughtworks.springbootemployee.existence;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class BloomFilter {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    private BloomFilter(long bitCount, int hashFunctions) {
+        this.bitCount = bitCount;
+        this.hashFunctions = hashFunctions;
+        this.words = new AtomicLongArray((int) ((bitCount + 63) / 64));
+    }
+
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        long insertions = Math.max(1, expectedInsertions);
+        long bitCount = (long) Math.ceil(-insertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        bitCount = Math.max(64, Math.min(bitCount, Integer.MAX_VALUE));
+        int hashFunctions = Math.max(1, (int) Math.round((double) bitCount / insertions * Math.log(2)));
+
+        return new BloomFilter(bitCount, hashFunctions);
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 1; i <= this.hashFunctions; i++) {
+            setBit(index(first + i * second));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 1; i <= this.hashFunctions; i++) {
+            if (!getBit(index(first + i * second))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    private long index(int combinedHash) {
+        return (combinedHash & Integer.MAX_VALUE) % this.bitCount;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = this.words.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!this.words.compareAndSet(word, current, current | mask));
+    }
+
+    private boolean getBit(long index) {
+        return (this.words.get((int) (index >>> 6)) & (1L << index)) != 0;
+    }
+
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= FNV_PRIME;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+}
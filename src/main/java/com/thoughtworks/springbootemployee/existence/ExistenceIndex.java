@@ -0,0 +1,131 @@
+package com.thoughtworks.springbootemployee.existence;
+
+import com.thoughtworks.springbootemployee.entity.Company;
+import com.thoughtworks.springbootemployee.entity.Employee;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bloom filters of the employee and company ids, so a lookup of an id that certainly does not exist answers 404
+ * without a query. Off unless {@code app.existence-index.enabled} is set: every rebuild scans both collections, and
+ * until the first one finishes every id might exist.
+ */
+@Component
+public class ExistenceIndex {
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final KnownIds employees = new KnownIds(Employee.class);
+    private final KnownIds companies = new KnownIds(Company.class);
+
+    public ExistenceIndex(MongoTemplate mongoTemplate,
+                          @Value("${app.existence-index.enabled:false}") boolean enabled,
+                          @Value("${app.existence-index.expected-insertions:1000000}") long expectedInsertions,
+                          @Value("${app.existence-index.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public boolean mightContainEmployee(String employeeId) {
+        return this.employees.mightContain(employeeId);
+    }
+
+    public void addEmployee(String employeeId) {
+        this.employees.add(employeeId);
+    }
+
+    public boolean mightContainCompany(String companyId) {
+        return this.companies.mightContain(companyId);
+    }
+
+    public void addCompany(String companyId) {
+        this.companies.add(companyId);
+    }
+
+    @EventListener
+    public void onAfterSave(AfterSaveEvent<?> event) {
+        Object id = event.getDocument() == null ? null : event.getDocument().get("_id");
+        if (id == null) {
+            return;
+        }
+
+        if (event.getSource() instanceof Employee) {
+            addEmployee(id.toString());
+        } else if (event.getSource() instanceof Company) {
+            addCompany(id.toString());
+        }
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.existence-index.rebuild-interval:PT10M}")
+    public void rebuild() {
+        if (!this.enabled) {
+            return;
+        }
+
+        this.employees.rebuild();
+        this.companies.rebuild();
+    }
+
+    /**
+     * The filter is built from {@code ObjectId#toString()}, which is lower case hex, while Mongo accepts the same id in
+     * upper case; hashing the raw string would turn such a lookup into a false 404.
+     */
+    private static String normalize(String id) {
+        return id != null && ObjectId.isValid(id) ? new ObjectId(id).toHexString() : id;
+    }
+
+    private class KnownIds {
+        private final Class<?> entityType;
+        private volatile BloomFilter current;
+        private volatile BloomFilter building;
+
+        private KnownIds(Class<?> entityType) {
+            this.entityType = entityType;
+        }
+
+        private boolean mightContain(String id) {
+            BloomFilter filter = this.current;
+
+            return filter == null || filter.mightContain(normalize(id));
+        }
+
+        private void add(String id) {
+            String normalizedId = normalize(id);
+            BloomFilter next = this.building;
+            if (next != null) {
+                next.put(normalizedId);
+            }
+            BloomFilter filter = this.current;
+            if (filter != null) {
+                filter.put(normalizedId);
+            }
+        }
+
+        private synchronized void rebuild() {
+            String collectionName = mongoTemplate.getCollectionName(this.entityType);
+            long documents = mongoTemplate.getCollection(collectionName).estimatedDocumentCount();
+            BloomFilter next = BloomFilter.create(Math.max(expectedInsertions, documents * 2), falsePositiveRate);
+            this.building = next;
+
+            Query query = new Query();
+            query.fields().include("_id");
+            try (CloseableIterator<Document> ids = mongoTemplate.stream(query, Document.class, collectionName)) {
+                ids.forEachRemaining(document -> next.put(document.get("_id").toString()));
+                this.current = next;
+            } finally {
+                this.building = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.thoughtworks.springbootemployee.filter;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+/**
+ * Combinable {@code /employees} filters, bound from {@code ?minAge=&maxAge=&minSalary=&maxSalary=&companyId=&gender=}.
+ * {@code companyId} and {@code gender} take several comma separated or repeated values. The compound indexes declared
+ * on {@code Employee} lead with these equality fields and end with the {@code age} and {@code salary} ranges.
+ */
+public class EmployeeFilter {
+    private Integer minAge;
+    private Integer maxAge;
+    private Integer minSalary;
+    private Integer maxSalary;
+    private List<String> companyId;
+    private List<String> gender;
+
+    public EmployeeFilter() {
+    }
+
+    public EmployeeFilter(Integer minAge, Integer maxAge, Integer minSalary, Integer maxSalary, List<String> companyId, List<String> gender) {
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        this.minSalary = minSalary;
+        this.maxSalary = maxSalary;
+        this.companyId = companyId;
+        this.gender = gender;
+    }
+
+    public boolean isEmpty() {
+        return this.minAge == null && this.maxAge == null && this.minSalary == null && this.maxSalary == null
+            && isEmpty(this.companyId) && isEmpty(this.gender);
+    }
+
+    public Criteria toCriteria() {
+        checkRange("age", this.minAge, this.maxAge);
+        checkRange("salary", this.minSalary, this.maxSalary);
+
+        Criteria criteria = new Criteria();
+        criteria = addEquality(criteria, "companyId", this.companyId);
+        criteria = addEquality(criteria, "gender", this.gender);
+        criteria = addRange(criteria, "age", this.minAge, this.maxAge);
+        return addRange(criteria, "salary", this.minSalary, this.maxSalary);
+    }
+
+    public Query toQuery() {
+        return isEmpty() ? new Query() : new Query(toCriteria());
+    }
+
+    public Integer getMinAge() {
+        return minAge;
+    }
+
+    public void setMinAge(Integer minAge) {
+        this.minAge = minAge;
+    }
+
+    public Integer getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Integer maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public Integer getMinSalary() {
+        return minSalary;
+    }
+
+    public void setMinSalary(Integer minSalary) {
+        this.minSalary = minSalary;
+    }
+
+    public Integer getMaxSalary() {
+        return maxSalary;
+    }
+
+    public void setMaxSalary(Integer maxSalary) {
+        this.maxSalary = maxSalary;
+    }
+
+    public List<String> getCompanyId() {
+        return companyId;
+    }
+
+    public void setCompanyId(List<String> companyId) {
+        this.companyId = companyId;
+    }
+
+    public List<String> getGender() {
+        return gender;
+    }
+
+    public void setGender(List<String> gender) {
+        this.gender = gender;
+    }
+
+    private static Criteria addEquality(Criteria criteria, String field, List<String> values) {
+        if (isEmpty(values)) {
+            return criteria;
+        }
+
+        return values.size() == 1 ? criteria.and(field).is(values.get(0)) : criteria.and(field).in(values);
+    }
+
+    private static Criteria addRange(Criteria criteria, String field, Integer min, Integer max) {
+        if (min == null && max == null) {
+            return criteria;
+        }
+
+        Criteria range = criteria.and(field);
+        if (min != null) {
+            range.gte(min);
+        }
+        if (max != null) {
+            range.lte(max);
+        }
+        return range;
+    }
+
+    private static void checkRange(String field, Integer min, Integer max) {
+        if (min != null && max != null && min > max) {
+            throw new IllegalArgumentException(String.format("Invalid %s range: %d > %d", field, min, max));
+        }
+    }
+
+    private static boolean isEmpty(List<String> values) {
+        return values == null || values.isEmpty();
+    }
+}
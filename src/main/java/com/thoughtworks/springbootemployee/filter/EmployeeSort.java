@@ -0,0 +1,40 @@
+package com.thoughtworks.springbootemployee.filter;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Parses {@code ?sort=salary,desc} into a {@link Sort} on an employee response field. The id is always appended as the
+ * last key so pages over equal values stay stable.
+ */
+public final class EmployeeSort {
+    private static final String ID = "id";
+    private static final Set<String> SORTABLE = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        ID, "name", "age", "gender", "salary", "companyId")));
+
+    private EmployeeSort() {
+    }
+
+    public static Sort parse(String sort) {
+        if (sort == null || sort.trim().isEmpty()) {
+            return Sort.unsorted();
+        }
+
+        String[] parts = sort.split(",");
+        String field = parts[0].trim();
+        if (!SORTABLE.contains(field) || parts.length > 2) {
+            throw new IllegalArgumentException(String.format("Invalid sort: %s", sort));
+        }
+        Sort.Direction direction = parts.length == 1
+            ? Sort.Direction.ASC
+            : Sort.Direction.fromOptionalString(parts[1].trim())
+                .orElseThrow(() -> new IllegalArgumentException(String.format("Invalid sort: %s", sort)));
+
+        Sort parsed = Sort.by(direction, field);
+        return ID.equals(field) ? parsed : parsed.and(Sort.by(ID));
+    }
+}
@@ -0,0 +1,294 @@
+package com.thoughtworks.springbootemployee.imports;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.thoughtworks.springbootemployee.batch.BatchResult;
+import com.thoughtworks.springbootemployee.batch.BulkInserter;
+import com.thoughtworks.springbootemployee.dto.EmployeeRequest;
+import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.exceptions.ImportJobNotFoundException;
+import com.thoughtworks.springbootemployee.existence.ExistenceIndex;
+import com.thoughtworks.springbootemployee.mapper.EmployeeMapper;
+import com.thoughtworks.springbootemployee.repository.CompanyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+@Service
+public class EmployeeCsvImporter {
+    private static final int MAX_RETAINED_JOBS = 100;
+
+    private final BulkInserter bulkInserter;
+    private final CompanyRepository companyRepository;
+    private final EmployeeMapper employeeMapper;
+    private final ExistenceIndex existenceIndex;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor();
+    private final ExecutorService writerExecutor;
+    private final int batchSize;
+    private final int writerThreads;
+    private final int queueCapacity;
+
+    public EmployeeCsvImporter(BulkInserter bulkInserter,
+                               CompanyRepository companyRepository,
+                               EmployeeMapper employeeMapper,
+                               ExistenceIndex existenceIndex,
+                               @Value("${app.import.batch-size:500}") int batchSize,
+                               @Value("${app.import.writer-threads:4}") int writerThreads,
+                               @Value("${app.import.queue-capacity:8}") int queueCapacity) {
+        this.bulkInserter = bulkInserter;
+        this.companyRepository = companyRepository;
+        this.employeeMapper = employeeMapper;
+        this.existenceIndex = existenceIndex;
+        this.batchSize = batchSize;
+        this.writerThreads = writerThreads;
+        this.queueCapacity = queueCapacity;
+        this.writerExecutor = Executors.newFixedThreadPool(writerThreads);
+    }
+
+    public ImportJob start(InputStream csv) throws IOException {
+        Path spooled = Files.createTempFile("employee-import-", ".csv");
+        Files.copy(csv, spooled, StandardCopyOption.REPLACE_EXISTING);
+
+        ImportJob job = new ImportJob();
+        evictFinishedJobs();
+        this.jobs.put(job.getId(), job);
+        this.jobExecutor.submit(() -> run(job, spooled));
+
+        return job;
+    }
+
+    public ImportJob get(String jobId) {
+        ImportJob job = this.jobs.get(jobId);
+        if (job == null) {
+            throw new ImportJobNotFoundException(jobId);
+        }
+
+        return job;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.jobExecutor.shutdownNow();
+        this.writerExecutor.shutdownNow();
+    }
+
+    private void run(ImportJob job, Path spooled) {
+        job.start();
+        BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(this.queueCapacity);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int i = 0; i < this.writerThreads; i++) {
+            writers.add(this.writerExecutor.submit(() -> write(job, queue)));
+        }
+
+        String failure = null;
+        try {
+            parse(job, spooled, queue);
+        } catch (IOException | RuntimeException exception) {
+            failure = exception.getMessage();
+        }
+
+        try {
+            awaitWriters(queue, writers);
+        } catch (RuntimeException exception) {
+            failure = exception.getMessage();
+        }
+
+        try {
+            Files.deleteIfExists(spooled);
+        } catch (IOException ignored) {
+            // the temp directory is cleaned up by the OS eventually
+        }
+
+        if (failure == null) {
+            job.complete();
+        } else {
+            job.fail(failure);
+        }
+    }
+
+    private void parse(ImportJob job, Path spooled, BlockingQueue<Batch> queue) throws IOException {
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        try (Reader reader = Files.newBufferedReader(spooled, StandardCharsets.UTF_8);
+             MappingIterator<Map<String, String>> rows = this.csvMapper.readerFor(Map.class).with(schema).readValues(reader)) {
+            Batch batch = new Batch(this.batchSize);
+            while (rows.hasNextValue()) {
+                Map<String, String> row = rows.nextValue();
+                long line = rows.getParser().getTokenLocation().getLineNr();
+                job.rowRead();
+
+                try {
+                    batch.add(line, this.employeeMapper.toEntity(toRequest(row)));
+                } catch (IllegalArgumentException exception) {
+                    job.rowFailed(line, exception.getMessage());
+                    continue;
+                }
+
+                if (batch.isFull()) {
+                    put(queue, batch);
+                    batch = new Batch(this.batchSize);
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                put(queue, batch);
+            }
+        }
+    }
+
+    private void write(ImportJob job, BlockingQueue<Batch> queue) {
+        while (true) {
+            Batch batch;
+            try {
+                batch = queue.take();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (batch == Batch.END) {
+                return;
+            }
+
+            BatchResult result;
+            try {
+                result = this.bulkInserter.insertAll(batch.employees.iterator(), Employee.class, Employee::getId, Employee::setId, false, stored -> {
+                    stored.forEach(employee -> this.existenceIndex.addEmployee(employee.getId()));
+                    this.companyRepository.incrementEmployeesNumbers(stored.stream()
+                        .map(Employee::getCompanyId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.groupingBy(companyId -> companyId, Collectors.summingInt(companyId -> 1))));
+                    job.rowsImported(stored.size());
+                });
+            } catch (RuntimeException exception) {
+                batch.lines.forEach(line -> job.rowFailed(line, exception.getMessage()));
+                continue;
+            }
+            result.getItems().stream()
+                .filter(item -> item.getError() != null)
+                .forEach(item -> job.rowFailed(batch.lines.get(item.getIndex()), item.getError()));
+        }
+    }
+
+    private void awaitWriters(BlockingQueue<Batch> queue, List<Future<?>> writers) {
+        writers.forEach(writer -> put(queue, Batch.END));
+        for (Future<?> writer : writers) {
+            try {
+                writer.get();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException exception) {
+                throw new IllegalStateException(exception.getCause());
+            }
+        }
+    }
+
+    private void put(BlockingQueue<Batch> queue, Batch batch) {
+        try {
+            queue.put(batch);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted");
+        }
+    }
+
+    private void evictFinishedJobs() {
+        if (this.jobs.size() < MAX_RETAINED_JOBS) {
+            return;
+        }
+
+        this.jobs.values().stream()
+            .filter(ImportJob::isFinished)
+            .min((first, second) -> first.getCreatedAt().compareTo(second.getCreatedAt()))
+            .ifPresent(job -> this.jobs.remove(job.getId()));
+    }
+
+    private static EmployeeRequest toRequest(Map<String, String> row) {
+        return new EmployeeRequest(
+            required(row, "name"),
+            nonNegativeInteger(row, "age"),
+            required(row, "gender"),
+            nonNegativeInteger(row, "salary"),
+            optional(row, "companyId")
+        );
+    }
+
+    private static String required(Map<String, String> row, String column) {
+        String value = optional(row, column);
+        if (value == null) {
+            throw new IllegalArgumentException(String.format("Column %s is required", column));
+        }
+
+        return value;
+    }
+
+    private static String optional(Map<String, String> row, String column) {
+        String value = row.get(column);
+
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    private static Integer nonNegativeInteger(Map<String, String> row, String column) {
+        String value = required(row, column);
+        int number;
+        try {
+            number = Integer.parseInt(value);
+        } catch (NumberFormatException exception) {
+            throw new IllegalArgumentException(String.format("Column %s must be a number but was %s", column, value));
+        }
+        if (number < 0) {
+            throw new IllegalArgumentException(String.format("Column %s must not be negative", column));
+        }
+
+        return number;
+    }
+
+    private static class Batch {
+        private static final Batch END = new Batch(0);
+
+        private final List<Employee> employees;
+        private final List<Long> lines;
+        private final int capacity;
+
+        private Batch(int capacity) {
+            this.capacity = capacity;
+            this.employees = new ArrayList<>(capacity);
+            this.lines = new ArrayList<>(capacity);
+        }
+
+        private void add(long line, Employee employee) {
+            this.lines.add(line);
+            this.employees.add(employee);
+        }
+
+        private boolean isFull() {
+            return this.employees.size() >= this.capacity;
+        }
+
+        private boolean isEmpty() {
+            return this.employees.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.thoughtworks.springbootemployee.imports;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ImportJob {
+    private static final int MAX_RECORDED_ERRORS = 1000;
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Instant createdAt = Instant.now();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+    private final List<RowError> errors = new ArrayList<>();
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant finishedAt;
+    private volatile String failure;
+
+    void start() {
+        this.status = Status.RUNNING;
+    }
+
+    void rowRead() {
+        this.rowsRead.incrementAndGet();
+    }
+
+    void rowsImported(int count) {
+        this.rowsImported.addAndGet(count);
+    }
+
+    void rowFailed(long line, String message) {
+        this.rowsFailed.incrementAndGet();
+        synchronized (this.errors) {
+            if (this.errors.size() < MAX_RECORDED_ERRORS) {
+                this.errors.add(new RowError(line, message));
+            }
+        }
+    }
+
+    void complete() {
+        this.finishedAt = Instant.now();
+        this.status = Status.COMPLETED;
+    }
+
+    void fail(String failure) {
+        this.failure = failure;
+        this.finishedAt = Instant.now();
+        this.status = Status.FAILED;
+    }
+
+    public boolean isFinished() {
+        return this.finishedAt != null;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public long getRowsImported() {
+        return rowsImported.get();
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed.get();
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    public List<RowError> getErrors() {
+        synchronized (this.errors) {
+            return new ArrayList<>(this.errors);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.thoughtworks.springbootemployee.imports;
+
+public class RowError {
+    private final long line;
+    private final String message;
+
+    public RowError(long line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,37 @@
+package com.thoughtworks.springbootemployee.indexes;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+public class MongoIndexInitializer {
+    private final MongoTemplate mongoTemplate;
+
+    public MongoIndexInitializer(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext =
+            this.mongoTemplate.getConverter().getMappingContext();
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+
+        mappingContext.getPersistentEntities().stream()
+            .filter(entity -> entity.isAnnotationPresent(Document.class))
+            .forEach(entity -> {
+                IndexOperations indexOperations = this.mongoTemplate.indexOps(entity.getType());
+                resolver.resolveIndexFor(entity.getType()).forEach(indexOperations::ensureIndex);
+            });
+    }
+}
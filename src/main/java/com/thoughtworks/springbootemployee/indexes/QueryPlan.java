@@ -0,0 +1,60 @@
+package com.thoughtworks.springbootemployee.indexes;
+
+public class QueryPlan {
+    private String query;
+    private String collection;
+    private String winningPlan;
+    private String indexName;
+    private boolean collectionScan;
+
+    public QueryPlan() {
+    }
+
+    public QueryPlan(String query, String collection, String winningPlan, String indexName, boolean collectionScan) {
+        this.query = query;
+        this.collection = collection;
+        this.winningPlan = winningPlan;
+        this.indexName = indexName;
+        this.collectionScan = collectionScan;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(String collection) {
+        this.collection = collection;
+    }
+
+    public String getWinningPlan() {
+        return winningPlan;
+    }
+
+    public void setWinningPlan(String winningPlan) {
+        this.winningPlan = winningPlan;
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public void setIndexName(String indexName) {
+        this.indexName = indexName;
+    }
+
+    public boolean isCollectionScan() {
+        return collectionScan;
+    }
+
+    public void setCollectionScan(boolean collectionScan) {
+        this.collectionScan = collectionScan;
+    }
+}
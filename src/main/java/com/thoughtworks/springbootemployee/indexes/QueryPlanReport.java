@@ -0,0 +1,211 @@
+package com.thoughtworks.springbootemployee.indexes;
+
+import com.thoughtworks.springbootemployee.entity.Company;
+import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.filter.EmployeeFilter;
+import com.thoughtworks.springbootemployee.filter.EmployeeSort;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.TypeBasedAggregationOperationContext;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+
+/**
+ * Explains the filtered and sorted queries the repositories issue and flags the ones MongoDB would answer with a
+ * collection scan. Unfiltered exports ({@code streamAllBy}, {@code findAll}) read every document by design and are
+ * not probed. Aggregations are probed with their leading {@code $match} and first {@code $group}, which is all the
+ * query planner sees of them.
+ */
+@Component
+public class QueryPlanReport {
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryPlanReport.class);
+    private static final String COLLSCAN = "COLLSCAN";
+
+    private final MongoTemplate mongoTemplate;
+    private final QueryMapper queryMapper;
+    private final Map<String, Probe> probes = new LinkedHashMap<>();
+
+    public QueryPlanReport(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+
+        String sampleId = new ObjectId().toHexString();
+        probe("EmployeeRepository.findAllByGender", Employee.class,
+            new Query(Criteria.where("gender").is("male")));
+        probe("EmployeeRepository.findAllByCompanyId", Employee.class,
+            new Query(Criteria.where("companyId").is(sampleId)));
+        probe("EmployeeRepository.findAllBy(Pageable)", Employee.class,
+            new Query().with(PageRequest.of(1, 10, Sort.by("id"))));
+        probe("EmployeeRepository.findAllByIdGreaterThan", Employee.class,
+            new Query(Criteria.where("id").gt(sampleId)).with(PageRequest.of(0, 10, Sort.by("id"))));
+        probe("CompanyService.getCompanyEmployeesAfter", Employee.class,
+            new Query(Criteria.where("companyId").is(sampleId).and("id").gt(sampleId)).with(Sort.by("id")).limit(11));
+        probe("EmployeeRepository.findByNameTokenPrefixes", Employee.class,
+            new Query(Criteria.where("nameTokens").all(Pattern.compile("^to"))).limit(200));
+        probe("EmployeeFilter(companyId, gender, age, salary)", Employee.class,
+            new EmployeeFilter(30, 40, 5000, null, Collections.singletonList(sampleId), Collections.singletonList("male")).toQuery()
+                .with(PageRequest.of(0, 10, Sort.by("id"))));
+        probe("EmployeeFilter(gender in, salary)", Employee.class,
+            new EmployeeFilter(null, null, 5000, 8000, null, Arrays.asList("male", "female")).toQuery()
+                .with(PageRequest.of(0, 10, Sort.by("id"))));
+        probe("EmployeeFilter(gender) sort=age", Employee.class,
+            new EmployeeFilter(null, null, null, null, null, Collections.singletonList("male")).toQuery()
+                .with(PageRequest.of(0, 10, EmployeeSort.parse("age"))));
+        probe("EmployeeFilter(companyId) sort=salary,desc", Employee.class,
+            new EmployeeFilter(null, null, null, null, Collections.singletonList(sampleId), null).toQuery()
+                .with(PageRequest.of(0, 10, EmployeeSort.parse("salary,desc"))));
+        probe("EmployeeFilter(companyId, gender, age, salary) after", Employee.class,
+            new Query(new EmployeeFilter(30, 40, 5000, null, Collections.singletonList(sampleId), Collections.singletonList("male"))
+                .toCriteria().and("id").gt(sampleId)).with(Sort.by("id")).limit(11));
+        probe("EmployeeFilter(gender in, salary) after", Employee.class,
+            new Query(new EmployeeFilter(null, null, 5000, 8000, null, Arrays.asList("male", "female"))
+                .toCriteria().and("id").gt(sampleId)).with(Sort.by("id")).limit(11));
+        probe("OrphanEmployeeSweeper.sweep", Employee.class,
+            new Query(Criteria.where("companyId").ne(null).and("id").gt(sampleId)).with(Sort.by("id")).limit(500));
+        probe("EmployeeRepository.aggregateCompanyStats", Employee.class,
+            companyStats(Criteria.where("companyId").ne(null)));
+        probe("EmployeeRepository.aggregateCompanyStats(companyIds)", Employee.class,
+            companyStats(Criteria.where("companyId").in(sampleId)));
+        probe("CompanyRepository.findAllBy(Pageable)", Company.class,
+            new Query().with(PageRequest.of(1, 10, Sort.by("companyId"))));
+        probe("CompanyRepository.findAllByCompanyIdGreaterThan", Company.class,
+            new Query(Criteria.where("companyId").gt(sampleId)).with(PageRequest.of(0, 10, Sort.by("companyId"))));
+    }
+
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        explainAll().stream()
+            .filter(QueryPlan::isCollectionScan)
+            .forEach(plan -> LOGGER.warn("{} falls back to a collection scan on '{}': {}",
+                plan.getQuery(), plan.getCollection(), plan.getWinningPlan()));
+    }
+
+    public List<QueryPlan> explainAll() {
+        return this.probes.entrySet().stream()
+            .map(probe -> explain(probe.getKey(), probe.getValue()))
+            .collect(Collectors.toList());
+    }
+
+    private void probe(String name, Class<?> entityType, Query query) {
+        this.probes.put(name, new Probe(entityType, query, null));
+    }
+
+    private void probe(String name, Class<?> entityType, Aggregation aggregation) {
+        this.probes.put(name, new Probe(entityType, null, aggregation));
+    }
+
+    private static Aggregation companyStats(Criteria companies) {
+        return newAggregation(
+            match(companies),
+            context -> new Document("$group", new Document("_id", new Document("companyId", "$companyId").append("gender", "$gender"))
+                .append("headcount", new Document("$sum", 1)))
+        );
+    }
+
+    private QueryPlan explain(String name, Probe probe) {
+        MongoPersistentEntity<?> entity = this.mongoTemplate.getConverter().getMappingContext()
+            .getRequiredPersistentEntity(probe.entityType);
+        String collection = entity.getCollection();
+
+        Document command = probe.aggregation == null ? find(collection, probe.query, entity) : aggregate(collection, probe);
+        Document explain = this.mongoTemplate.executeCommand(
+            new Document("explain", command).append("verbosity", "queryPlanner"));
+        Document winningPlan = queryPlanner(explain).get("winningPlan", Document.class);
+
+        List<String> stages = new ArrayList<>();
+        List<String> indexNames = new ArrayList<>();
+        collectStages(winningPlan, stages, indexNames);
+
+        return new QueryPlan(
+            name,
+            collection,
+            String.join(" <- ", stages),
+            indexNames.isEmpty() ? null : String.join(",", indexNames),
+            stages.contains(COLLSCAN)
+        );
+    }
+
+    private Document find(String collection, Query query, MongoPersistentEntity<?> entity) {
+        return new Document("find", collection)
+            .append("filter", this.queryMapper.getMappedObject(query.getQueryObject(), entity))
+            .append("sort", this.queryMapper.getMappedSort(query.getSortObject(), entity))
+            .append("skip", query.getSkip())
+            .append("limit", query.getLimit());
+    }
+
+    private Document aggregate(String collection, Probe probe) {
+        TypeBasedAggregationOperationContext context = new TypeBasedAggregationOperationContext(
+            probe.entityType, this.mongoTemplate.getConverter().getMappingContext(), this.queryMapper);
+        return new Document("aggregate", collection)
+            .append("pipeline", probe.aggregation.toPipeline(context))
+            .append("cursor", new Document());
+    }
+
+    /**
+     * A pipeline the server runs entirely as a query is explained like a find; otherwise the plan sits in the
+     * {@code $cursor} stage that feeds the rest of the pipeline.
+     */
+    @SuppressWarnings("unchecked")
+    static Document queryPlanner(Document explain) {
+        if (explain.containsKey("queryPlanner")) {
+            return explain.get("queryPlanner", Document.class);
+        }
+
+        List<Document> stages = explain.get("stages", List.class);
+        return stages.get(0).get("$cursor", Document.class).get("queryPlanner", Document.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    static void collectStages(Document stage, List<String> stages, List<String> indexNames) {
+        stages.add(stage.getString("stage"));
+        if (stage.containsKey("indexName")) {
+            indexNames.add(stage.getString("indexName"));
+        }
+
+        Document inputStage = stage.get("inputStage", Document.class);
+        if (inputStage != null) {
+            collectStages(inputStage, stages, indexNames);
+        }
+        List<Document> inputStages = stage.get("inputStages", List.class);
+        if (inputStages != null) {
+            inputStages.forEach(input -> collectStages(input, stages, indexNames));
+        }
+    }
+
+    private static class Probe {
+        private final Class<?> entityType;
+        private final Query query;
+        private final Aggregation aggregation;
+
+        private Probe(Class<?> entityType, Query query, Aggregation aggregation) {
+            this.entityType = entityType;
+            this.query = query;
+            this.aggregation = aggregation;
+        }
+    }
+}
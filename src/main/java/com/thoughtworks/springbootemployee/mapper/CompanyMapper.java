@@ -2,25 +2,38 @@ package com.thoughtworks.springbootemployee.mapper;
 
 import com.thoughtworks.springbootemployee.dto.CompanyRequest;
 import com.thoughtworks.springbootemployee.dto.CompanyResponse;
+import com.thoughtworks.springbootemployee.dto.CompanyStatsResponse;
 import com.thoughtworks.springbootemployee.entity.Company;
-import org.springframework.beans.BeanUtils;
+import com.thoughtworks.springbootemployee.entity.CompanyStats;
 import org.springframework.stereotype.Component;
 
 @Component
 public class CompanyMapper {
     public Company toEntity(CompanyRequest companyRequest) {
-        Company company = new Company();
-
-        BeanUtils.copyProperties(companyRequest, company);
-
-        return company;
+        return new Company(
+            companyRequest.getCompanyName(),
+            companyRequest.getEmployeesNumber()
+        );
     }
 
     public CompanyResponse toResponse(Company company) {
-        CompanyResponse companyResponse = new CompanyResponse();
-
-        BeanUtils.copyProperties(company, companyResponse);
+        return new CompanyResponse(
+            company.getCompanyId(),
+            company.getCompanyName(),
+            company.getEmployeesNumber()
+        );
+    }
 
-        return companyResponse;
+    public CompanyStatsResponse toResponse(CompanyStats companyStats) {
+        return new CompanyStatsResponse(
+            companyStats.getCompanyId(),
+            companyStats.getHeadcount(),
+            companyStats.getSalarySum(),
+            companyStats.getSalaryAverage(),
+            companyStats.getSalaryMin(),
+            companyStats.getSalaryMax(),
+            companyStats.getAgeAverage(),
+            companyStats.getGenders()
+        );
     }
 }
@@ -3,24 +3,28 @@ package com.thoughtworks.springbootemployee.mapper;
 import com.thoughtworks.springbootemployee.dto.EmployeeRequest;
 import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
 import com.thoughtworks.springbootemployee.entity.Employee;
-import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Component;
 
 @Component
 public class EmployeeMapper {
     public Employee toEntity(EmployeeRequest employeeRequest) {
-        Employee employee = new Employee();
-
-        BeanUtils.copyProperties(employeeRequest, employee);
-
-        return employee;
+        return new Employee(
+            employeeRequest.getName(),
+            employeeRequest.getAge(),
+            employeeRequest.getGender(),
+            employeeRequest.getSalary(),
+            employeeRequest.getCompanyId()
+        );
     }
 
     public EmployeeResponse toResponse(Employee employee) {
-        EmployeeResponse employeeResponse = new EmployeeResponse();
-
-        BeanUtils.copyProperties(employee, employeeResponse);
-
-        return employeeResponse;
+        return new EmployeeResponse(
+            employee.getId(),
+            employee.getName(),
+            employee.getAge(),
+            employee.getGender(),
+            employee.getSalary(),
+            employee.getCompanyId()
+        );
     }
 }
@@ -0,0 +1,188 @@
+package com.thoughtworks.springbootemployee.orphans;
+
+import com.thoughtworks.springbootemployee.config.CacheConfig;
+import com.thoughtworks.springbootemployee.dto.CompanyResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import com.thoughtworks.springbootemployee.entity.Company;
+import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+import com.thoughtworks.springbootemployee.repository.CompanyRepository;
+import com.thoughtworks.springbootemployee.repository.EmployeeRepository;
+import com.thoughtworks.springbootemployee.services.EmployeeCascade;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Finds employees whose company no longer exists and detaches or deletes them. Each run walks the employees in id order
+ * for a bounded number of batches, pausing between batches, and the next run resumes where the last one stopped, so a
+ * sweep of a large collection is spread over many small runs instead of one long scan next to foreground traffic.
+ * Runs go on the sweeper's own thread, so its pauses never hold the scheduler thread the other scheduled jobs share.
+ * A batch costs one read of employees, one read of companies by id and, only when it finds orphans, one
+ * {@code deleteMany} or {@code updateMany} by employee id, restricted to the missing company ids so an employee moved
+ * to an existing company in between is left alone. Off unless {@code app.orphan-sweep.enabled} is set: with it on,
+ * employees kept by a plain company delete are detached or deleted too.
+ */
+@Component
+@ConditionalOnProperty(name = "app.orphan-sweep.enabled", havingValue = "true")
+public class OrphanEmployeeSweeper {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrphanEmployeeSweeper.class);
+    private static final FieldSelection EMPLOYEE_COMPANY = FieldSelection.parse("companyId", EmployeeResponse.class);
+    private static final FieldSelection COMPANY_ID = FieldSelection.parse("companyId", CompanyResponse.class);
+
+    private final EmployeeRepository employeeRepository;
+    private final CompanyRepository companyRepository;
+    private final CacheManager cacheManager;
+    private final EmployeeCascade action;
+    private final int batchSize;
+    private final int batchesPerRun;
+    private final Duration pause;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private String resumeAfter;
+
+    public OrphanEmployeeSweeper(EmployeeRepository employeeRepository,
+                                 CompanyRepository companyRepository,
+                                 CacheManager cacheManager,
+                                 @Value("${app.orphan-sweep.action:detach}") String action,
+                                 @Value("${app.orphan-sweep.batch-size:500}") int batchSize,
+                                 @Value("${app.orphan-sweep.batches-per-run:20}") int batchesPerRun,
+                                 @Value("${app.orphan-sweep.pause:PT0.2S}") Duration pause) {
+        this.employeeRepository = employeeRepository;
+        this.companyRepository = companyRepository;
+        this.cacheManager = cacheManager;
+        this.action = EmployeeCascade.from(action);
+        if (this.action == EmployeeCascade.KEEP) {
+            throw new IllegalArgumentException("Orphan sweep action must be detach or delete");
+        }
+        this.batchSize = batchSize;
+        this.batchesPerRun = batchesPerRun;
+        this.pause = pause;
+    }
+
+    /**
+     * Starts a run on the sweeper's thread and returns at once; a tick that finds the previous run still going is
+     * skipped.
+     */
+    @Scheduled(initialDelayString = "${app.orphan-sweep.interval:PT15M}", fixedDelayString = "${app.orphan-sweep.interval:PT15M}")
+    public void requestSweep() {
+        if (!this.sweeping.compareAndSet(false, true)) {
+            return;
+        }
+
+        this.runner.execute(() -> {
+            try {
+                sweep();
+            } catch (RuntimeException exception) {
+                LOGGER.error("Orphan sweep failed", exception);
+            } finally {
+                this.sweeping.set(false);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.runner.shutdownNow();
+    }
+
+    /**
+     * Sweeps up to {@code batches-per-run} batches and returns the number of orphans detached or deleted.
+     */
+    public synchronized long sweep() {
+        long swept = 0;
+        for (int batch = 0; batch < this.batchesPerRun; batch++) {
+            if (batch > 0 && !pause()) {
+                break;
+            }
+
+            List<Employee> employees = nextBatch();
+            swept += sweep(employees);
+            if (employees.size() < this.batchSize) {
+                this.resumeAfter = null;
+                break;
+            }
+            this.resumeAfter = employees.get(employees.size() - 1).getId();
+        }
+
+        if (swept > 0) {
+            LOGGER.info("Swept {} employees of deleted companies", swept);
+        }
+        return swept;
+    }
+
+    private List<Employee> nextBatch() {
+        Criteria criteria = where("companyId").ne(null);
+        if (this.resumeAfter != null) {
+            criteria = criteria.and("id").gt(this.resumeAfter);
+        }
+
+        return this.employeeRepository.findProjected(
+            new Query(criteria).with(Sort.by("id")).limit(this.batchSize), EMPLOYEE_COMPANY);
+    }
+
+    private long sweep(List<Employee> employees) {
+        if (employees.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> companyIds = employees.stream()
+            .map(Employee::getCompanyId)
+            .collect(Collectors.toSet());
+        Set<String> existing = this.companyRepository.findProjected(new Query(where("companyId").in(companyIds)), COMPANY_ID).stream()
+            .map(Company::getCompanyId)
+            .collect(Collectors.toSet());
+        List<Employee> orphanEmployees = employees.stream()
+            .filter(employee -> !existing.contains(employee.getCompanyId()))
+            .collect(Collectors.toList());
+        if (orphanEmployees.isEmpty()) {
+            return 0;
+        }
+
+        List<String> orphans = orphanEmployees.stream()
+            .map(Employee::getId)
+            .collect(Collectors.toList());
+        Set<String> missingCompanyIds = orphanEmployees.stream()
+            .map(Employee::getCompanyId)
+            .collect(Collectors.toSet());
+        Query orphansById = new Query(where("id").in(orphans).and("companyId").in(missingCompanyIds));
+        long swept = this.action == EmployeeCascade.DELETE
+            ? this.employeeRepository.deleteMatching(orphansById)
+            : this.employeeRepository.detachFromCompany(orphansById);
+        Cache employeesCache = this.cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE);
+        if (employeesCache != null) {
+            orphans.forEach(employeesCache::evict);
+        }
+
+        return swept;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(this.pause.toMillis());
+            return true;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.thoughtworks.springbootemployee.pagination;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+public class CachedCount {
+    private final long ttlNanos;
+    private final LongSupplier counter;
+    private volatile Snapshot snapshot;
+
+    public CachedCount(Duration ttl, LongSupplier counter) {
+        this.ttlNanos = ttl.toNanos();
+        this.counter = counter;
+    }
+
+    public Total get() {
+        Snapshot current = this.snapshot;
+        long now = System.nanoTime();
+        if (current != null && now - current.takenAt < this.ttlNanos) {
+            return new Total(current.value, false);
+        }
+
+        long value = this.counter.getAsLong();
+        this.snapshot = new Snapshot(value, now);
+
+        return new Total(value, true);
+    }
+
+    public static class Total {
+        private final long value;
+        private final boolean exact;
+
+        public Total(long value, boolean exact) {
+            this.value = value;
+            this.exact = exact;
+        }
+
+        public long getValue() {
+            return value;
+        }
+
+        public boolean isExact() {
+            return exact;
+        }
+    }
+
+    private static class Snapshot {
+        private final long value;
+        private final long takenAt;
+
+        private Snapshot(long value, long takenAt) {
+            this.value = value;
+            this.takenAt = takenAt;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.thoughtworks.springbootemployee.pagination;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class CountedPage<T> {
+    private final List<T> content;
+    private final int page;
+    private final int pageSize;
+    private final boolean hasNext;
+    private final long totalElements;
+    private final boolean totalExact;
+
+    public CountedPage(List<T> content, int page, int pageSize, boolean hasNext, long totalElements, boolean totalExact) {
+        this.content = content;
+        this.page = page;
+        this.pageSize = pageSize;
+        this.hasNext = hasNext;
+        this.totalElements = totalElements;
+        this.totalExact = totalExact;
+    }
+
+    public static <T> CountedPage<T> of(Slice<T> slice, CachedCount.Total total) {
+        return new CountedPage<>(
+            slice.getContent(),
+            slice.getNumber() + 1,
+            slice.getSize(),
+            slice.hasNext(),
+            total.getValue(),
+            total.isExact()
+        );
+    }
+
+    public <R> CountedPage<R> map(Function<T, R> mapper) {
+        List<R> mappedContent = this.content.stream()
+            .map(mapper)
+            .collect(Collectors.toList());
+
+        return new CountedPage<>(mappedContent, this.page, this.pageSize, this.hasNext, this.totalElements, this.totalExact);
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public boolean isTotalExact() {
+        return totalExact;
+    }
+}
@@ -0,0 +1,42 @@
+package com.thoughtworks.springbootemployee.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class CursorPage<T> {
+    private final List<T> content;
+    private final String nextCursor;
+
+    public CursorPage(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public static <T> CursorPage<T> of(List<T> fetched, int limit, Function<T, String> idExtractor) {
+        if (fetched.size() <= limit) {
+            return new CursorPage<>(fetched, null);
+        }
+
+        List<T> content = fetched.subList(0, limit);
+        String lastId = idExtractor.apply(content.get(limit - 1));
+
+        return new CursorPage<>(content, Cursors.encode(lastId));
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        List<R> mappedContent = this.content.stream()
+            .map(mapper)
+            .collect(Collectors.toList());
+
+        return new CursorPage<>(mappedContent, this.nextCursor);
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
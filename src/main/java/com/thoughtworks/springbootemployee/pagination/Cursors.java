@@ -0,0 +1,39 @@
+package com.thoughtworks.springbootemployee.pagination;
+
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public final class Cursors {
+    private static final int MAX_LIMIT = 1000;
+
+    private Cursors() {
+    }
+
+    public static String encode(String lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String decode(String cursor) {
+        String lastId;
+        try {
+            lastId = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalArgumentException(String.format("Invalid cursor: %s", cursor));
+        }
+
+        if (!ObjectId.isValid(lastId)) {
+            throw new IllegalArgumentException(String.format("Invalid cursor: %s", cursor));
+        }
+
+        return lastId;
+    }
+
+    public static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException(String.format("Limit must be between 1 and %d", MAX_LIMIT));
+        }
+    }
+}
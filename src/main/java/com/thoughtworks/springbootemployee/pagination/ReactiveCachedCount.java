@@ -0,0 +1,46 @@
+package com.thoughtworks.springbootemployee.pagination;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * The reactive stack's {@link CachedCount}: a total counted within the last TTL is reused and reported as inexact,
+ * only the call that actually counts reports it as exact.
+ */
+public class ReactiveCachedCount {
+    private final long ttlNanos;
+    private final Supplier<Mono<Long>> counter;
+    private volatile Snapshot snapshot;
+
+    public ReactiveCachedCount(Duration ttl, Supplier<Mono<Long>> counter) {
+        this.ttlNanos = ttl.toNanos();
+        this.counter = counter;
+    }
+
+    public Mono<CachedCount.Total> get() {
+        return Mono.defer(() -> {
+            Snapshot current = this.snapshot;
+            long now = System.nanoTime();
+            if (current != null && now - current.takenAt < this.ttlNanos) {
+                return Mono.just(new CachedCount.Total(current.value, false));
+            }
+
+            return this.counter.get().map(value -> {
+                this.snapshot = new Snapshot(value, now);
+                return new CachedCount.Total(value, true);
+            });
+        });
+    }
+
+    private static class Snapshot {
+        private final long value;
+        private final long takenAt;
+
+        private Snapshot(long value, long takenAt) {
+            this.value = value;
+            this.takenAt = takenAt;
+        }
+    }
+}
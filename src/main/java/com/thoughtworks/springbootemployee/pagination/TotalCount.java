@@ -0,0 +1,17 @@
+package com.thoughtworks.springbootemployee.pagination;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+public enum TotalCount {
+    EXACT,
+    CACHED,
+    ESTIMATED;
+
+    public static TotalCount from(String value) {
+        return Arrays.stream(values())
+            .filter(totalCount -> totalCount.name().equals(value.toUpperCase(Locale.ROOT)))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException(String.format("Unsupported total: %s", value)));
+    }
+}
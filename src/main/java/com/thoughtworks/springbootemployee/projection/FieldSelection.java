@@ -0,0 +1,96 @@
+package com.thoughtworks.springbootemployee.projection;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * The response fields requested through {@code ?fields=name,salary}. The same selection is pushed down to Mongo as a
+ * projection and applied again when the response is serialized, so unselected fields are neither read nor written.
+ * Response field names match the entity property names, which Spring Data maps to document fields.
+ */
+public final class FieldSelection {
+    public static final String FILTER_ID = "fieldSelection";
+    public static final FieldSelection ALL = new FieldSelection(Collections.emptySet());
+    public static final FilterProvider SERIALIZE_ALL = new SimpleFilterProvider().setFailOnUnknownId(false);
+
+    private static final Map<Class<?>, Set<String>> RESPONSE_FIELDS = new ConcurrentHashMap<>();
+
+    private final Set<String> fields;
+
+    private FieldSelection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    public static FieldSelection parse(String fields, Class<?> responseType) {
+        if (fields == null || fields.trim().isEmpty()) {
+            return ALL;
+        }
+
+        Set<String> allowed = RESPONSE_FIELDS.computeIfAbsent(responseType, FieldSelection::declaredFields);
+        Set<String> selected = Arrays.stream(fields.split(","))
+            .map(String::trim)
+            .filter(field -> !field.isEmpty())
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        selected.stream()
+            .filter(field -> !allowed.contains(field))
+            .findFirst()
+            .ifPresent(field -> {
+                throw new IllegalArgumentException(String.format("Unknown field: %s", field));
+            });
+
+        return selected.isEmpty() ? ALL : new FieldSelection(Collections.unmodifiableSet(selected));
+    }
+
+    public boolean isAll() {
+        return this.fields.isEmpty();
+    }
+
+    public Set<String> getFields() {
+        return this.fields;
+    }
+
+    public Query applyTo(Query query) {
+        this.fields.forEach(field -> query.fields().include(field));
+        return query;
+    }
+
+    public MappingJacksonValue wrap(Object body) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        if (!isAll()) {
+            value.setFilters(filters());
+        }
+
+        return value;
+    }
+
+    public FilterProvider filters() {
+        return isAll()
+            ? SERIALIZE_ALL
+            : new SimpleFilterProvider().addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(this.fields));
+    }
+
+    private static Set<String> declaredFields(Class<?> responseType) {
+        return Arrays.stream(responseType.getDeclaredFields())
+            .filter(field -> !Modifier.isStatic(field.getModifiers()))
+            .map(Field::getName)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    @JsonFilter(FILTER_ID)
+    public interface Filtered {
+    }
+}
@@ -1,7 +1,19 @@
 package com.thoughtworks.springbootemployee.repository;
 
 import com.thoughtworks.springbootemployee.entity.Company;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-public interface CompanyRepository extends MongoRepository<Company, String> {
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface CompanyRepository extends MongoRepository<Company, String>, CompanyRepositoryCustom {
+    Stream<Company> streamAllBy();
+
+    List<Company> findAllBy(Pageable pageable);
+
+    Slice<Company> findSliceBy(Pageable pageable);
+
+    List<Company> findAllByCompanyIdGreaterThan(String companyId, Pageable pageable);
 }
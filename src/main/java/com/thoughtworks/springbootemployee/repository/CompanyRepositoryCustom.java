@@ -0,0 +1,34 @@
+package com.thoughtworks.springbootemployee.repository;
+
+import com.thoughtworks.springbootemployee.batch.BulkUpdateResult;
+import com.thoughtworks.springbootemployee.entity.Company;
+import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface CompanyRepositoryCustom {
+    long estimatedCount();
+
+    void incrementEmployeesNumber(String companyId, int delta);
+
+    void incrementEmployeesNumbers(Map<String, Integer> deltas);
+
+    BulkUpdateResult recountEmployeesNumbers();
+
+    Optional<Company> updateDetails(String companyId, Company companyUpdate);
+
+    Optional<Company> patchDetails(String companyId, Company companyPatch);
+
+    List<Company> findProjected(Query query, FieldSelection fields);
+
+    Optional<Company> findProjectedById(String companyId, FieldSelection fields);
+
+    Optional<Long> findVersionById(String companyId);
+
+    Optional<Stream<Employee>> streamEmployees(String companyId, FieldSelection employeeFields);
+}
@@ -0,0 +1,256 @@
+package com.thoughtworks.springbootemployee.repository;
+
+import com.thoughtworks.springbootemployee.batch.BulkUpdateResult;
+import com.thoughtworks.springbootemployee.entity.Company;
+import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.data.util.Pair;
+import org.springframework.data.util.StreamUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.lookup;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.unwind;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+public class CompanyRepositoryCustomImpl implements CompanyRepositoryCustom {
+    private static final String EMPLOYEES_NUMBER = "employeesNumber";
+    private static final String VERSION = "version";
+    private static final int RECOUNT_BATCH_SIZE = 1000;
+
+    private static final String COMPANY_KEY = "companyKey";
+    private static final String EMPLOYEES = "employees";
+
+    private final MongoTemplate mongoTemplate;
+    private final int employeesBatchSize;
+
+    public CompanyRepositoryCustomImpl(MongoTemplate mongoTemplate,
+                                       @Value("${app.company-employees.batch-size:1000}") int employeesBatchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.employeesBatchSize = employeesBatchSize;
+    }
+
+    @Override
+    public long estimatedCount() {
+        return this.mongoTemplate.getCollection(this.mongoTemplate.getCollectionName(Company.class))
+            .estimatedDocumentCount();
+    }
+
+    @Override
+    public void incrementEmployeesNumber(String companyId, int delta) {
+        if (!ObjectId.isValid(companyId)) {
+            return;
+        }
+
+        this.mongoTemplate.updateFirst(byId(companyId), new Update().inc(EMPLOYEES_NUMBER, delta).inc(VERSION, 1), Company.class);
+    }
+
+    @Override
+    public void incrementEmployeesNumbers(Map<String, Integer> deltas) {
+        List<Pair<Query, Update>> updates = deltas.entrySet().stream()
+            .filter(delta -> ObjectId.isValid(delta.getKey()))
+            .map(delta -> Pair.of(byId(delta.getKey()), new Update().inc(EMPLOYEES_NUMBER, delta.getValue()).inc(VERSION, 1)))
+            .collect(Collectors.toList());
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Company.class)
+            .updateOne(updates)
+            .execute();
+    }
+
+    /**
+     * Resets every company's {@code employeesNumber} to the number of employees referencing it: one {@code $group} over
+     * the employees, then one stream over the companies with a bulk update of those that drifted, in batches of
+     * {@value #RECOUNT_BATCH_SIZE}. Meant as a one-off repair, since an {@code $inc} landing between the count and the
+     * write is overwritten.
+     */
+    @Override
+    public BulkUpdateResult recountEmployeesNumbers() {
+        Map<String, Integer> headcounts = new HashMap<>();
+        Aggregation counts = newAggregation(match(where("companyId").ne(null)), group("companyId").count().as("count"));
+        try (CloseableIterator<Document> groups = this.mongoTemplate.aggregateStream(
+            counts, this.mongoTemplate.getCollectionName(Employee.class), Document.class)) {
+            groups.forEachRemaining(group -> headcounts.put(group.get("_id").toString(), group.get("count", Number.class).intValue()));
+        }
+
+        Query companies = new Query();
+        companies.fields().include(EMPLOYEES_NUMBER);
+        long matched = 0;
+        long modified = 0;
+        List<Pair<Query, Update>> updates = new ArrayList<>();
+        try (CloseableIterator<Document> documents = this.mongoTemplate.stream(
+            companies, Document.class, this.mongoTemplate.getCollectionName(Company.class))) {
+            while (documents.hasNext()) {
+                Document company = documents.next();
+                String companyId = company.get("_id").toString();
+                int headcount = headcounts.getOrDefault(companyId, 0);
+                Number stored = company.get(EMPLOYEES_NUMBER, Number.class);
+                matched++;
+                if (stored == null || stored.intValue() != headcount) {
+                    updates.add(Pair.of(byId(companyId), new Update().set(EMPLOYEES_NUMBER, headcount).inc(VERSION, 1)));
+                }
+                if (updates.size() == RECOUNT_BATCH_SIZE) {
+                    modified += writeRecount(updates);
+                }
+            }
+        }
+        modified += writeRecount(updates);
+
+        return new BulkUpdateResult(matched, modified);
+    }
+
+    @Override
+    public Optional<Company> updateDetails(String companyId, Company companyUpdate) {
+        if (!ObjectId.isValid(companyId)) {
+            return Optional.empty();
+        }
+
+        Update update = new Update().set("companyName", companyUpdate.getCompanyName()).inc(VERSION, 1);
+
+        return Optional.ofNullable(this.mongoTemplate.findAndModify(
+            byId(companyId),
+            update,
+            FindAndModifyOptions.options().returnNew(true),
+            Company.class
+        ));
+    }
+
+    /**
+     * Like {@link #updateDetails} but leaves out the fields the patch does not carry; an empty patch is a plain read
+     * and keeps the version.
+     */
+    @Override
+    public Optional<Company> patchDetails(String companyId, Company companyPatch) {
+        if (!ObjectId.isValid(companyId)) {
+            return Optional.empty();
+        }
+        if (companyPatch.getCompanyName() == null) {
+            return Optional.ofNullable(this.mongoTemplate.findOne(byId(companyId), Company.class));
+        }
+
+        return updateDetails(companyId, companyPatch);
+    }
+
+    @Override
+    public List<Company> findProjected(Query query, FieldSelection fields) {
+        return this.mongoTemplate.find(fields.applyTo(query), Company.class);
+    }
+
+    @Override
+    public Optional<Company> findProjectedById(String companyId, FieldSelection fields) {
+        if (!ObjectId.isValid(companyId)) {
+            return Optional.empty();
+        }
+
+        Query query = fields.applyTo(byId(companyId));
+        if (!fields.isAll()) {
+            query.fields().include(VERSION);
+        }
+
+        return Optional.ofNullable(this.mongoTemplate.findOne(query, Company.class));
+    }
+
+    @Override
+    public Optional<Long> findVersionById(String companyId) {
+        if (!ObjectId.isValid(companyId)) {
+            return Optional.empty();
+        }
+
+        Query query = new Query(where("_id").is(new ObjectId(companyId)));
+        query.fields().include(VERSION);
+        Document document = this.mongoTemplate.findOne(query, Document.class, this.mongoTemplate.getCollectionName(Company.class));
+        if (document == null) {
+            return Optional.empty();
+        }
+
+        Number version = document.get(VERSION, Number.class);
+        return Optional.of(version == null ? 0L : version.longValue());
+    }
+
+    /**
+     * Finds the company and joins its employees in one aggregation, so a missing company (no document at all) and a
+     * company without employees (one document without an employee) are told apart without a separate
+     * {@code existsById}. MongoDB coalesces the {@code $unwind} into the {@code $lookup}, so employees come back one
+     * per document in cursor batches instead of as one array bound by the 16MB document limit. Company ids are
+     * ObjectIds while {@code Employee.companyId} holds their hex string, hence the {@code $toString} (MongoDB 4.0+).
+     * The stream holds the cursor open and must be closed.
+     */
+    @Override
+    public Optional<Stream<Employee>> streamEmployees(String companyId, FieldSelection employeeFields) {
+        if (!ObjectId.isValid(companyId)) {
+            return Optional.empty();
+        }
+
+        List<AggregationOperation> stages = new ArrayList<>();
+        stages.add(match(where("_id").is(new ObjectId(companyId))));
+        stages.add(project().and(ConvertOperators.valueOf("_id").convertToString()).as(COMPANY_KEY));
+        stages.add(lookup(this.mongoTemplate.getCollectionName(Employee.class), COMPANY_KEY, "companyId", EMPLOYEES));
+        stages.add(unwind(EMPLOYEES, true));
+        if (!employeeFields.isAll()) {
+            Document fields = new Document("_id", 0).append(EMPLOYEES + "._id", 1);
+            employeeFields.getFields().stream()
+                .filter(field -> !"id".equals(field))
+                .forEach(field -> fields.append(EMPLOYEES + "." + field, 1));
+            stages.add(context -> new Document("$project", fields));
+        }
+        Aggregation aggregation = newAggregation(stages)
+            .withOptions(AggregationOptions.builder().cursorBatchSize(this.employeesBatchSize).build());
+
+        CloseableIterator<Document> documents = this.mongoTemplate.aggregateStream(
+            aggregation, this.mongoTemplate.getCollectionName(Company.class), Document.class);
+        if (!documents.hasNext()) {
+            documents.close();
+            return Optional.empty();
+        }
+
+        MongoConverter converter = this.mongoTemplate.getConverter();
+        return Optional.of(StreamUtils.createStreamFromIterator(documents)
+            .map(document -> document.get(EMPLOYEES, Document.class))
+            .filter(Objects::nonNull)
+            .map(employee -> converter.read(Employee.class, employee)));
+    }
+
+    private long writeRecount(List<Pair<Query, Update>> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+
+        long modified = this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Company.class)
+            .updateOne(updates)
+            .execute()
+            .getModifiedCount();
+        updates.clear();
+        return modified;
+    }
+
+    private static Query byId(String companyId) {
+        return new Query(where("companyId").is(companyId));
+    }
+}
@@ -1,12 +1,23 @@
 package com.thoughtworks.springbootemployee.repository;
 
 import com.thoughtworks.springbootemployee.entity.Employee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface EmployeeRepository extends MongoRepository<Employee, String> {
+public interface EmployeeRepository extends MongoRepository<Employee, String>, EmployeeRepositoryCustom {
     List<Employee> findAllByGender(String gender);
 
     List<Employee> findAllByCompanyId(String companyId);
+
+    Stream<Employee> streamAllBy();
+
+    List<Employee> findAllBy(Pageable pageable);
+
+    Slice<Employee> findSliceBy(Pageable pageable);
+
+    List<Employee> findAllByIdGreaterThan(String id, Pageable pageable);
 }
@@ -0,0 +1,39 @@
+package com.thoughtworks.springbootemployee.repository;
+
+import com.thoughtworks.springbootemployee.batch.BulkUpdateResult;
+import com.thoughtworks.springbootemployee.entity.CompanyStats;
+import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface EmployeeRepositoryCustom {
+    long estimatedCount();
+
+    List<CompanyStats> aggregateCompanyStats(Collection<String> companyIds);
+
+    Optional<Employee> findAndRemoveById(String id);
+
+    Optional<Patched<Employee>> patchById(String id, Employee patch);
+
+    Optional<Patched<Employee>> replaceById(String id, Employee replacement);
+
+    List<Employee> findProjected(Query query, FieldSelection fields);
+
+    long countMatching(Query query);
+
+    long deleteMatching(Query query);
+
+    long detachFromCompany(Query query);
+
+    BulkUpdateResult adjustSalaries(Query query, double factor, int increment);
+
+    List<Employee> findByNameTokenPrefixes(List<String> prefixes, int limit);
+
+    Optional<Employee> findProjectedById(String id, FieldSelection fields);
+
+    Optional<Long> findVersionById(String id);
+}
@@ -0,0 +1,341 @@
+package com.thoughtworks.springbootemployee.repository;
+
+import com.thoughtworks.springbootemployee.batch.BulkUpdateResult;
+import com.thoughtworks.springbootemployee.entity.CompanyStats;
+import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+import com.thoughtworks.springbootemployee.search.NameTokens;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+public class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
+    private static final String UNKNOWN_GENDER = "unknown";
+    private static final String VERSION = "version";
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EmployeeRepositoryCustomImpl(MongoTemplate mongoTemplate, ApplicationEventPublisher eventPublisher) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public long estimatedCount() {
+        return this.mongoTemplate.getCollection(this.mongoTemplate.getCollectionName(Employee.class))
+            .estimatedDocumentCount();
+    }
+
+    /**
+     * Groups by company and gender, then folds the gender groups into one document per company. Averages are carried
+     * as sums and counts of the non-null values through the first group, so they match a single {@code $avg}, and no
+     * stage has to fit every company into one 16MB document the way a {@code $facet} does.
+     */
+    @Override
+    public List<CompanyStats> aggregateCompanyStats(Collection<String> companyIds) {
+        Criteria companies = companyIds == null
+            ? where("companyId").ne(null)
+            : where("companyId").in(companyIds);
+        Document byCompanyAndGender = new Document("_id", new Document("companyId", "$companyId").append("gender", "$gender"))
+            .append("headcount", new Document("$sum", 1))
+            .append("salarySum", new Document("$sum", "$salary"))
+            .append("salaryCount", countPresent("$salary"))
+            .append("salaryMin", new Document("$min", "$salary"))
+            .append("salaryMax", new Document("$max", "$salary"))
+            .append("ageSum", new Document("$sum", "$age"))
+            .append("ageCount", countPresent("$age"));
+        Document byCompany = new Document("_id", "$_id.companyId")
+            .append("headcount", new Document("$sum", "$headcount"))
+            .append("salarySum", new Document("$sum", "$salarySum"))
+            .append("salaryCount", new Document("$sum", "$salaryCount"))
+            .append("salaryMin", new Document("$min", "$salaryMin"))
+            .append("salaryMax", new Document("$max", "$salaryMax"))
+            .append("ageSum", new Document("$sum", "$ageSum"))
+            .append("ageCount", new Document("$sum", "$ageCount"))
+            .append("genders", new Document("$push", new Document("gender", "$_id.gender").append("headcount", "$headcount")));
+        Aggregation aggregation = newAggregation(
+            match(companies),
+            context -> new Document("$group", byCompanyAndGender),
+            context -> new Document("$group", byCompany)
+        );
+
+        List<CompanyStats> stats = new ArrayList<>();
+        this.mongoTemplate.aggregate(aggregation, Employee.class, Document.class).forEach(total -> {
+            Map<String, Long> genders = new LinkedHashMap<>();
+            total.getList("genders", Document.class).forEach(group -> {
+                String gender = group.getString("gender");
+                genders.put(gender == null ? UNKNOWN_GENDER : gender, toLong(group.get("headcount")));
+            });
+            stats.add(new CompanyStats(
+                total.getString("_id"),
+                toLong(total.get("headcount")),
+                toLong(total.get("salarySum")),
+                average(total.get("salarySum"), total.get("salaryCount")),
+                toInteger(total.get("salaryMin")),
+                toInteger(total.get("salaryMax")),
+                average(total.get("ageSum"), total.get("ageCount")),
+                genders
+            ));
+        });
+
+        return stats;
+    }
+
+    /**
+     * Unlike {@code remove}, {@code findAndRemove} emits no mapping events, so the {@link AfterDeleteEvent} listeners
+     * keeping in-memory views of the collection rely on are published here.
+     */
+    @Override
+    public Optional<Employee> findAndRemoveById(String id) {
+        Employee removed = this.mongoTemplate.findAndRemove(new Query(where("id").is(id)), Employee.class);
+        if (removed != null) {
+            this.eventPublisher.publishEvent(new AfterDeleteEvent<>(
+                new Document("_id", new ObjectId(removed.getId())), Employee.class, this.mongoTemplate.getCollectionName(Employee.class)));
+        }
+
+        return Optional.ofNullable(removed);
+    }
+
+    /**
+     * Sets the non-null fields of the patch and bumps the version in one {@code findAndModify}. The previous document
+     * comes back from Mongo and the patched one is derived from it, so callers see both without a second read. As with
+     * removal, {@code findAndModify} emits no mapping events, so the {@link AfterSaveEvent} is published here. A patch
+     * without any field is a plain read: no version bump, no event, the same document before and after.
+     */
+    @Override
+    public Optional<Patched<Employee>> patchById(String id, Employee patch) {
+        if (!ObjectId.isValid(id)) {
+            return Optional.empty();
+        }
+        if (patch.getName() == null && patch.getAge() == null && patch.getGender() == null && patch.getSalary() == null
+            && patch.getCompanyId() == null) {
+            return Optional.ofNullable(this.mongoTemplate.findOne(new Query(where("id").is(id)), Employee.class))
+                .map(employee -> new Patched<>(employee, employee));
+        }
+
+        Update update = new Update().inc(VERSION, 1);
+        setIfPresent(update, "name", patch.getName());
+        setIfPresent(update, "age", patch.getAge());
+        setIfPresent(update, "gender", patch.getGender());
+        setIfPresent(update, "salary", patch.getSalary());
+        setIfPresent(update, "companyId", patch.getCompanyId());
+        if (patch.getName() != null) {
+            update.set("nameTokens", NameTokens.of(patch.getName()));
+        }
+
+        Employee before = this.mongoTemplate.findAndModify(new Query(where("id").is(id)), update, Employee.class);
+        if (before == null) {
+            return Optional.empty();
+        }
+
+        Employee after = new Employee(
+            before.getId(),
+            patch.getName() == null ? before.getName() : patch.getName(),
+            patch.getAge() == null ? before.getAge() : patch.getAge(),
+            patch.getGender() == null ? before.getGender() : patch.getGender(),
+            patch.getSalary() == null ? before.getSalary() : patch.getSalary()
+        );
+        after.setCompanyId(patch.getCompanyId() == null ? before.getCompanyId() : patch.getCompanyId());
+        after.setVersion(before.getVersion() == null ? 1L : before.getVersion() + 1);
+        after.setNameTokens(patch.getName() == null ? before.getNameTokens() : NameTokens.of(patch.getName()));
+        this.eventPublisher.publishEvent(new AfterSaveEvent<>(
+            after, new Document("_id", new ObjectId(id)), this.mongoTemplate.getCollectionName(Employee.class)));
+
+        return Optional.of(new Patched<>(before, after));
+    }
+
+    /**
+     * Overwrites every field of the employee and bumps the version in one {@code findAndModify}, returning the
+     * previous document alongside the new one. Unlike a read followed by {@code save}, two concurrent replacements
+     * each see the document the other left, so callers moving the employee between companies adjust the right
+     * counters.
+     */
+    @Override
+    public Optional<Patched<Employee>> replaceById(String id, Employee replacement) {
+        if (!ObjectId.isValid(id)) {
+            return Optional.empty();
+        }
+
+        Update update = new Update().inc(VERSION, 1);
+        setOrUnset(update, "name", replacement.getName());
+        setOrUnset(update, "age", replacement.getAge());
+        setOrUnset(update, "gender", replacement.getGender());
+        setOrUnset(update, "salary", replacement.getSalary());
+        setOrUnset(update, "companyId", replacement.getCompanyId());
+        update.set("nameTokens", NameTokens.of(replacement.getName()));
+
+        Employee before = this.mongoTemplate.findAndModify(new Query(where("id").is(id)), update, Employee.class);
+        if (before == null) {
+            return Optional.empty();
+        }
+
+        Employee after = new Employee(id, replacement.getName(), replacement.getAge(), replacement.getGender(), replacement.getSalary());
+        after.setCompanyId(replacement.getCompanyId());
+        after.setVersion(before.getVersion() == null ? 1L : before.getVersion() + 1);
+        after.setNameTokens(NameTokens.of(replacement.getName()));
+        this.eventPublisher.publishEvent(new AfterSaveEvent<>(
+            after, new Document("_id", new ObjectId(id)), this.mongoTemplate.getCollectionName(Employee.class)));
+
+        return Optional.of(new Patched<>(before, after));
+    }
+
+    @Override
+    public List<Employee> findProjected(Query query, FieldSelection fields) {
+        return this.mongoTemplate.find(fields.applyTo(query), Employee.class);
+    }
+
+    @Override
+    public long countMatching(Query query) {
+        return this.mongoTemplate.count(Query.of(query).limit(0).skip(0), Employee.class);
+    }
+
+    /**
+     * Every prefix must start one of the name tokens. Tokens only hold letters and digits, so the anchored patterns
+     * need no escaping and each one becomes a bounded scan of the multikey {@code nameTokens} index; the longest
+     * prefix goes first, as it is the most selective.
+     */
+    @Override
+    public List<Employee> findByNameTokenPrefixes(List<String> prefixes, int limit) {
+        Object[] patterns = prefixes.stream()
+            .sorted(Comparator.comparingInt(String::length).reversed())
+            .map(prefix -> Pattern.compile("^" + prefix))
+            .toArray();
+
+        return this.mongoTemplate.find(new Query(where("nameTokens").all(patterns)).limit(limit), Employee.class);
+    }
+
+    /**
+     * One server-side {@code deleteMany}; {@code remove} publishes the {@link AfterDeleteEvent} with the query itself.
+     */
+    @Override
+    public long deleteMatching(Query query) {
+        return this.mongoTemplate.remove(query, Employee.class).getDeletedCount();
+    }
+
+    /**
+     * Unsets the company of every matching employee and bumps their versions in one {@code updateMany}. Multi updates
+     * emit no mapping events, so an {@link EmployeesModifiedEvent} carrying the query is published instead.
+     */
+    @Override
+    public long detachFromCompany(Query query) {
+        long modified = this.mongoTemplate.updateMulti(query, new Update().unset("companyId").inc(VERSION, 1), Employee.class)
+            .getModifiedCount();
+        if (modified > 0) {
+            this.eventPublisher.publishEvent(new EmployeesModifiedEvent(query.getQueryObject()));
+        }
+
+        return modified;
+    }
+
+    /**
+     * Rewrites the salary of every matching employee from its current value, {@code round(salary * factor + increment)},
+     * and bumps the version in one pipeline {@code updateMany} (MongoDB 4.2+), so a raise needs neither a read nor a
+     * write per employee. The result is clamped to {@code [0, Integer.MAX_VALUE]} before {@code $toInt}, which would
+     * otherwise fail the update part-way on the first salary out of int range. Like {@link #detachFromCompany}, it
+     * publishes an {@link EmployeesModifiedEvent}.
+     */
+    @Override
+    public BulkUpdateResult adjustSalaries(Query query, double factor, int increment) {
+        Document adjusted = new Document("$round", Arrays.asList(
+            new Document("$add", Arrays.asList(new Document("$multiply", Arrays.asList("$salary", factor)), increment)), 0));
+        Document salary = new Document("$toInt", new Document("$min", Arrays.asList(
+            new Document("$max", Arrays.asList(adjusted, 0)), Integer.MAX_VALUE)));
+        Document version = new Document("$add", Arrays.asList(new Document("$ifNull", Arrays.asList("$" + VERSION, 0)), 1));
+        AggregationUpdate update = AggregationUpdate.from(Collections.singletonList(
+            context -> new Document("$set", new Document("salary", salary).append(VERSION, version))));
+
+        UpdateResult result = this.mongoTemplate.updateMulti(query, update, Employee.class);
+        if (result.getModifiedCount() > 0) {
+            this.eventPublisher.publishEvent(new EmployeesModifiedEvent(query.getQueryObject()));
+        }
+
+        return new BulkUpdateResult(result.getMatchedCount(), result.getModifiedCount());
+    }
+
+    @Override
+    public Optional<Employee> findProjectedById(String id, FieldSelection fields) {
+        if (!ObjectId.isValid(id)) {
+            return Optional.empty();
+        }
+
+        Query query = fields.applyTo(new Query(where("id").is(id)));
+        if (!fields.isAll()) {
+            query.fields().include(VERSION);
+        }
+
+        return Optional.ofNullable(this.mongoTemplate.findOne(query, Employee.class));
+    }
+
+    @Override
+    public Optional<Long> findVersionById(String id) {
+        if (!ObjectId.isValid(id)) {
+            return Optional.empty();
+        }
+
+        Query query = new Query(where("_id").is(new ObjectId(id)));
+        query.fields().include(VERSION);
+        Document document = this.mongoTemplate.findOne(query, Document.class, this.mongoTemplate.getCollectionName(Employee.class));
+        if (document == null) {
+            return Optional.empty();
+        }
+
+        Number version = document.get(VERSION, Number.class);
+        return Optional.of(version == null ? 0L : version.longValue());
+    }
+
+    private static void setOrUnset(Update update, String field, Object value) {
+        if (value == null) {
+            update.unset(field);
+        } else {
+            update.set(field, value);
+        }
+    }
+
+    private static void setIfPresent(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        }
+    }
+
+    private static Document countPresent(String field) {
+        return new Document("$sum", new Document("$cond", Arrays.asList(new Document("$gt", Arrays.asList(field, null)), 1, 0)));
+    }
+
+    private static Double average(Object sum, Object count) {
+        long present = toLong(count);
+        return present == 0 ? null : ((Number) sum).doubleValue() / present;
+    }
+
+    private static long toLong(Object value) {
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+
+    private static Integer toInteger(Object value) {
+        return value == null ? null : ((Number) value).intValue();
+    }
+}
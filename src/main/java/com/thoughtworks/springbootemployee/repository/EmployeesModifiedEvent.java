@@ -0,0 +1,18 @@
+package com.thoughtworks.springbootemployee.repository;
+
+import org.bson.Document;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published after a multi-document update of employees, which Spring Data runs without mapping events. The source is
+ * the query document of the update, not the modified employees.
+ */
+public class EmployeesModifiedEvent extends ApplicationEvent {
+    public EmployeesModifiedEvent(Document query) {
+        super(query);
+    }
+
+    public Document getQuery() {
+        return (Document) getSource();
+    }
+}
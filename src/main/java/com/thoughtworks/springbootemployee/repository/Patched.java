@@ -0,0 +1,22 @@
+package com.thoughtworks.springbootemployee.repository;
+
+/**
+ * A document before and after a partial update applied in one {@code findAndModify}.
+ */
+public class Patched<T> {
+    private final T before;
+    private final T after;
+
+    public Patched(T before, T after) {
+        this.before = before;
+        this.after = after;
+    }
+
+    public T getBefore() {
+        return before;
+    }
+
+    public T getAfter() {
+        return after;
+    }
+}
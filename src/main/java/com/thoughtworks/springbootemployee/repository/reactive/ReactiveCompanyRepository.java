@@ -0,0 +1,12 @@
+package com.thoughtworks.springbootemployee.repository.reactive;
+
+import com.thoughtworks.springbootemployee.entity.Company;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveCompanyRepository extends ReactiveMongoRepository<Company, String>, ReactiveCompanyRepositoryCustom {
+    Flux<Company> findAllBy(Pageable pageable);
+
+    Flux<Company> findAllByCompanyIdGreaterThan(String companyId, Pageable pageable);
+}
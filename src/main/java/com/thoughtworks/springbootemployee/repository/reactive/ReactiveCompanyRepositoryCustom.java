@@ -0,0 +1,12 @@
+package com.thoughtworks.springbootemployee.repository.reactive;
+
+import com.thoughtworks.springbootemployee.entity.Company;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCompanyRepositoryCustom {
+    Mono<Long> estimatedCount();
+
+    Mono<Void> incrementEmployeesNumber(String companyId, int delta);
+
+    Mono<Company> updateDetails(String companyId, Company companyUpdate);
+}
@@ -0,0 +1,56 @@
+package com.thoughtworks.springbootemployee.repository.reactive;
+
+import com.thoughtworks.springbootemployee.entity.Company;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+public class ReactiveCompanyRepositoryCustomImpl implements ReactiveCompanyRepositoryCustom {
+    private static final String EMPLOYEES_NUMBER = "employeesNumber";
+    private static final String VERSION = "version";
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public ReactiveCompanyRepositoryCustomImpl(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Mono<Long> estimatedCount() {
+        return this.reactiveMongoTemplate.getCollection(this.reactiveMongoTemplate.getCollectionName(Company.class))
+            .flatMap(collection -> Mono.from(collection.estimatedDocumentCount()));
+    }
+
+    @Override
+    public Mono<Void> incrementEmployeesNumber(String companyId, int delta) {
+        if (!ObjectId.isValid(companyId)) {
+            return Mono.empty();
+        }
+
+        return this.reactiveMongoTemplate.updateFirst(byId(companyId), new Update().inc(EMPLOYEES_NUMBER, delta).inc(VERSION, 1), Company.class)
+            .then();
+    }
+
+    @Override
+    public Mono<Company> updateDetails(String companyId, Company companyUpdate) {
+        if (!ObjectId.isValid(companyId)) {
+            return Mono.empty();
+        }
+
+        return this.reactiveMongoTemplate.findAndModify(
+            byId(companyId),
+            new Update().set("companyName", companyUpdate.getCompanyName()).inc(VERSION, 1),
+            FindAndModifyOptions.options().returnNew(true),
+            Company.class
+        );
+    }
+
+    private static Query byId(String companyId) {
+        return new Query(where("companyId").is(companyId));
+    }
+}
@@ -0,0 +1,16 @@
+package com.thoughtworks.springbootemployee.repository.reactive;
+
+import com.thoughtworks.springbootemployee.entity.Employee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveEmployeeRepository extends ReactiveMongoRepository<Employee, String>, ReactiveEmployeeRepositoryCustom {
+    Flux<Employee> findAllByGender(String gender);
+
+    Flux<Employee> findAllByCompanyId(String companyId);
+
+    Flux<Employee> findAllBy(Pageable pageable);
+
+    Flux<Employee> findAllByIdGreaterThan(String id, Pageable pageable);
+}
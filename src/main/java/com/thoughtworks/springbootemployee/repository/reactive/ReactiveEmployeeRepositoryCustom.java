@@ -0,0 +1,13 @@
+package com.thoughtworks.springbootemployee.repository.reactive;
+
+import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.repository.Patched;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveEmployeeRepositoryCustom {
+    Mono<Long> estimatedCount();
+
+    Mono<Employee> findAndRemoveById(String id);
+
+    Mono<Patched<Employee>> replaceById(String id, Employee replacement);
+}
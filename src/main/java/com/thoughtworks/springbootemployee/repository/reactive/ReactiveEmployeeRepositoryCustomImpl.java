@@ -0,0 +1,77 @@
+package com.thoughtworks.springbootemployee.repository.reactive;
+
+import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.repository.Patched;
+import com.thoughtworks.springbootemployee.search.NameTokens;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+public class ReactiveEmployeeRepositoryCustomImpl implements ReactiveEmployeeRepositoryCustom {
+    private static final String VERSION = "version";
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ReactiveEmployeeRepositoryCustomImpl(ReactiveMongoTemplate reactiveMongoTemplate, ApplicationEventPublisher eventPublisher) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public Mono<Long> estimatedCount() {
+        return this.reactiveMongoTemplate.getCollection(this.reactiveMongoTemplate.getCollectionName(Employee.class))
+            .flatMap(collection -> Mono.from(collection.estimatedDocumentCount()));
+    }
+
+    @Override
+    public Mono<Employee> findAndRemoveById(String id) {
+        return this.reactiveMongoTemplate.findAndRemove(new Query(where("id").is(id)), Employee.class);
+    }
+
+    /**
+     * Overwrites every field of the employee and bumps the version in one {@code findAndModify}, like the blocking
+     * repository, so concurrent replacements each see the company the other left.
+     */
+    @Override
+    public Mono<Patched<Employee>> replaceById(String id, Employee replacement) {
+        if (!ObjectId.isValid(id)) {
+            return Mono.empty();
+        }
+
+        Update update = new Update().inc(VERSION, 1);
+        setOrUnset(update, "name", replacement.getName());
+        setOrUnset(update, "age", replacement.getAge());
+        setOrUnset(update, "gender", replacement.getGender());
+        setOrUnset(update, "salary", replacement.getSalary());
+        setOrUnset(update, "companyId", replacement.getCompanyId());
+        update.set("nameTokens", NameTokens.of(replacement.getName()));
+
+        return this.reactiveMongoTemplate.findAndModify(new Query(where("id").is(id)), update, Employee.class)
+            .map(before -> {
+                Employee after = new Employee(id, replacement.getName(), replacement.getAge(), replacement.getGender(), replacement.getSalary());
+                after.setCompanyId(replacement.getCompanyId());
+                after.setVersion(before.getVersion() == null ? 1L : before.getVersion() + 1);
+                after.setNameTokens(NameTokens.of(replacement.getName()));
+                this.eventPublisher.publishEvent(new AfterSaveEvent<>(
+                    after, new Document("_id", new ObjectId(id)), this.reactiveMongoTemplate.getCollectionName(Employee.class)));
+
+                return new Patched<>(before, after);
+            });
+    }
+
+    private static void setOrUnset(Update update, String field, Object value) {
+        if (value == null) {
+            update.unset(field);
+        } else {
+            update.set(field, value);
+        }
+    }
+}
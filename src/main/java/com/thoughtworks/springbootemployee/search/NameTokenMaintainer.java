@@ -0,0 +1,76 @@
+package com.thoughtworks.springbootemployee.search;
+
+import com.thoughtworks.springbootemployee.entity.Employee;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Derives {@code Employee.nameTokens} from the name on every insert and save, bulk writes included, and backfills the
+ * tokens of documents written before the field existed.
+ */
+@Component
+public class NameTokenMaintainer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NameTokenMaintainer.class);
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public NameTokenMaintainer(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener
+    public void onBeforeConvert(BeforeConvertEvent<?> event) {
+        if (event.getSource() instanceof Employee) {
+            Employee employee = (Employee) event.getSource();
+            employee.setNameTokens(NameTokens.of(employee.getName()));
+        }
+    }
+
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        String collectionName = this.mongoTemplate.getCollectionName(Employee.class);
+        Query query = new Query(where("nameTokens").exists(false));
+        query.fields().include("name");
+
+        long updated = 0;
+        BulkOperations batch = null;
+        int batched = 0;
+        try (CloseableIterator<Document> documents = this.mongoTemplate.stream(query, Document.class, collectionName)) {
+            while (documents.hasNext()) {
+                Document document = documents.next();
+                if (batch == null) {
+                    batch = this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collectionName);
+                }
+                batch.updateOne(new Query(where("_id").is(document.get("_id"))),
+                    Update.update("nameTokens", NameTokens.of(document.getString("name"))));
+                if (++batched == BACKFILL_BATCH_SIZE) {
+                    updated += batch.execute().getModifiedCount();
+                    batch = null;
+                    batched = 0;
+                }
+            }
+        }
+        if (batch != null) {
+            updated += batch.execute().getModifiedCount();
+        }
+
+        if (updated > 0) {
+            LOGGER.info("Backfilled name tokens of {} employees", updated);
+        }
+    }
+}
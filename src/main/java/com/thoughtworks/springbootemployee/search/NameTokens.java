@@ -0,0 +1,43 @@
+package com.thoughtworks.springbootemployee.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Splits a name into lower-cased, accent-free tokens of letters and digits, the form stored in
+ * {@code Employee.nameTokens} and the form search queries are reduced to before matching.
+ */
+public final class NameTokens {
+    private NameTokens() {
+    }
+
+    public static List<String> of(String name) {
+        String normalized = normalize(name);
+        if (normalized.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return Arrays.stream(normalized.split(" "))
+            .distinct()
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * The name with accents stripped, lower-cased, and every run of other characters collapsed into one space.
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+
+        return Normalizer.normalize(name, Normalizer.Form.NFD)
+            .replaceAll("\\p{M}+", "")
+            .toLowerCase(Locale.ROOT)
+            .replaceAll("[^\\p{L}\\p{N}]+", " ")
+            .trim();
+    }
+}
@@ -1,64 +1,334 @@
 package com.thoughtworks.springbootemployee.services;
 
+import com.thoughtworks.springbootemployee.batch.BatchResult;
+import com.thoughtworks.springbootemployee.batch.BulkInserter;
+import com.thoughtworks.springbootemployee.batch.BulkUpdateResult;
+import com.thoughtworks.springbootemployee.coalescing.SingleFlight;
+import com.thoughtworks.springbootemployee.config.CacheConfig;
 import com.thoughtworks.springbootemployee.entity.Company;
+import com.thoughtworks.springbootemployee.entity.CompanyStats;
 import com.thoughtworks.springbootemployee.entity.Employee;
 import com.thoughtworks.springbootemployee.exceptions.CompanyNotFoundException;
+import com.thoughtworks.springbootemployee.existence.ExistenceIndex;
+import com.thoughtworks.springbootemployee.pagination.CachedCount;
+import com.thoughtworks.springbootemployee.pagination.CountedPage;
+import com.thoughtworks.springbootemployee.pagination.CursorPage;
+import com.thoughtworks.springbootemployee.pagination.Cursors;
+import com.thoughtworks.springbootemployee.pagination.TotalCount;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
 import com.thoughtworks.springbootemployee.repository.CompanyRepository;
 import com.thoughtworks.springbootemployee.repository.EmployeeRepository;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.repository.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
 
 @Service
 public class CompanyService {
+    private static final Duration CACHED_TOTAL_TTL = Duration.ofSeconds(30);
+
     private final CompanyRepository companyRepository;
     private final EmployeeRepository employeeRepository;
+    private final BulkInserter bulkInserter;
+    private final ExistenceIndex existenceIndex;
+    private final CachedCount cachedTotal;
+    private final SingleFlight<String, Company> readFlight = new SingleFlight<>("companies");
 
-    public CompanyService(CompanyRepository companyRepository, EmployeeRepository employeeRepository) {
+    public CompanyService(CompanyRepository companyRepository, EmployeeRepository employeeRepository, BulkInserter bulkInserter, ExistenceIndex existenceIndex) {
         this.companyRepository = companyRepository;
         this.employeeRepository = employeeRepository;
+        this.bulkInserter = bulkInserter;
+        this.existenceIndex = existenceIndex;
+        this.cachedTotal = new CachedCount(CACHED_TOTAL_TTL, companyRepository::count);
     }
 
     public List<Company> getAll() {
         return this.companyRepository.findAll();
     }
 
+    public List<Company> getAll(FieldSelection fields) {
+        if (fields.isAll()) {
+            return getAll();
+        }
+
+        return this.companyRepository.findProjected(new Query(), fields);
+    }
+
+    public Stream<Company> streamAll() {
+        return this.companyRepository.streamAllBy();
+    }
+
     public Page<Company> getAllPaginated(Integer page, Integer pageSize) {
-        Pageable pageable = PageRequest.of(page - 1, pageSize);
+        Pageable pageable = PageRequest.of(page - 1, pageSize, Sort.by("companyId"));
 
         return this.companyRepository.findAll(pageable);
     }
 
+    public Page<Company> getAllPaginated(Integer page, Integer pageSize, FieldSelection fields) {
+        if (fields.isAll()) {
+            return getAllPaginated(page, pageSize);
+        }
+
+        Pageable pageable = PageRequest.of(page - 1, pageSize, Sort.by("companyId"));
+        List<Company> companies = this.companyRepository.findProjected(new Query().with(pageable), fields);
+
+        return PageableExecutionUtils.getPage(companies, pageable, this.companyRepository::count);
+    }
+
+    public Slice<Company> getSlice(int page, int pageSize) {
+        return this.companyRepository.findSliceBy(PageRequest.of(page - 1, pageSize, Sort.by("companyId")));
+    }
+
+    public Slice<Company> getSlice(int page, int pageSize, FieldSelection fields) {
+        if (fields.isAll()) {
+            return getSlice(page, pageSize);
+        }
+
+        Pageable pageable = PageRequest.of(page - 1, pageSize, Sort.by("companyId"));
+        List<Company> companies = this.companyRepository.findProjected(new Query().with(pageable).limit(pageSize + 1), fields);
+        boolean hasNext = companies.size() > pageSize;
+
+        return new SliceImpl<>(hasNext ? companies.subList(0, pageSize) : companies, pageable, hasNext);
+    }
+
+    public CountedPage<Company> getAllPaginated(int page, int pageSize, TotalCount totalCount) {
+        Slice<Company> slice = getSlice(page, pageSize);
+
+        return CountedPage.of(slice, total(totalCount));
+    }
+
+    public CountedPage<Company> getAllPaginated(int page, int pageSize, TotalCount totalCount, FieldSelection fields) {
+        Slice<Company> slice = getSlice(page, pageSize, fields);
+
+        return CountedPage.of(slice, total(totalCount));
+    }
+
+    private CachedCount.Total total(TotalCount totalCount) {
+        switch (totalCount) {
+            case ESTIMATED:
+                return new CachedCount.Total(this.companyRepository.estimatedCount(), false);
+            case CACHED:
+                return this.cachedTotal.get();
+            default:
+                return new CachedCount.Total(this.companyRepository.count(), true);
+        }
+    }
+
+    public CursorPage<Company> getAllAfter(String after, int limit) {
+        Cursors.checkLimit(limit);
+        Pageable pageable = PageRequest.of(0, limit + 1, Sort.by("companyId"));
+        List<Company> companies = after == null
+            ? this.companyRepository.findAllBy(pageable)
+            : this.companyRepository.findAllByCompanyIdGreaterThan(Cursors.decode(after), pageable);
+
+        return CursorPage.of(companies, limit, Company::getCompanyId);
+    }
+
+    public CursorPage<Company> getAllAfter(String after, int limit, FieldSelection fields) {
+        if (fields.isAll()) {
+            return getAllAfter(after, limit);
+        }
+
+        Cursors.checkLimit(limit);
+        Query query = after == null
+            ? new Query()
+            : new Query(where("companyId").gt(Cursors.decode(after)));
+        List<Company> companies = this.companyRepository.findProjected(query.with(Sort.by("companyId")).limit(limit + 1), fields);
+
+        return CursorPage.of(companies, limit, Company::getCompanyId);
+    }
+
     public Company getOne(String companyId) {
-        return this.companyRepository.findById(companyId)
+        if (!this.existenceIndex.mightContainCompany(companyId)) {
+            throw new CompanyNotFoundException(companyId);
+        }
+
+        return this.readFlight.load(companyId, () -> this.companyRepository.findById(companyId)
+            .orElseThrow(() -> new CompanyNotFoundException(companyId)));
+    }
+
+    /**
+     * Coalesces concurrent {@link #getOne(String)} calls for the same id into one {@code findById}.
+     */
+    public SingleFlight<String, Company> getReadFlight() {
+        return readFlight;
+    }
+
+    public Company getOne(String companyId, FieldSelection fields) {
+        if (fields.isAll()) {
+            return getOne(companyId);
+        }
+        if (!this.existenceIndex.mightContainCompany(companyId)) {
+            throw new CompanyNotFoundException(companyId);
+        }
+
+        return this.companyRepository.findProjectedById(companyId, fields)
+            .orElseThrow(() -> new CompanyNotFoundException(companyId));
+    }
+
+    public long getVersion(String companyId) {
+        if (!this.existenceIndex.mightContainCompany(companyId)) {
+            throw new CompanyNotFoundException(companyId);
+        }
+
+        return this.companyRepository.findVersionById(companyId)
             .orElseThrow(() -> new CompanyNotFoundException(companyId));
     }
 
     public List<Employee> getCompanyEmployees(String companyId) {
-        if (!this.companyRepository.existsById(companyId)) {
+        return getCompanyEmployees(companyId, FieldSelection.ALL);
+    }
+
+    public List<Employee> getCompanyEmployees(String companyId, FieldSelection employeeFields) {
+        try (Stream<Employee> employees = streamCompanyEmployees(companyId, employeeFields)) {
+            return employees.collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Checks the company and reads its employees in one aggregation; the 404 is decided once the first cursor batch
+     * is back, before anything is written. The stream holds the cursor open and must be closed.
+     */
+    public Stream<Employee> streamCompanyEmployees(String companyId, FieldSelection employeeFields) {
+        if (!this.existenceIndex.mightContainCompany(companyId)) {
+            throw new CompanyNotFoundException(companyId);
+        }
+
+        return this.companyRepository.streamEmployees(companyId, employeeFields)
+            .orElseThrow(() -> new CompanyNotFoundException(companyId));
+    }
+
+    /**
+     * Pages through the employees of a company in id order over the {@code companyId_id} index. Employees can outlive
+     * their company, so every page checks the company by id before reading them.
+     */
+    public CursorPage<Employee> getCompanyEmployeesAfter(String companyId, String after, int limit, FieldSelection employeeFields) {
+        Cursors.checkLimit(limit);
+        if (!this.existenceIndex.mightContainCompany(companyId) || !this.companyRepository.existsById(companyId)) {
+            throw new CompanyNotFoundException(companyId);
+        }
+
+        Criteria criteria = where("companyId").is(companyId);
+        if (after != null) {
+            criteria = criteria.and("id").gt(Cursors.decode(after));
+        }
+        List<Employee> employees = this.employeeRepository.findProjected(
+            new Query(criteria).with(Sort.by("id")).limit(limit + 1), employeeFields);
+
+        return CursorPage.of(employees, limit, Employee::getId);
+    }
+
+    public CompanyStats getStats(String companyId) {
+        if (!this.existenceIndex.mightContainCompany(companyId) || !this.companyRepository.existsById(companyId)) {
             throw new CompanyNotFoundException(companyId);
         }
 
-        return this.employeeRepository.findAllByCompanyId(companyId);
+        return this.employeeRepository.aggregateCompanyStats(Collections.singletonList(companyId)).stream()
+            .findFirst()
+            .orElseGet(() -> CompanyStats.empty(companyId));
+    }
+
+    public List<CompanyStats> getStats(List<String> companyIds) {
+        if (companyIds == null) {
+            return this.employeeRepository.aggregateCompanyStats(null);
+        }
+
+        Map<String, CompanyStats> stats = this.employeeRepository.aggregateCompanyStats(companyIds).stream()
+            .collect(Collectors.toMap(CompanyStats::getCompanyId, Function.identity()));
+        return companyIds.stream()
+            .distinct()
+            .map(companyId -> stats.getOrDefault(companyId, CompanyStats.empty(companyId)))
+            .collect(Collectors.toList());
+    }
+
+    public BatchResult createAll(Iterator<Company> newCompanies, boolean ordered) {
+        Iterator<Company> withoutEmployees = new Iterator<Company>() {
+            @Override
+            public boolean hasNext() {
+                return newCompanies.hasNext();
+            }
+
+            @Override
+            public Company next() {
+                Company company = newCompanies.next();
+                company.setEmployeesNumber(0);
+                return company;
+            }
+        };
+        return this.bulkInserter.insertAll(withoutEmployees, Company.class, Company::getCompanyId, Company::setCompanyId, ordered, stored -> stored.stream()
+            .map(Company::getCompanyId)
+            .forEach(this.existenceIndex::addCompany));
     }
 
     public Company create(Company newCompany) {
-        return this.companyRepository.insert(newCompany);
+        newCompany.setEmployeesNumber(0);
+        Company createdCompany = this.companyRepository.insert(newCompany);
+        this.existenceIndex.addCompany(createdCompany.getCompanyId());
+
+        return createdCompany;
     }
 
     public Company update(String companyId, Company companyUpdate) {
-        if (!this.companyRepository.existsById(companyId)) {
+        if (!this.existenceIndex.mightContainCompany(companyId)) {
             throw new CompanyNotFoundException(companyId);
         }
 
-        companyUpdate.setCompanyId(companyId);
-        return this.companyRepository.save(companyUpdate);
+        return this.companyRepository.updateDetails(companyId, companyUpdate)
+            .orElseThrow(() -> new CompanyNotFoundException(companyId));
+    }
+
+    public Company patch(String companyId, Company companyPatch) {
+        if (!this.existenceIndex.mightContainCompany(companyId)) {
+            throw new CompanyNotFoundException(companyId);
+        }
+
+        return this.companyRepository.patchDetails(companyId, companyPatch)
+            .orElseThrow(() -> new CompanyNotFoundException(companyId));
+    }
+
+    /**
+     * Repairs {@code employeesNumber} counters that drifted before they were kept by atomic increments.
+     */
+    public BulkUpdateResult recountEmployeesNumbers() {
+        return this.companyRepository.recountEmployeesNumbers();
     }
 
     public void delete(String companyId) {
+        delete(companyId, EmployeeCascade.KEEP);
+    }
+
+    /**
+     * Deletes the company and, unless told to keep them, deletes or detaches all of its employees with one
+     * {@code deleteMany} or {@code updateMany}. Employees left behind by a failure in between are picked up by the opt-in
+     * {@link com.thoughtworks.springbootemployee.orphans.OrphanEmployeeSweeper}.
+     */
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, allEntries = true, condition = "#employees.name() != 'KEEP'")
+    public void delete(String companyId, EmployeeCascade employees) {
         this.companyRepository.deleteById(companyId);
+
+        Query companyEmployees = new Query(where("companyId").is(companyId));
+        if (employees == EmployeeCascade.DELETE) {
+            this.employeeRepository.deleteMatching(companyEmployees);
+        } else if (employees == EmployeeCascade.DETACH) {
+            this.employeeRepository.detachFromCompany(companyEmployees);
+        }
     }
 }
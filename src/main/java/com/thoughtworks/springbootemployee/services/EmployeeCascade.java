@@ -0,0 +1,21 @@
+package com.thoughtworks.springbootemployee.services;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * What happens to the employees of a company that is deleted: they are kept as they are, detached by unsetting their
+ * company id, or deleted with it.
+ */
+public enum EmployeeCascade {
+    KEEP,
+    DETACH,
+    DELETE;
+
+    public static EmployeeCascade from(String value) {
+        return Arrays.stream(values())
+            .filter(cascade -> cascade.name().equals(value.toUpperCase(Locale.ROOT)))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException(String.format("Unsupported employees cascade: %s", value)));
+    }
+}
@@ -1,34 +1,212 @@
 package com.thoughtworks.springbootemployee.services;
 
+import com.thoughtworks.springbootemployee.batch.BatchResult;
+import com.thoughtworks.springbootemployee.batch.BulkInserter;
+import com.thoughtworks.springbootemployee.batch.BulkUpdateResult;
+import com.thoughtworks.springbootemployee.batch.LookupBatcher;
+import com.thoughtworks.springbootemployee.coalescing.SingleFlight;
+import com.thoughtworks.springbootemployee.config.CacheConfig;
 import com.thoughtworks.springbootemployee.entity.Employee;
 import com.thoughtworks.springbootemployee.exceptions.EmployeeNotFoundException;
+import com.thoughtworks.springbootemployee.existence.ExistenceIndex;
+import com.thoughtworks.springbootemployee.filter.EmployeeFilter;
+import com.thoughtworks.springbootemployee.pagination.CachedCount;
+import com.thoughtworks.springbootemployee.pagination.CountedPage;
+import com.thoughtworks.springbootemployee.pagination.CursorPage;
+import com.thoughtworks.springbootemployee.pagination.Cursors;
+import com.thoughtworks.springbootemployee.pagination.TotalCount;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+import com.thoughtworks.springbootemployee.repository.CompanyRepository;
 import com.thoughtworks.springbootemployee.repository.EmployeeRepository;
+import com.thoughtworks.springbootemployee.repository.Patched;
+import com.thoughtworks.springbootemployee.search.NameTokens;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.repository.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
 
 @Service
 public class EmployeeService {
+    private static final Duration CACHED_TOTAL_TTL = Duration.ofSeconds(30);
+    private static final int MAX_SEARCH_LIMIT = 50;
+    private static final int SEARCH_CANDIDATES = 200;
+    private static final int MAX_LOOKUP_IDS = 1000;
+
     private final EmployeeRepository employeeRepository;
+    private final CompanyRepository companyRepository;
+    private final BulkInserter bulkInserter;
+    private final ExistenceIndex existenceIndex;
+    private final CachedCount cachedTotal;
+    private final LookupBatcher<String, Employee> lookupBatcher;
+    private final SingleFlight<String, Employee> readFlight = new SingleFlight<>("employees");
 
-    public EmployeeService(EmployeeRepository employeeRepository) {
+    public EmployeeService(EmployeeRepository employeeRepository, CompanyRepository companyRepository, BulkInserter bulkInserter, ExistenceIndex existenceIndex,
+                           @Value("${app.employee-lookup.batch-window:PT0S}") Duration lookupBatchWindow) {
         this.employeeRepository = employeeRepository;
+        this.companyRepository = companyRepository;
+        this.bulkInserter = bulkInserter;
+        this.existenceIndex = existenceIndex;
+        this.cachedTotal = new CachedCount(CACHED_TOTAL_TTL, employeeRepository::count);
+        this.lookupBatcher = lookupBatchWindow == null || lookupBatchWindow.isZero()
+            ? null
+            : new LookupBatcher<>(this::findAllById, lookupBatchWindow, MAX_LOOKUP_IDS);
     }
 
     public List<Employee> getAll() {
         return this.employeeRepository.findAll();
     }
 
+    public List<Employee> getAll(FieldSelection fields) {
+        if (fields.isAll()) {
+            return getAll();
+        }
+
+        return this.employeeRepository.findProjected(new Query(), fields);
+    }
+
+    /**
+     * Filters and sorts in Mongo; without either it is the plain {@link #getAll(FieldSelection)}. Sorts end on the id
+     * as a tiebreaker, which the compound indexes do not carry, so apart from id order (over {@code _id}, or
+     * {@code companyId_id} under a lone {@code companyId} filter) the matches are sorted in memory and the query fails
+     * past MongoDB's 32MB sort limit. Large sorted lists are paged with {@code page} and {@code pageSize}, which only
+     * keep the top {@code page * pageSize} matches.
+     */
+    public List<Employee> getAll(EmployeeFilter filter, Sort sort, FieldSelection fields) {
+        if (filter.isEmpty() && sort.isUnsorted()) {
+            return getAll(fields);
+        }
+
+        return this.employeeRepository.findProjected(filter.toQuery().with(sort), fields);
+    }
+
+    public Stream<Employee> streamAll() {
+        return this.employeeRepository.streamAllBy();
+    }
+
+    public BatchResult createAll(Iterator<Employee> newEmployees, boolean ordered) {
+        return this.bulkInserter.insertAll(newEmployees, Employee.class, Employee::getId, Employee::setId, ordered, stored -> {
+            stored.stream()
+                .map(Employee::getId)
+                .forEach(this.existenceIndex::addEmployee);
+            this.companyRepository.incrementEmployeesNumbers(stored.stream()
+                .map(Employee::getCompanyId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(companyId -> companyId, Collectors.summingInt(companyId -> 1))));
+        });
+    }
+
     public Employee create(Employee newEmployee) {
-        return this.employeeRepository.insert(newEmployee);
+        Employee createdEmployee = this.employeeRepository.insert(newEmployee);
+        this.existenceIndex.addEmployee(createdEmployee.getId());
+        if (createdEmployee.getCompanyId() != null) {
+            this.companyRepository.incrementEmployeesNumber(createdEmployee.getCompanyId(), 1);
+        }
+
+        return createdEmployee;
     }
 
+    @Cacheable(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#employeeId")
     public Employee getOneById(String employeeId) {
+        if (!this.existenceIndex.mightContainEmployee(employeeId)) {
+            throw new EmployeeNotFoundException(String.format("Employee with id:%s not found", employeeId));
+        }
+
+        return this.readFlight.load(employeeId, () -> {
+            Optional<Employee> employee = this.lookupBatcher == null
+                ? this.employeeRepository.findById(employeeId)
+                : Optional.ofNullable(this.lookupBatcher.get(normalizeId(employeeId)));
+
+            return employee.orElseThrow(() -> new EmployeeNotFoundException(String.format("Employee with id:%s not found", employeeId)));
+        });
+    }
+
+    /**
+     * Coalesces concurrent cache misses of {@link #getOneById(String)} for the same id into one load.
+     */
+    public SingleFlight<String, Employee> getReadFlight() {
+        return readFlight;
+    }
+
+    /**
+     * Reads the employees of the given ids with one {@code $in} query, in the order of the ids. Unknown ids are left
+     * out rather than failing the lookup.
+     */
+    public List<Employee> getAllByIds(List<String> ids, FieldSelection fields) {
+        List<String> candidates = ids.stream()
+            .map(String::trim)
+            .filter(id -> !id.isEmpty())
+            .map(EmployeeService::normalizeId)
+            .distinct()
+            .collect(Collectors.toList());
+        if (candidates.isEmpty() || candidates.size() > MAX_LOOKUP_IDS) {
+            throw new IllegalArgumentException(String.format("Ids must be between 1 and %d", MAX_LOOKUP_IDS));
+        }
+        candidates.removeIf(id -> !this.existenceIndex.mightContainEmployee(id));
+        if (candidates.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<String, Employee> found = fields.isAll()
+            ? findAllById(candidates)
+            : this.employeeRepository.findProjected(new Query(where("id").in(candidates)), fields).stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+
+        return candidates.stream()
+            .map(found::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Reads only the selected fields and bypasses the employees cache, so a partial document never gets cached.
+     */
+    public Employee getOneById(String employeeId, FieldSelection fields) {
+        if (!this.existenceIndex.mightContainEmployee(employeeId)) {
+            throw new EmployeeNotFoundException(String.format("Employee with id:%s not found", employeeId));
+        }
+
         return this.employeeRepository
-            .findById(employeeId)
+            .findProjectedById(employeeId, fields)
+            .orElseThrow(() -> new EmployeeNotFoundException(String.format("Employee with id:%s not found", employeeId)));
+    }
+
+    /**
+     * Reads only the version of the employee, enough to answer a conditional GET without loading the document.
+     */
+    public long getVersion(String employeeId) {
+        if (!this.existenceIndex.mightContainEmployee(employeeId)) {
+            throw new EmployeeNotFoundException(String.format("Employee with id:%s not found", employeeId));
+        }
+
+        return this.employeeRepository.findVersionById(employeeId)
             .orElseThrow(() -> new EmployeeNotFoundException(String.format("Employee with id:%s not found", employeeId)));
     }
 
@@ -37,20 +215,272 @@ public class EmployeeService {
     }
 
     public Page<Employee> getAllPaginated(int page, int pageSize) {
-        Pageable pageable = PageRequest.of(page - 1, pageSize);
+        Pageable pageable = PageRequest.of(page - 1, pageSize, Sort.by("id"));
         return this.employeeRepository.findAll(pageable);
     }
 
+    public Page<Employee> getAllPaginated(int page, int pageSize, FieldSelection fields) {
+        if (fields.isAll()) {
+            return getAllPaginated(page, pageSize);
+        }
+
+        Pageable pageable = PageRequest.of(page - 1, pageSize, Sort.by("id"));
+        List<Employee> employees = this.employeeRepository.findProjected(new Query().with(pageable), fields);
+        return PageableExecutionUtils.getPage(employees, pageable, this.employeeRepository::count);
+    }
+
+    public Page<Employee> getAllPaginated(int page, int pageSize, EmployeeFilter filter, Sort sort, FieldSelection fields) {
+        if (filter.isEmpty() && sort.isUnsorted()) {
+            return getAllPaginated(page, pageSize, fields);
+        }
+
+        Pageable pageable = PageRequest.of(page - 1, pageSize, orderOrId(sort));
+        Query query = filter.toQuery();
+        List<Employee> employees = this.employeeRepository.findProjected(Query.of(query).with(pageable), fields);
+        return PageableExecutionUtils.getPage(employees, pageable, () -> this.employeeRepository.countMatching(query));
+    }
+
+    public Slice<Employee> getSlice(int page, int pageSize) {
+        return this.employeeRepository.findSliceBy(PageRequest.of(page - 1, pageSize, Sort.by("id")));
+    }
+
+    public Slice<Employee> getSlice(int page, int pageSize, FieldSelection fields) {
+        if (fields.isAll()) {
+            return getSlice(page, pageSize);
+        }
+
+        Pageable pageable = PageRequest.of(page - 1, pageSize, Sort.by("id"));
+        List<Employee> employees = this.employeeRepository.findProjected(new Query().with(pageable).limit(pageSize + 1), fields);
+        boolean hasNext = employees.size() > pageSize;
+        return new SliceImpl<>(hasNext ? employees.subList(0, pageSize) : employees, pageable, hasNext);
+    }
+
+    public Slice<Employee> getSlice(int page, int pageSize, EmployeeFilter filter, Sort sort, FieldSelection fields) {
+        if (filter.isEmpty() && sort.isUnsorted()) {
+            return getSlice(page, pageSize, fields);
+        }
+
+        Pageable pageable = PageRequest.of(page - 1, pageSize, orderOrId(sort));
+        List<Employee> employees = this.employeeRepository.findProjected(filter.toQuery().with(pageable).limit(pageSize + 1), fields);
+        boolean hasNext = employees.size() > pageSize;
+        return new SliceImpl<>(hasNext ? employees.subList(0, pageSize) : employees, pageable, hasNext);
+    }
+
+    public CountedPage<Employee> getAllPaginated(int page, int pageSize, TotalCount totalCount) {
+        Slice<Employee> slice = getSlice(page, pageSize);
+
+        return CountedPage.of(slice, total(totalCount));
+    }
+
+    public CountedPage<Employee> getAllPaginated(int page, int pageSize, TotalCount totalCount, FieldSelection fields) {
+        Slice<Employee> slice = getSlice(page, pageSize, fields);
+
+        return CountedPage.of(slice, total(totalCount));
+    }
+
+    /**
+     * The estimated and cached totals describe the whole collection, so a filtered page is always counted exactly.
+     */
+    public CountedPage<Employee> getAllPaginated(int page, int pageSize, TotalCount totalCount, EmployeeFilter filter, Sort sort, FieldSelection fields) {
+        Slice<Employee> slice = getSlice(page, pageSize, filter, sort, fields);
+        CachedCount.Total total = filter.isEmpty()
+            ? total(totalCount)
+            : new CachedCount.Total(this.employeeRepository.countMatching(filter.toQuery()), true);
+
+        return CountedPage.of(slice, total);
+    }
+
+    private CachedCount.Total total(TotalCount totalCount) {
+        switch (totalCount) {
+            case ESTIMATED:
+                return new CachedCount.Total(this.employeeRepository.estimatedCount(), false);
+            case CACHED:
+                return this.cachedTotal.get();
+            default:
+                return new CachedCount.Total(this.employeeRepository.count(), true);
+        }
+    }
+
+    public CursorPage<Employee> getAllAfter(String after, int limit) {
+        Cursors.checkLimit(limit);
+        Pageable pageable = PageRequest.of(0, limit + 1, Sort.by("id"));
+        List<Employee> employees = after == null
+            ? this.employeeRepository.findAllBy(pageable)
+            : this.employeeRepository.findAllByIdGreaterThan(Cursors.decode(after), pageable);
+
+        return CursorPage.of(employees, limit, Employee::getId);
+    }
+
+    public CursorPage<Employee> getAllAfter(String after, int limit, FieldSelection fields) {
+        if (fields.isAll()) {
+            return getAllAfter(after, limit);
+        }
+
+        Cursors.checkLimit(limit);
+        Query query = after == null
+            ? new Query()
+            : new Query(where("id").gt(Cursors.decode(after)));
+        List<Employee> employees = this.employeeRepository.findProjected(query.with(Sort.by("id")).limit(limit + 1), fields);
+
+        return CursorPage.of(employees, limit, Employee::getId);
+    }
+
+    /**
+     * Pages in id order, which the cursor depends on, so any other sort is rejected. Only a lone {@code companyId}
+     * filter walks an index in id order ({@code companyId_id}); other filters either walk {@code _id} and test every
+     * document, or sort their matches in memory keeping just the first {@code limit + 1}.
+     */
+    public CursorPage<Employee> getAllAfter(String after, int limit, EmployeeFilter filter, Sort sort, FieldSelection fields) {
+        if (sort.isSorted()) {
+            throw new IllegalArgumentException("Sort is not supported with limit, cursor pages are ordered by id");
+        }
+        if (filter.isEmpty()) {
+            return getAllAfter(after, limit, fields);
+        }
+
+        Cursors.checkLimit(limit);
+        Criteria criteria = filter.toCriteria();
+        if (after != null) {
+            criteria = criteria.and("id").gt(Cursors.decode(after));
+        }
+        List<Employee> employees = this.employeeRepository.findProjected(new Query(criteria).with(Sort.by("id")).limit(limit + 1), fields);
+
+        return CursorPage.of(employees, limit, Employee::getId);
+    }
+
+    /**
+     * Matches employees whose name tokens start with every token of the query. Names that start with the whole query
+     * rank first, then names holding one of the query tokens exactly, then the other prefix matches; shorter names
+     * lead within a rank. Only the first {@value #SEARCH_CANDIDATES} matches are ranked.
+     */
+    public List<Employee> search(String query, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException(String.format("Limit must be between 1 and %d", MAX_SEARCH_LIMIT));
+        }
+        List<String> tokens = NameTokens.of(query);
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain a letter or digit");
+        }
+
+        String normalizedQuery = NameTokens.normalize(query);
+        Map<Employee, Integer> ranks = new IdentityHashMap<>();
+        this.employeeRepository.findByNameTokenPrefixes(tokens, SEARCH_CANDIDATES)
+            .forEach(employee -> ranks.put(employee, rank(employee.getName(), normalizedQuery, tokens)));
+
+        return ranks.keySet().stream()
+            .sorted(Comparator.<Employee>comparingInt(ranks::get)
+                .thenComparingInt(employee -> employee.getName().length())
+                .thenComparing(Employee::getName, String.CASE_INSENSITIVE_ORDER)
+                .thenComparing(Employee::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+
+    @CachePut(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#employeeId")
     public Employee update(String employeeId, Employee newEmployee) {
-        if (!this.employeeRepository.existsById(employeeId)) {
+        if (!this.existenceIndex.mightContainEmployee(employeeId)) {
             throw new EmployeeNotFoundException(String.format("Employee with id:%s not found", employeeId));
         }
+        Patched<Employee> replaced = this.employeeRepository.replaceById(employeeId, newEmployee)
+            .orElseThrow(() -> new EmployeeNotFoundException(String.format("Employee with id:%s not found", employeeId)));
+        moveEmployeesNumber(replaced.getBefore().getCompanyId(), replaced.getAfter().getCompanyId());
 
-        newEmployee.setId(employeeId);
-        return this.employeeRepository.save(newEmployee);
+        return replaced.getAfter();
     }
 
+    /**
+     * Writes only the fields the patch carries, in one round trip; a missing employee shows up as no document matched.
+     */
+    @CachePut(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#employeeId")
+    public Employee patch(String employeeId, Employee patch) {
+        if (!this.existenceIndex.mightContainEmployee(employeeId)) {
+            throw new EmployeeNotFoundException(String.format("Employee with id:%s not found", employeeId));
+        }
+        Patched<Employee> patched = this.employeeRepository.patchById(employeeId, patch)
+            .orElseThrow(() -> new EmployeeNotFoundException(String.format("Employee with id:%s not found", employeeId)));
+        moveEmployeesNumber(patched.getBefore().getCompanyId(), patched.getAfter().getCompanyId());
+
+        return patched.getAfter();
+    }
+
+    /**
+     * Raises (or cuts) the salary of every employee matching the filter by a percentage and/or a fixed amount in one
+     * server-side update. Employees without a salary are left out, and salaries that would fall below zero or beyond
+     * the int range are clamped. Cached employees may be stale afterwards, so the whole cache is dropped.
+     */
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, allEntries = true)
+    public BulkUpdateResult adjustSalaries(EmployeeFilter filter, Double percent, Integer amount) {
+        if (percent == null && amount == null) {
+            throw new IllegalArgumentException("Salary adjustment needs a percent or an amount");
+        }
+        if (percent != null && (percent.isNaN() || percent.isInfinite() || percent <= -100)) {
+            throw new IllegalArgumentException(String.format("Invalid salary percent: %s", percent));
+        }
+
+        Criteria criteria = filter.isEmpty() ? new Criteria() : filter.toCriteria();
+        if (filter.getMinSalary() == null && filter.getMaxSalary() == null) {
+            criteria = criteria.and("salary").ne(null);
+        }
+        double factor = percent == null ? 1 : 1 + percent / 100;
+
+        return this.employeeRepository.adjustSalaries(new Query(criteria), factor, amount == null ? 0 : amount);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#employeeId")
     public void delete(String employeeId) {
-        this.employeeRepository.deleteById(employeeId);
+        this.employeeRepository.findAndRemoveById(employeeId)
+            .map(Employee::getCompanyId)
+            .ifPresent(companyId -> this.companyRepository.incrementEmployeesNumber(companyId, -1));
+    }
+
+    /**
+     * Loads a batch of single-id lookups; a batch of one, the usual case without concurrent lookups, stays a plain
+     * {@code findById}.
+     */
+    private Map<String, Employee> findAllById(Collection<String> ids) {
+        if (ids.size() == 1) {
+            String id = ids.iterator().next();
+            return this.employeeRepository.findById(id)
+                .map(employee -> Collections.singletonMap(id, employee))
+                .orElse(Collections.emptyMap());
+        }
+
+        Map<String, Employee> employees = new HashMap<>();
+        this.employeeRepository.findAllById(ids).forEach(employee -> employees.put(employee.getId(), employee));
+        return employees;
+    }
+
+    /**
+     * Loaded employees are matched back to the requested ids by {@link Employee#getId()}, which Mongo renders in lower
+     * case; an id given in upper case hex is the same document and is mapped onto that form first.
+     */
+    private static String normalizeId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id).toHexString() : id;
+    }
+
+    private static int rank(String name, String normalizedQuery, List<String> queryTokens) {
+        if (NameTokens.normalize(name).startsWith(normalizedQuery)) {
+            return 0;
+        }
+
+        List<String> nameTokens = NameTokens.of(name);
+        return queryTokens.stream().anyMatch(nameTokens::contains) ? 1 : 2;
+    }
+
+    private static Sort orderOrId(Sort sort) {
+        return sort.isSorted() ? sort : Sort.by("id");
+    }
+
+    private void moveEmployeesNumber(String fromCompanyId, String toCompanyId) {
+        if (Objects.equals(fromCompanyId, toCompanyId)) {
+            return;
+        }
+
+        if (fromCompanyId != null) {
+            this.companyRepository.incrementEmployeesNumber(fromCompanyId, -1);
+        }
+        if (toCompanyId != null) {
+            this.companyRepository.incrementEmployeesNumber(toCompanyId, 1);
+        }
     }
 }
@@ -0,0 +1,118 @@
+package com.thoughtworks.springbootemployee.services.reactive;
+
+import com.thoughtworks.springbootemployee.entity.Company;
+import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.exceptions.CompanyNotFoundException;
+import com.thoughtworks.springbootemployee.pagination.CachedCount;
+import com.thoughtworks.springbootemployee.pagination.CountedPage;
+import com.thoughtworks.springbootemployee.pagination.CursorPage;
+import com.thoughtworks.springbootemployee.pagination.Cursors;
+import com.thoughtworks.springbootemployee.pagination.ReactiveCachedCount;
+import com.thoughtworks.springbootemployee.pagination.TotalCount;
+import com.thoughtworks.springbootemployee.repository.reactive.ReactiveCompanyRepository;
+import com.thoughtworks.springbootemployee.repository.reactive.ReactiveEmployeeRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+@Service
+@Profile("reactive")
+public class ReactiveCompanyService {
+    private static final Duration CACHED_TOTAL_TTL = Duration.ofSeconds(30);
+    private static final Sort BY_ID = Sort.by("companyId");
+
+    private final ReactiveCompanyRepository companyRepository;
+    private final ReactiveEmployeeRepository employeeRepository;
+    private final ReactiveCachedCount cachedTotal;
+
+    public ReactiveCompanyService(ReactiveCompanyRepository companyRepository, ReactiveEmployeeRepository employeeRepository) {
+        this.companyRepository = companyRepository;
+        this.employeeRepository = employeeRepository;
+        this.cachedTotal = new ReactiveCachedCount(CACHED_TOTAL_TTL, companyRepository::count);
+    }
+
+    public Flux<Company> getAll() {
+        return this.companyRepository.findAll();
+    }
+
+    public Mono<Page<Company>> getAllPaginated(int page, int pageSize) {
+        Pageable pageable = PageRequest.of(page - 1, pageSize, BY_ID);
+
+        return this.companyRepository.findAllBy(pageable).collectList()
+            .zipWith(this.companyRepository.count(), (companies, total) -> new PageImpl<>(companies, pageable, total));
+    }
+
+    public Mono<Slice<Company>> getSlice(int page, int pageSize) {
+        Pageable pageable = PageRequest.of(page - 1, pageSize, BY_ID);
+        Mono<Boolean> hasNext = this.companyRepository.findAllBy(PageRequest.of(page * pageSize, 1, BY_ID)).hasElements();
+
+        return this.companyRepository.findAllBy(pageable).collectList()
+            .zipWith(hasNext, (companies, next) -> new SliceImpl<>(companies, pageable, next));
+    }
+
+    public Mono<CountedPage<Company>> getAllPaginated(int page, int pageSize, TotalCount totalCount) {
+        return getSlice(page, pageSize)
+            .zipWith(total(totalCount), CountedPage::of);
+    }
+
+    private Mono<CachedCount.Total> total(TotalCount totalCount) {
+        switch (totalCount) {
+            case ESTIMATED:
+                return this.companyRepository.estimatedCount().map(total -> new CachedCount.Total(total, false));
+            case CACHED:
+                return this.cachedTotal.get();
+            default:
+                return this.companyRepository.count().map(total -> new CachedCount.Total(total, true));
+        }
+    }
+
+    public Mono<CursorPage<Company>> getAllAfter(String after, int limit) {
+        return Mono.defer(() -> {
+            Cursors.checkLimit(limit);
+            Pageable pageable = PageRequest.of(0, limit + 1, BY_ID);
+            Flux<Company> companies = after == null
+                ? this.companyRepository.findAllBy(pageable)
+                : this.companyRepository.findAllByCompanyIdGreaterThan(Cursors.decode(after), pageable);
+
+            return companies.collectList()
+                .map(fetched -> CursorPage.of(fetched, limit, Company::getCompanyId));
+        });
+    }
+
+    public Mono<Company> getOne(String companyId) {
+        return this.companyRepository.findById(companyId)
+            .switchIfEmpty(Mono.error(() -> new CompanyNotFoundException(companyId)));
+    }
+
+    public Flux<Employee> getCompanyEmployees(String companyId) {
+        return this.companyRepository.existsById(companyId)
+            .flatMapMany(exists -> exists
+                ? this.employeeRepository.findAllByCompanyId(companyId)
+                : Flux.error(new CompanyNotFoundException(companyId)));
+    }
+
+    public Mono<Company> create(Company newCompany) {
+        newCompany.setEmployeesNumber(0);
+
+        return this.companyRepository.insert(newCompany);
+    }
+
+    public Mono<Company> update(String companyId, Company companyUpdate) {
+        return this.companyRepository.updateDetails(companyId, companyUpdate)
+            .switchIfEmpty(Mono.error(() -> new CompanyNotFoundException(companyId)));
+    }
+
+    public Mono<Void> delete(String companyId) {
+        return this.companyRepository.deleteById(companyId);
+    }
+}
@@ -0,0 +1,132 @@
+package com.thoughtworks.springbootemployee.services.reactive;
+
+import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.exceptions.EmployeeNotFoundException;
+import com.thoughtworks.springbootemployee.pagination.CachedCount;
+import com.thoughtworks.springbootemployee.pagination.CountedPage;
+import com.thoughtworks.springbootemployee.pagination.CursorPage;
+import com.thoughtworks.springbootemployee.pagination.Cursors;
+import com.thoughtworks.springbootemployee.pagination.ReactiveCachedCount;
+import com.thoughtworks.springbootemployee.pagination.TotalCount;
+import com.thoughtworks.springbootemployee.repository.reactive.ReactiveCompanyRepository;
+import com.thoughtworks.springbootemployee.repository.reactive.ReactiveEmployeeRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Objects;
+
+@Service
+@Profile("reactive")
+public class ReactiveEmployeeService {
+    private static final Duration CACHED_TOTAL_TTL = Duration.ofSeconds(30);
+    private static final Sort BY_ID = Sort.by("id");
+
+    private final ReactiveEmployeeRepository employeeRepository;
+    private final ReactiveCompanyRepository companyRepository;
+    private final ReactiveCachedCount cachedTotal;
+
+    public ReactiveEmployeeService(ReactiveEmployeeRepository employeeRepository, ReactiveCompanyRepository companyRepository) {
+        this.employeeRepository = employeeRepository;
+        this.companyRepository = companyRepository;
+        this.cachedTotal = new ReactiveCachedCount(CACHED_TOTAL_TTL, employeeRepository::count);
+    }
+
+    public Flux<Employee> getAll() {
+        return this.employeeRepository.findAll();
+    }
+
+    public Mono<Employee> create(Employee newEmployee) {
+        return this.employeeRepository.insert(newEmployee)
+            .flatMap(createdEmployee -> incrementEmployeesNumber(createdEmployee.getCompanyId(), 1).thenReturn(createdEmployee));
+    }
+
+    public Mono<Employee> getOneById(String employeeId) {
+        return this.employeeRepository.findById(employeeId)
+            .switchIfEmpty(Mono.error(() -> new EmployeeNotFoundException(String.format("Employee with id:%s not found", employeeId))));
+    }
+
+    public Flux<Employee> getAllByGender(String gender) {
+        return this.employeeRepository.findAllByGender(gender);
+    }
+
+    public Mono<Page<Employee>> getAllPaginated(int page, int pageSize) {
+        Pageable pageable = PageRequest.of(page - 1, pageSize, BY_ID);
+
+        return this.employeeRepository.findAllBy(pageable).collectList()
+            .zipWith(this.employeeRepository.count(), (employees, total) -> new PageImpl<>(employees, pageable, total));
+    }
+
+    public Mono<Slice<Employee>> getSlice(int page, int pageSize) {
+        Pageable pageable = PageRequest.of(page - 1, pageSize, BY_ID);
+        Mono<Boolean> hasNext = this.employeeRepository.findAllBy(PageRequest.of(page * pageSize, 1, BY_ID)).hasElements();
+
+        return this.employeeRepository.findAllBy(pageable).collectList()
+            .zipWith(hasNext, (employees, next) -> new SliceImpl<>(employees, pageable, next));
+    }
+
+    public Mono<CountedPage<Employee>> getAllPaginated(int page, int pageSize, TotalCount totalCount) {
+        return getSlice(page, pageSize)
+            .zipWith(total(totalCount), CountedPage::of);
+    }
+
+    private Mono<CachedCount.Total> total(TotalCount totalCount) {
+        switch (totalCount) {
+            case ESTIMATED:
+                return this.employeeRepository.estimatedCount().map(total -> new CachedCount.Total(total, false));
+            case CACHED:
+                return this.cachedTotal.get();
+            default:
+                return this.employeeRepository.count().map(total -> new CachedCount.Total(total, true));
+        }
+    }
+
+    public Mono<CursorPage<Employee>> getAllAfter(String after, int limit) {
+        return Mono.defer(() -> {
+            Cursors.checkLimit(limit);
+            Pageable pageable = PageRequest.of(0, limit + 1, BY_ID);
+            Flux<Employee> employees = after == null
+                ? this.employeeRepository.findAllBy(pageable)
+                : this.employeeRepository.findAllByIdGreaterThan(Cursors.decode(after), pageable);
+
+            return employees.collectList()
+                .map(fetched -> CursorPage.of(fetched, limit, Employee::getId));
+        });
+    }
+
+    public Mono<Employee> update(String employeeId, Employee newEmployee) {
+        return this.employeeRepository.replaceById(employeeId, newEmployee)
+            .switchIfEmpty(Mono.error(() -> new EmployeeNotFoundException(String.format("Employee with id:%s not found", employeeId))))
+            .flatMap(replaced -> moveEmployeesNumber(replaced.getBefore().getCompanyId(), replaced.getAfter().getCompanyId())
+                .thenReturn(replaced.getAfter()));
+    }
+
+    public Mono<Void> delete(String employeeId) {
+        return this.employeeRepository.findAndRemoveById(employeeId)
+            .flatMap(removedEmployee -> incrementEmployeesNumber(removedEmployee.getCompanyId(), -1));
+    }
+
+    private Mono<Void> moveEmployeesNumber(String fromCompanyId, String toCompanyId) {
+        if (Objects.equals(fromCompanyId, toCompanyId)) {
+            return Mono.empty();
+        }
+
+        return incrementEmployeesNumber(fromCompanyId, -1)
+            .then(incrementEmployeesNumber(toCompanyId, 1));
+    }
+
+    private Mono<Void> incrementEmployeesNumber(String companyId, int delta) {
+        return companyId == null
+            ? Mono.empty()
+            : this.companyRepository.incrementEmployeesNumber(companyId, delta);
+    }
+}
@@ -0,0 +1,46 @@
+package com.thoughtworks.springbootemployee.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a stream as one JSON array, element by element, so a list endpoint never holds more than the current cursor
+ * batch. The field selection is applied to every element as {@link FieldSelection#wrap} does for buffered bodies.
+ */
+@Component
+public class JsonArrayWriter {
+    private final ObjectMapper objectMapper;
+
+    public JsonArrayWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public <T, R> StreamingResponseBody write(Supplier<Stream<T>> source, Function<T, R> mapper, FieldSelection fields) {
+        return outputStream -> {
+            ObjectWriter writer = this.objectMapper.writer(fields.filters())
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+            try (JsonGenerator generator = this.objectMapper.getFactory().createGenerator(outputStream);
+                 Stream<T> stream = source.get()) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+
+                Iterator<T> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    writer.writeValue(generator, mapper.apply(iterator.next()));
+                }
+                generator.writeEndArray();
+            }
+        };
+    }
+}
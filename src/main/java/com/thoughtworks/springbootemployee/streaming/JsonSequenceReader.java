@@ -0,0 +1,21 @@
+package com.thoughtworks.springbootemployee.streaming;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@Component
+public class JsonSequenceReader {
+    private final ObjectMapper objectMapper;
+
+    public JsonSequenceReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public <T> MappingIterator<T> read(InputStream inputStream, Class<T> type) throws IOException {
+        return this.objectMapper.readerFor(type).readValues(inputStream);
+    }
+}
@@ -0,0 +1,43 @@
+package com.thoughtworks.springbootemployee.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+@Component
+public class NdjsonWriter {
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private final ObjectMapper objectMapper;
+
+    public NdjsonWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public <T, R> StreamingResponseBody write(Supplier<Stream<T>> source, Function<T, R> mapper) {
+        return outputStream -> {
+            ObjectWriter writer = this.objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+            try (JsonGenerator generator = this.objectMapper.getFactory().createGenerator(outputStream);
+                 Stream<T> stream = source.get()) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+
+                Iterator<T> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    writer.writeValue(generator, mapper.apply(iterator.next()));
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,124 @@
+package com.thoughtworks.springbootemployee.analytics;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EmployeeColumnsTest {
+    private static final EmployeeAnalyticsQuery EVERYONE = new EmployeeAnalyticsQuery(null, null, null, null, null, null);
+
+    @Test
+    void should_aggregate_matching_rows_when_aggregate_given_age_salary_gender_and_company_filters() {
+        //given
+        EmployeeColumns columns = new EmployeeColumns();
+        columns.upsert(new ObjectId().toHexString(), 20, 1000, "male", "company1");
+        columns.upsert(new ObjectId().toHexString(), 30, 3000, "male", "company1");
+        columns.upsert(new ObjectId().toHexString(), 40, 5000, "male", "company2");
+        columns.upsert(new ObjectId().toHexString(), 30, 4000, "female", "company1");
+
+        //when
+        EmployeeAggregate aggregate = columns.aggregate(new EmployeeAnalyticsQuery(25, 45, 2000, null, "male", "company1"));
+
+        //then
+        assertEquals(1, aggregate.getCount());
+        assertEquals(3000, aggregate.getSalarySum());
+        assertEquals(3000.0, aggregate.getSalaryAverage());
+        assertEquals(3000, aggregate.getSalaryMin());
+        assertEquals(3000, aggregate.getSalaryMax());
+        assertEquals(30.0, aggregate.getAgeAverage());
+    }
+
+    @Test
+    void should_overwrite_row_and_move_gender_bitmap_when_upsert_given_existing_id() {
+        //given
+        EmployeeColumns columns = new EmployeeColumns();
+        String id = new ObjectId().toHexString();
+        columns.upsert(id, 20, 1000, "male", "company1");
+
+        //when
+        columns.upsert(id, 21, 2000, "female", "company2");
+
+        //then
+        assertEquals(1, columns.size());
+        assertEquals(0, columns.aggregate(new EmployeeAnalyticsQuery(null, null, null, null, "male", null)).getCount());
+        EmployeeAggregate female = columns.aggregate(new EmployeeAnalyticsQuery(null, null, null, null, "female", "company2"));
+        assertEquals(1, female.getCount());
+        assertEquals(2000, female.getSalarySum());
+    }
+
+    @Test
+    void should_leave_row_out_of_aggregates_when_remove_given_existing_id() {
+        //given
+        EmployeeColumns columns = new EmployeeColumns();
+        String id = new ObjectId().toHexString();
+        columns.upsert(id, 20, 1000, "male", "company1");
+        columns.upsert(new ObjectId().toHexString(), 30, 3000, "male", "company1");
+
+        //when
+        columns.remove(id);
+
+        //then
+        EmployeeAggregate aggregate = columns.aggregate(EVERYONE);
+        assertEquals(1, aggregate.getCount());
+        assertEquals(3000, aggregate.getSalarySum());
+    }
+
+    @Test
+    void should_return_empty_aggregate_when_aggregate_given_unknown_gender_or_company() {
+        //given
+        EmployeeColumns columns = new EmployeeColumns();
+        columns.upsert(new ObjectId().toHexString(), 20, 1000, "male", "company1");
+
+        //when
+        EmployeeAggregate unknownGender = columns.aggregate(new EmployeeAnalyticsQuery(null, null, null, null, "other", null));
+        EmployeeAggregate unknownCompany = columns.aggregate(new EmployeeAnalyticsQuery(null, null, null, null, null, "company9"));
+
+        //then
+        assertEquals(0, unknownGender.getCount());
+        assertNull(unknownGender.getSalaryAverage());
+        assertEquals(0, unknownCompany.getCount());
+    }
+
+    @Test
+    void should_count_row_without_salary_but_exclude_it_from_salary_figures_when_aggregate_given_null_salary() {
+        //given
+        EmployeeColumns columns = new EmployeeColumns();
+        columns.upsert(new ObjectId().toHexString(), 20, null, null, null);
+        columns.upsert(new ObjectId().toHexString(), null, 1000, "male", null);
+
+        //when
+        EmployeeAggregate everyone = columns.aggregate(EVERYONE);
+        EmployeeAggregate ageFiltered = columns.aggregate(new EmployeeAnalyticsQuery(0, null, null, null, null, null));
+
+        //then
+        assertEquals(2, everyone.getCount());
+        assertEquals(1000.0, everyone.getSalaryAverage());
+        assertEquals(20.0, everyone.getAgeAverage());
+        assertEquals(1, ageFiltered.getCount());
+        assertNull(ageFiltered.getSalaryMin());
+    }
+
+    @Test
+    void should_keep_every_row_addressable_when_upsert_given_more_rows_than_initial_capacity() {
+        //given
+        EmployeeColumns columns = new EmployeeColumns(16);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            String id = new ObjectId().toHexString();
+            ids.add(id);
+            columns.upsert(id, 20 + i % 40, 1000 + i, i % 2 == 0 ? "male" : "female", "company" + i % 10);
+        }
+
+        //when
+        ids.subList(0, 5000).forEach(columns::remove);
+
+        //then
+        assertEquals(5000, columns.size());
+        assertEquals(2500, columns.aggregate(new EmployeeAnalyticsQuery(null, null, null, null, "male", null)).getCount());
+    }
+}
@@ -0,0 +1,80 @@
+package com.thoughtworks.springbootemployee.analytics;
+
+import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.repository.EmployeesModifiedEvent;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class EmployeeSnapshotTest {
+    private static final EmployeeAnalyticsQuery ALL = new EmployeeAnalyticsQuery(null, null, null, null, null, null);
+
+    private final CountDownLatch rebuildReleased = new CountDownLatch(1);
+    private EmployeeSnapshot employeeSnapshot;
+
+    @AfterEach
+    void tearDown() {
+        rebuildReleased.countDown();
+        employeeSnapshot.shutdown();
+    }
+
+    @Test
+    void should_answer_from_previous_columns_without_waiting_when_aggregate_given_snapshot_marked_stale_and_rebuild_running() {
+        //given
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class, RETURNS_DEEP_STUBS);
+        when(mongoTemplate.getCollectionName(Employee.class)).thenReturn("employee");
+        when(mongoTemplate.getCollection("employee").estimatedDocumentCount()).thenReturn(1L);
+        Employee employee = new Employee("5f0c2b6e1c9d440000a1b2c1", "Tom", 18, "male", 1000);
+        when(mongoTemplate.stream(any(Query.class), eq(Employee.class)))
+            .thenReturn(closeable(Collections.singletonList(employee).iterator(), null))
+            .thenReturn(closeable(Collections.singletonList(employee).iterator(), rebuildReleased));
+        employeeSnapshot = new EmployeeSnapshot(mongoTemplate);
+        employeeSnapshot.aggregate(ALL);
+        employeeSnapshot.onEmployeesModified(new EmployeesModifiedEvent(new Document("companyId", "1")));
+
+        //when
+        EmployeeAggregate actual = assertTimeoutPreemptively(Duration.ofSeconds(1), () -> employeeSnapshot.aggregate(ALL));
+
+        //then
+        assertEquals(1, actual.getCount());
+    }
+
+    private static CloseableIterator<Employee> closeable(Iterator<Employee> employees, CountDownLatch released) {
+        return new CloseableIterator<Employee>() {
+            @Override
+            public boolean hasNext() {
+                if (released != null) {
+                    try {
+                        released.await();
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return employees.hasNext();
+            }
+
+            @Override
+            public Employee next() {
+                return employees.next();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -0,0 +1,119 @@
+package com.thoughtworks.springbootemployee.batch;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.thoughtworks.springbootemployee.entity.Employee;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkInserterTest {
+    @InjectMocks
+    BulkInserter bulkInserter;
+
+    @Mock
+    MongoTemplate mongoTemplate;
+
+    @Mock
+    BulkOperations bulkOperations;
+
+    @Test
+    void should_assign_ids_and_report_every_item_inserted_when_insert_all_given_2_employees() {
+        //given
+        List<Employee> employees = Arrays.asList(new Employee("Tom", 18, "male", 1000), new Employee("Tom1", 19, "male", 1001));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Employee.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        List<Employee> stored = new ArrayList<>();
+
+        //when
+        BatchResult actual = bulkInserter.insertAll(employees.iterator(), Employee.class, Employee::getId, Employee::setId, false, stored::addAll);
+
+        //then
+        assertEquals(2, actual.getInserted());
+        assertEquals(0, actual.getFailed());
+        assertEquals(employees.get(0).getId(), actual.getItems().get(0).getId());
+        assertEquals(employees.get(1).getId(), actual.getItems().get(1).getId());
+        assertNotNull(employees.get(0).getId());
+        assertEquals(employees, stored);
+    }
+
+    @Test
+    void should_stop_at_first_error_when_insert_all_given_ordered_and_second_item_fails() {
+        //given
+        List<Employee> employees = Arrays.asList(new Employee(), new Employee(), new Employee());
+        BulkWriteError error = new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1);
+        BulkOperationException exception = new BulkOperationException("bulk failed", new MongoBulkWriteException(
+            BulkWriteResult.acknowledged(1, 0, 0, 0, Collections.emptyList(), Collections.emptyList()),
+            Collections.singletonList(error), null, new ServerAddress()));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Employee.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenThrow(exception);
+
+        List<Employee> stored = new ArrayList<>();
+
+        //when
+        BatchResult actual = bulkInserter.insertAll(employees.iterator(), Employee.class, Employee::getId, Employee::setId, true, stored::addAll);
+
+        //then
+        assertEquals(1, actual.getInserted());
+        assertEquals(2, actual.getFailed());
+        assertNull(actual.getItems().get(0).getError());
+        assertEquals("duplicate key", actual.getItems().get(1).getError());
+        assertNotNull(actual.getItems().get(2).getError());
+        assertEquals(Collections.singletonList(employees.get(0)), stored);
+    }
+
+    @Test
+    void should_insert_items_read_so_far_and_report_error_when_insert_all_given_input_failing_after_2_employees() {
+        //given
+        List<Employee> employees = Arrays.asList(new Employee("Tom", 18, "male", 1000), new Employee("Tom1", 19, "male", 1001));
+        Iterator<Employee> failing = new Iterator<Employee>() {
+            private final Iterator<Employee> delegate = employees.iterator();
+
+            @Override
+            public boolean hasNext() {
+                if (!delegate.hasNext()) {
+                    throw new IllegalStateException("Unexpected end-of-input");
+                }
+                return true;
+            }
+
+            @Override
+            public Employee next() {
+                return delegate.next();
+            }
+        };
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Employee.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        List<Employee> stored = new ArrayList<>();
+
+        //when
+        BatchResult actual = bulkInserter.insertAll(failing, Employee.class, Employee::getId, Employee::setId, true, stored::addAll);
+
+        //then
+        assertEquals(2, actual.getInserted());
+        assertEquals("Unexpected end-of-input", actual.getError());
+        assertEquals(employees, stored);
+    }
+}
@@ -0,0 +1,122 @@
+package com.thoughtworks.springbootemployee.batch;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LookupBatcherTest {
+    @Test
+    void should_load_concurrent_lookups_in_one_batch_when_get_given_8_keys_within_window() throws Exception {
+        //given
+        List<Collection<String>> loads = new CopyOnWriteArrayList<>();
+        LookupBatcher<String, String> batcher = new LookupBatcher<>(keys -> {
+            loads.add(keys);
+            return keys.stream().collect(Collectors.toMap(Function.identity(), key -> "value" + key));
+        }, Duration.ofMillis(500), 100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+
+        //when
+        List<Future<String>> values = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            String key = String.valueOf(i);
+            values.add(executor.submit(() -> {
+                start.await();
+                return batcher.get(key);
+            }));
+        }
+        start.countDown();
+
+        //then
+        for (int i = 0; i < 8; i++) {
+            assertEquals("value" + i, values.get(i).get());
+        }
+        executor.shutdown();
+        assertEquals(1, loads.size());
+        assertEquals(8, loads.get(0).size());
+    }
+
+    @Test
+    void should_load_at_once_without_waiting_window_when_get_given_batch_filled_to_max_size() {
+        //given
+        LookupBatcher<String, String> batcher = new LookupBatcher<>(keys -> keys.stream()
+            .collect(Collectors.toMap(Function.identity(), Function.identity())), Duration.ofHours(1), 1);
+
+        //when
+        String actual = batcher.get("1");
+
+        //then
+        assertEquals("1", actual);
+    }
+
+    @Test
+    void should_return_null_when_get_given_key_not_loaded() {
+        //given
+        LookupBatcher<String, String> batcher = new LookupBatcher<>(keys -> Collections.emptyMap(), Duration.ofMillis(1), 10);
+
+        //when
+        String actual = batcher.get("1");
+
+        //then
+        assertNull(actual);
+    }
+
+    @Test
+    void should_rethrow_loader_exception_when_get_given_failing_loader() {
+        //given
+        LookupBatcher<String, String> batcher = new LookupBatcher<>(keys -> {
+            throw new IllegalStateException("down");
+        }, Duration.ofMillis(1), 10);
+
+        //when
+        assertThrows(IllegalStateException.class, () -> batcher.get("1"));
+    }
+
+    @Test
+    void should_rethrow_error_to_every_caller_when_get_given_loader_throwing_error() throws Exception {
+        //given
+        StackOverflowError error = new StackOverflowError();
+        LookupBatcher<String, String> batcher = new LookupBatcher<>(keys -> {
+            throw error;
+        }, Duration.ofMillis(200), 10);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+
+        //when
+        List<Future<String>> values = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            String key = String.valueOf(i);
+            values.add(executor.submit(() -> {
+                start.await();
+                return batcher.get(key);
+            }));
+        }
+        start.countDown();
+
+        //then
+        for (Future<String> value : values) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> value.get(5, TimeUnit.SECONDS));
+            assertSame(error, failure.getCause());
+        }
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,129 @@
+package com.thoughtworks.springbootemployee.coalescing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+    @Test
+    void should_load_once_and_share_result_when_load_given_4_concurrent_callers_of_same_key() throws Exception {
+        //given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test");
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        //when
+        Future<String> leader = executor.submit(() -> singleFlight.load("1", () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "value";
+        }));
+        loading.await();
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            followers.add(executor.submit(() -> singleFlight.load("1", () -> {
+                loads.incrementAndGet();
+                return "other";
+            })));
+        }
+        while (singleFlight.getCollapsed() < 3) {
+            Thread.yield();
+        }
+        release.countDown();
+
+        //then
+        assertEquals("value", leader.get(1, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("value", follower.get(1, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, loads.get());
+        assertEquals(1, singleFlight.getLoads());
+        assertEquals(3, singleFlight.getCollapsed());
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    @Test
+    void should_load_again_when_load_given_previous_load_of_same_key_completed() {
+        //given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test");
+        AtomicInteger loads = new AtomicInteger();
+
+        //when
+        singleFlight.load("1", () -> "value" + loads.incrementAndGet());
+        String actual = singleFlight.load("1", () -> "value" + loads.incrementAndGet());
+
+        //then
+        assertEquals("value2", actual);
+        assertEquals(0, singleFlight.getCollapsed());
+    }
+
+    @Test
+    void should_rethrow_and_forget_key_when_load_given_failing_loader() {
+        //given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test");
+
+        //when
+        assertThrows(IllegalStateException.class, () -> singleFlight.load("1", () -> {
+            throw new IllegalStateException("down");
+        }));
+
+        //then
+        assertEquals(0, singleFlight.getInFlight());
+        assertEquals("value", singleFlight.load("1", () -> "value"));
+    }
+
+    @Test
+    void should_fail_followers_and_forget_key_when_load_given_loader_throwing_error() throws Exception {
+        //given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test");
+        StackOverflowError error = new StackOverflowError();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        //when
+        Future<String> leader = executor.submit(() -> singleFlight.load("1", () -> {
+            loading.countDown();
+            await(release);
+            throw error;
+        }));
+        loading.await();
+        Future<String> follower = executor.submit(() -> singleFlight.load("1", () -> "other"));
+        while (singleFlight.getCollapsed() < 1) {
+            Thread.yield();
+        }
+        release.countDown();
+
+        //then
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(1, TimeUnit.SECONDS));
+        ExecutionException followerFailure = assertThrows(ExecutionException.class, () -> follower.get(1, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertSame(error, leaderFailure.getCause());
+        assertSame(error, followerFailure.getCause());
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
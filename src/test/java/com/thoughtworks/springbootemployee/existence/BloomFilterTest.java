@@ -0,0 +1,46 @@
+package com.thoughtworks.springbootemployee.existence;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+    @Test
+    void should_contain_every_inserted_id_when_might_contain_given_10000_inserted_ids() {
+        //given
+        BloomFilter bloomFilter = BloomFilter.create(10000, 0.01);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            String id = new ObjectId().toHexString();
+            ids.add(id);
+            bloomFilter.put(id);
+        }
+
+        //then
+        ids.forEach(id -> assertTrue(bloomFilter.mightContain(id)));
+    }
+
+    @Test
+    void should_keep_false_positive_rate_near_target_when_might_contain_given_ids_never_inserted() {
+        //given
+        BloomFilter bloomFilter = BloomFilter.create(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            bloomFilter.put(new ObjectId().toHexString());
+        }
+
+        //when
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (bloomFilter.mightContain(new ObjectId().toHexString())) {
+                falsePositives++;
+            }
+        }
+
+        //then
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,71 @@
+package com.thoughtworks.springbootemployee.existence;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+
+import java.util.Collections;
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ExistenceIndexTest {
+    @Test
+    void should_contain_employee_when_might_contain_employee_given_known_id_in_upper_case_hex() {
+        //given
+        ObjectId id = new ObjectId();
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class, RETURNS_DEEP_STUBS);
+        when(mongoTemplate.getCollectionName(any())).thenReturn("employee");
+        when(mongoTemplate.getCollection("employee").estimatedDocumentCount()).thenReturn(1L);
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), anyString()))
+            .thenAnswer(invocation -> closeable(Collections.singletonList(new Document("_id", id)).iterator()));
+        ExistenceIndex existenceIndex = new ExistenceIndex(mongoTemplate, true, 1000, 0.01);
+
+        //when
+        existenceIndex.rebuild();
+
+        //then
+        assertTrue(existenceIndex.mightContainEmployee(id.toHexString().toUpperCase()));
+        assertFalse(existenceIndex.mightContainEmployee(new ObjectId().toHexString()));
+    }
+
+    @Test
+    void should_not_scan_collections_when_rebuild_given_index_not_enabled() {
+        //given
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        ExistenceIndex existenceIndex = new ExistenceIndex(mongoTemplate, false, 1000, 0.01);
+
+        //when
+        existenceIndex.rebuild();
+
+        //then
+        verifyNoInteractions(mongoTemplate);
+        assertTrue(existenceIndex.mightContainEmployee(new ObjectId().toHexString()));
+    }
+
+    private static CloseableIterator<Document> closeable(Iterator<Document> documents) {
+        return new CloseableIterator<Document>() {
+            @Override
+            public boolean hasNext() {
+                return documents.hasNext();
+            }
+
+            @Override
+            public Document next() {
+                return documents.next();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package com.thoughtworks.springbootemployee.filter;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmployeeFilterTest {
+    @Test
+    void should_build_single_query_with_equality_before_ranges_when_to_query_given_all_filters() {
+        //given
+        EmployeeFilter filter = new EmployeeFilter(20, 30, 5000, null, Collections.singletonList("company1"), Arrays.asList("male", "female"));
+
+        //when
+        Document query = filter.toQuery().getQueryObject();
+
+        //then
+        assertEquals(Arrays.asList("companyId", "gender", "age", "salary"), new ArrayList<>(query.keySet()));
+        assertEquals("company1", query.get("companyId"));
+        assertEquals(new Document("$in", Arrays.asList("male", "female")), query.get("gender"));
+        assertEquals(new Document("$gte", 20).append("$lte", 30), query.get("age"));
+        assertEquals(new Document("$gte", 5000), query.get("salary"));
+    }
+
+    @Test
+    void should_build_empty_query_when_to_query_given_no_filters() {
+        //given
+        EmployeeFilter filter = new EmployeeFilter();
+
+        //then
+        assertTrue(filter.isEmpty());
+        assertTrue(filter.toQuery().getQueryObject().isEmpty());
+    }
+
+    @Test
+    void should_throw_illegal_argument_exception_when_to_criteria_given_min_salary_above_max_salary() {
+        //given
+        EmployeeFilter filter = new EmployeeFilter(null, null, 9000, 1000, null, null);
+
+        //then
+        assertThrows(IllegalArgumentException.class, filter::toCriteria);
+    }
+
+    @Test
+    void should_sort_by_field_then_id_when_parse_given_salary_desc() {
+        //when
+        Sort sort = EmployeeSort.parse("salary,desc");
+
+        //then
+        assertEquals(Sort.by(Sort.Direction.DESC, "salary").and(Sort.by("id")), sort);
+    }
+
+    @Test
+    void should_throw_illegal_argument_exception_when_parse_given_unknown_sort_field() {
+        //then
+        assertThrows(IllegalArgumentException.class, () -> EmployeeSort.parse("password"));
+        assertThrows(IllegalArgumentException.class, () -> EmployeeSort.parse("age,sideways"));
+    }
+}
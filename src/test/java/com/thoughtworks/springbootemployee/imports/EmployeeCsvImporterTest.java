@@ -0,0 +1,127 @@
+package com.thoughtworks.springbootemployee.imports;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.thoughtworks.springbootemployee.batch.BulkInserter;
+import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.exceptions.ImportJobNotFoundException;
+import com.thoughtworks.springbootemployee.existence.ExistenceIndex;
+import com.thoughtworks.springbootemployee.mapper.EmployeeMapper;
+import com.thoughtworks.springbootemployee.repository.CompanyRepository;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeCsvImporterTest {
+    @Mock
+    MongoTemplate mongoTemplate;
+
+    @Mock
+    BulkOperations bulkOperations;
+
+    @Mock
+    CompanyRepository companyRepository;
+
+    @Mock
+    ExistenceIndex existenceIndex;
+
+    EmployeeCsvImporter employeeCsvImporter;
+
+    @BeforeEach
+    void setUp() {
+        employeeCsvImporter = new EmployeeCsvImporter(new BulkInserter(mongoTemplate), companyRepository, new EmployeeMapper(), existenceIndex, 2, 2, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        employeeCsvImporter.shutdown();
+    }
+
+    @Test
+    void should_import_valid_rows_in_batches_and_report_invalid_rows_when_start_given_csv_with_one_invalid_row() throws Exception {
+        //given
+        String csv = "name,age,gender,salary,companyId\n"
+            + "Tom,18,male,1000,1\n"
+            + "Tom1,abc,male,1000,1\n"
+            + "Tom2,20,female,1000,1\n"
+            + "Tom3,21,female,1000,\n";
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Employee.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+
+        //when
+        ImportJob job = employeeCsvImporter.start(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        awaitFinished(job);
+
+        //then
+        assertEquals(ImportJob.Status.COMPLETED, job.getStatus());
+        assertEquals(4, job.getRowsRead());
+        assertEquals(3, job.getRowsImported());
+        assertEquals(1, job.getRowsFailed());
+        assertEquals(3, job.getErrors().get(0).getLine());
+        verify(bulkOperations, times(2)).insert(anyList());
+    }
+
+    @Test
+    void should_report_only_rejected_rows_when_start_given_second_row_of_batch_rejected() throws Exception {
+        //given
+        String csv = "name,age,gender,salary,companyId\n"
+            + "Tom,18,male,1000,1\n"
+            + "Tom1,19,male,1000,1\n";
+        BulkWriteError error = new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1);
+        BulkOperationException exception = new BulkOperationException("bulk failed", new MongoBulkWriteException(
+            BulkWriteResult.acknowledged(1, 0, 0, 0, Collections.emptyList(), Collections.emptyList()),
+            Collections.singletonList(error), null, new ServerAddress()));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Employee.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenThrow(exception);
+
+        //when
+        ImportJob job = employeeCsvImporter.start(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        awaitFinished(job);
+
+        //then
+        assertEquals(1, job.getRowsImported());
+        assertEquals(1, job.getRowsFailed());
+        assertEquals(3, job.getErrors().get(0).getLine());
+        assertEquals("duplicate key", job.getErrors().get(0).getMessage());
+        verify(companyRepository, times(1)).incrementEmployeesNumbers(Collections.singletonMap("1", 1));
+    }
+
+    @Test
+    void should_throw_import_job_not_found_exception_when_get_given_unknown_job_id() {
+        //then
+        assertThrows(
+            ImportJobNotFoundException.class,
+            // when
+            () -> employeeCsvImporter.get("unknown")
+        );
+    }
+
+    private void awaitFinished(ImportJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!job.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.isFinished());
+    }
+}
@@ -0,0 +1,77 @@
+package com.thoughtworks.springbootemployee.indexes;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QueryPlanReportTest {
+    @Test
+    void should_collect_stages_and_index_name_when_collect_stages_given_fetch_over_index_scan() {
+        //given
+        Document winningPlan = new Document("stage", "FETCH")
+            .append("inputStage", new Document("stage", "IXSCAN").append("indexName", "gender"));
+        List<String> stages = new ArrayList<>();
+        List<String> indexNames = new ArrayList<>();
+
+        //when
+        QueryPlanReport.collectStages(winningPlan, stages, indexNames);
+
+        //then
+        assertEquals(Arrays.asList("FETCH", "IXSCAN"), stages);
+        assertEquals(Collections.singletonList("gender"), indexNames);
+    }
+
+    @Test
+    void should_collect_collection_scan_when_collect_stages_given_or_with_unindexed_branch() {
+        //given
+        Document winningPlan = new Document("stage", "SUBPLAN")
+            .append("inputStage", new Document("stage", "OR").append("inputStages", Arrays.asList(
+                new Document("stage", "IXSCAN").append("indexName", "companyId"),
+                new Document("stage", "COLLSCAN")
+            )));
+        List<String> stages = new ArrayList<>();
+        List<String> indexNames = new ArrayList<>();
+
+        //when
+        QueryPlanReport.collectStages(winningPlan, stages, indexNames);
+
+        //then
+        assertEquals(Arrays.asList("SUBPLAN", "OR", "IXSCAN", "COLLSCAN"), stages);
+        assertEquals(Collections.singletonList("companyId"), indexNames);
+    }
+
+    @Test
+    void should_return_cursor_query_planner_when_query_planner_given_aggregate_explain_with_group() {
+        //given
+        Document queryPlanner = new Document("winningPlan", new Document("stage", "IXSCAN"));
+        Document explain = new Document("stages", Arrays.asList(
+            new Document("$cursor", new Document("queryPlanner", queryPlanner)),
+            new Document("$group", new Document("_id", "$companyId"))
+        ));
+
+        //when
+        Document found = QueryPlanReport.queryPlanner(explain);
+
+        //then
+        assertEquals(queryPlanner, found);
+    }
+
+    @Test
+    void should_return_top_level_query_planner_when_query_planner_given_find_explain() {
+        //given
+        Document queryPlanner = new Document("winningPlan", new Document("stage", "COLLSCAN"));
+        Document explain = new Document("queryPlanner", queryPlanner);
+
+        //when
+        Document found = QueryPlanReport.queryPlanner(explain);
+
+        //then
+        assertEquals(queryPlanner, found);
+    }
+}
@@ -1,5 +1,6 @@
 package com.thoughtworks.springbootemployee.integration;
 
+import com.jayway.jsonpath.JsonPath;
 import com.thoughtworks.springbootemployee.entity.Company;
 import com.thoughtworks.springbootemployee.entity.Employee;
 import com.thoughtworks.springbootemployee.repository.CompanyRepository;
@@ -9,15 +10,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Arrays;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -52,6 +59,29 @@ class CompanyIntegrationTest {
             .andExpect(jsonPath("$[0].employeesNumber").value(100));
     }
 
+    @Test
+    void should_stream_companies_as_ndjson_when_called_get_all_given_companies_and_accept_ndjson() throws Exception {
+        //given
+        Company company1 = new Company("OOCL", 100);
+        Company company2 = new Company("TEST", 100);
+        companyRepository.insert(Arrays.asList(company1, company2));
+
+        //when
+        MvcResult result = mockMvc.perform(get("/companies")
+            .accept("application/x-ndjson"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        //then
+        String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+            .andExpect(content().string(containsString("\"companyName\":\"OOCL\"")))
+            .andExpect(content().string(containsString("\"companyName\":\"TEST\"")))
+            .andReturn().getResponse().getContentAsString();
+        assertEquals(2, body.split("\n").length);
+    }
+
     @Test
     void should_return_specific_company_when_called_get_one_by_id_given_company_id_and_company() throws Exception {
         //given
@@ -66,6 +96,27 @@ class CompanyIntegrationTest {
             .andExpect(jsonPath("$.employeesNumber").value(100));
     }
 
+    @Test
+    void should_return_new_etag_when_called_get_one_by_id_given_employee_joined_after_etag() throws Exception {
+        //given
+        Company company = new Company("OOCL", 0);
+        companyRepository.insert(company);
+        String etag = mockMvc.perform(get("/companies/" + company.getCompanyId()))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/companies/" + company.getCompanyId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+        mockMvc.perform(post("/employees")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"name\": \"Tom\", \"age\": 18, \"gender\": \"male\", \"salary\": 1000, \"companyId\": \"" + company.getCompanyId() + "\"}"))
+            .andExpect(status().isCreated());
+
+        //when
+        mockMvc.perform(get("/companies/" + company.getCompanyId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.employeesNumber").value(1));
+    }
+
     @Test
     void should_return_employees_list_when_called_get_company_employees_given_id_and_company() throws Exception {
         //given
@@ -76,8 +127,14 @@ class CompanyIntegrationTest {
         employeeRepository.insert(Arrays.asList(employee1, employee2));
 
         //when
-        mockMvc.perform(get("/companies/" + company.getCompanyId() + "/employees"))
+        MvcResult result = mockMvc.perform(get("/companies/" + company.getCompanyId() + "/employees"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
             .andExpect(jsonPath("$", hasSize(2)))
             .andExpect(jsonPath("$[0].id").isString())
             .andExpect(jsonPath("$[0].name").value("Tom"))
@@ -91,6 +148,112 @@ class CompanyIntegrationTest {
             .andExpect(jsonPath("$[1].salary").value(1001));
     }
 
+    @Test
+    void should_return_only_selected_fields_when_called_get_company_employees_given_fields_name_and_company_id() throws Exception {
+        //given
+        Company company = new Company("OOCL", 100);
+        companyRepository.insert(company);
+        employeeRepository.insert(new Employee("Tom", 18, "male", 1000, company.getCompanyId()));
+
+        //when
+        MvcResult result = mockMvc.perform(get("/companies/" + company.getCompanyId() + "/employees").param("fields", "name,companyId"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].name").value("Tom"))
+            .andExpect(jsonPath("$[0].companyId").value(company.getCompanyId()))
+            .andExpect(jsonPath("$[0].salary").doesNotExist());
+    }
+
+    @Test
+    void should_stream_employees_as_ndjson_when_called_get_company_employees_given_company_id_and_accept_ndjson() throws Exception {
+        //given
+        Company company = new Company("OOCL", 100);
+        companyRepository.insert(company);
+        Employee employee1 = new Employee("Tom", 18, "male", 1000, company.getCompanyId());
+        Employee employee2 = new Employee("Tom1", 19, "female", 1001, company.getCompanyId());
+        employeeRepository.insert(Arrays.asList(employee1, employee2));
+
+        //when
+        MvcResult result = mockMvc.perform(get("/companies/" + company.getCompanyId() + "/employees")
+            .accept("application/x-ndjson"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        //then
+        String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("\"name\":\"Tom\"")))
+            .andExpect(content().string(containsString("\"name\":\"Tom1\"")))
+            .andReturn().getResponse().getContentAsString();
+        assertEquals(2, body.split("\n").length);
+    }
+
+    @Test
+    void should_return_empty_list_when_called_get_company_employees_given_company_without_employees() throws Exception {
+        //given
+        Company company = new Company("OOCL", 100);
+        companyRepository.insert(company);
+
+        //when
+        MvcResult result = mockMvc.perform(get("/companies/" + company.getCompanyId() + "/employees"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void should_return_not_found_when_called_get_company_employees_given_company_id_not_exists() throws Exception {
+        //when
+        mockMvc.perform(get("/companies/5f0c2b6e1c9d440000a1b2c3/employees"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void should_page_employees_by_cursor_when_called_get_company_employees_given_limit_and_after() throws Exception {
+        //given
+        Company company = new Company("OOCL", 100);
+        companyRepository.insert(company);
+        Employee employee1 = new Employee("Tom", 18, "male", 1000, company.getCompanyId());
+        Employee employee2 = new Employee("Tom1", 19, "female", 1001, company.getCompanyId());
+        employeeRepository.insert(Arrays.asList(employee1, employee2));
+        String firstPage = mockMvc.perform(get("/companies/" + company.getCompanyId() + "/employees").param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(1)))
+            .andExpect(jsonPath("$.content[0].name").value("Tom"))
+            .andExpect(jsonPath("$.nextCursor").isString())
+            .andReturn().getResponse().getContentAsString();
+        String nextCursor = JsonPath.read(firstPage, "$.nextCursor");
+
+        //when
+        mockMvc.perform(get("/companies/" + company.getCompanyId() + "/employees").param("limit", "1").param("after", nextCursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(1)))
+            .andExpect(jsonPath("$.content[0].name").value("Tom1"))
+            .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void should_return_only_selected_fields_when_called_get_one_by_id_given_fields_company_name() throws Exception {
+        //given
+        Company company = new Company("OOCL", 100);
+        companyRepository.insert(company);
+
+        //when
+        mockMvc.perform(get("/companies/" + company.getCompanyId()).param("fields", "companyName"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.companyName").value("OOCL"))
+            .andExpect(jsonPath("$.employeesNumber").doesNotExist());
+    }
+
     @Test
     void should_return_2_companies_when_called_get_paginated_given_3_companies_page_1_page_size_2() throws Exception {
         //given
@@ -115,7 +278,58 @@ class CompanyIntegrationTest {
     }
 
     @Test
-    void should_return_created_company_when_called_create_given_company() throws Exception {
+    void should_return_slice_without_total_when_called_get_paginated_given_3_companies_and_total_none() throws Exception {
+        //given
+        companyRepository.insert(Arrays.asList(new Company("OOCL", 100), new Company("TEST", 100), new Company("ACME", 100)));
+
+        //when
+        mockMvc.perform(get("/companies")
+            .param("page", "1")
+            .param("pageSize", "2")
+            .param("total", "none"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(2)))
+            .andExpect(jsonPath("$.last").value(false))
+            .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void should_return_estimated_total_when_called_get_paginated_given_3_companies_and_total_estimated() throws Exception {
+        //given
+        companyRepository.insert(Arrays.asList(new Company("OOCL", 100), new Company("TEST", 100), new Company("ACME", 100)));
+
+        //when
+        mockMvc.perform(get("/companies")
+            .param("page", "1")
+            .param("pageSize", "2")
+            .param("total", "estimated"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(2)))
+            .andExpect(jsonPath("$.page").value(1))
+            .andExpect(jsonPath("$.hasNext").value(true))
+            .andExpect(jsonPath("$.totalElements").value(3))
+            .andExpect(jsonPath("$.totalExact").value(false));
+    }
+
+    @Test
+    void should_return_cached_total_when_called_get_paginated_given_3_companies_and_total_cached() throws Exception {
+        //given
+        companyRepository.insert(Arrays.asList(new Company("OOCL", 100), new Company("TEST", 100), new Company("ACME", 100)));
+
+        //when
+        mockMvc.perform(get("/companies")
+            .param("page", "1")
+            .param("pageSize", "2")
+            .param("total", "cached"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(2)))
+            .andExpect(jsonPath("$.hasNext").value(true))
+            .andExpect(jsonPath("$.totalElements").isNumber())
+            .andExpect(jsonPath("$.totalExact").isBoolean());
+    }
+
+    @Test
+    void should_return_created_company_without_employees_when_called_create_given_company() throws Exception {
         //given
         String companyJson = "{\n"
             + "    \"companyName\": \"Test\",\n"
@@ -129,11 +343,31 @@ class CompanyIntegrationTest {
             .andExpect(status().isCreated())
             .andExpect(jsonPath("$.companyId").isString())
             .andExpect(jsonPath("$.companyName").value("Test"))
-            .andExpect(jsonPath("$.employeesNumber").value(100));
+            .andExpect(jsonPath("$.employeesNumber").value(0));
     }
 
     @Test
-    void should_return_updated_company_when_called_with_update_given_company_id_and_update_company() throws Exception {
+    void should_return_per_item_ids_when_called_create_all_given_json_array_of_companies() throws Exception {
+        //given
+        String companiesJson = "[\n"
+            + "    {\"companyName\": \"Test\", \"employeesNumber\": 100},\n"
+            + "    {\"companyName\": \"Test1\", \"employeesNumber\": 200}\n"
+            + "]";
+
+        //when
+        mockMvc.perform(post("/companies/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(companiesJson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.inserted").value(2))
+            .andExpect(jsonPath("$.items", hasSize(2)))
+            .andExpect(jsonPath("$.items[0].id").isString())
+            .andExpect(jsonPath("$.items[1].id").isString());
+        assertEquals(2, companyRepository.findAll().size());
+    }
+
+    @Test
+    void should_return_updated_company_keeping_employees_number_when_called_with_update_given_company_id_and_update_company() throws Exception {
         //given
         Company company = new Company("Test", 100);
         companyRepository.insert(company);
@@ -149,7 +383,66 @@ class CompanyIntegrationTest {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.companyId").value(company.getCompanyId()))
             .andExpect(jsonPath("$.companyName").value("Test1"))
-            .andExpect(jsonPath("$.employeesNumber").value(1000));
+            .andExpect(jsonPath("$.employeesNumber").value(100));
+    }
+
+    @Test
+    void should_keep_company_name_when_called_patch_given_company_id_and_empty_patch() throws Exception {
+        //given
+        Company company = new Company("Test", 100);
+        companyRepository.insert(company);
+
+        //when
+        mockMvc.perform(patch("/companies/" + company.getCompanyId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.companyName").value("Test"))
+            .andExpect(jsonPath("$.employeesNumber").value(100));
+    }
+
+    @Test
+    void should_return_salary_and_gender_stats_when_called_get_stats_given_company_with_employees() throws Exception {
+        //given
+        Company company = new Company("OOCL", 100);
+        companyRepository.insert(company);
+        Employee employee1 = new Employee("Tom", 18, "male", 1000, company.getCompanyId());
+        Employee employee2 = new Employee("Tom1", 20, "female", 3000, company.getCompanyId());
+        Employee employee3 = new Employee("Tom2", 22, "male", 2000, "other");
+        employeeRepository.insert(Arrays.asList(employee1, employee2, employee3));
+
+        //when
+        mockMvc.perform(get("/companies/" + company.getCompanyId() + "/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.companyId").value(company.getCompanyId()))
+            .andExpect(jsonPath("$.headcount").value(2))
+            .andExpect(jsonPath("$.salarySum").value(4000))
+            .andExpect(jsonPath("$.salaryAverage").value(2000.0))
+            .andExpect(jsonPath("$.salaryMin").value(1000))
+            .andExpect(jsonPath("$.salaryMax").value(3000))
+            .andExpect(jsonPath("$.ageAverage").value(19.0))
+            .andExpect(jsonPath("$.genders.male").value(1))
+            .andExpect(jsonPath("$.genders.female").value(1));
+    }
+
+    @Test
+    void should_return_stats_per_company_when_called_get_stats_given_company_ids() throws Exception {
+        //given
+        Company company1 = new Company("OOCL", 100);
+        Company company2 = new Company("TEST", 100);
+        companyRepository.insert(Arrays.asList(company1, company2));
+        employeeRepository.insert(new Employee("Tom", 18, "male", 1000, company2.getCompanyId()));
+
+        //when
+        mockMvc.perform(get("/companies/stats")
+            .param("companyIds", company1.getCompanyId(), company2.getCompanyId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].companyId").value(company1.getCompanyId()))
+            .andExpect(jsonPath("$[0].headcount").value(0))
+            .andExpect(jsonPath("$[1].companyId").value(company2.getCompanyId()))
+            .andExpect(jsonPath("$[1].headcount").value(1))
+            .andExpect(jsonPath("$[1].salarySum").value(1000));
     }
 
     @Test
@@ -163,4 +456,42 @@ class CompanyIntegrationTest {
             .andExpect(status().isNoContent());
         assertEquals(0, companyRepository.findAll().size());
     }
+
+    @Test
+    void should_delete_company_and_its_employees_when_called_delete_given_company_id_and_employees_delete() throws Exception {
+        //given
+        Company company = new Company("Test", 100);
+        companyRepository.insert(company);
+        Employee employee1 = new Employee("Tom", 18, "male", 1000, company.getCompanyId());
+        Employee employee2 = new Employee("Tom1", 19, "female", 1001, "other");
+        employeeRepository.insert(Arrays.asList(employee1, employee2));
+
+        //when
+        mockMvc.perform(delete("/companies/" + company.getCompanyId()).param("employees", "delete"))
+            .andExpect(status().isNoContent());
+        assertEquals(0, companyRepository.findAll().size());
+        assertEquals(1, employeeRepository.findAll().size());
+        assertEquals("Tom1", employeeRepository.findAll().get(0).getName());
+    }
+
+    @Test
+    void should_unset_company_of_employees_when_called_delete_given_company_id_and_employees_detach() throws Exception {
+        //given
+        Company company = new Company("Test", 100);
+        companyRepository.insert(company);
+        employeeRepository.insert(new Employee("Tom", 18, "male", 1000, company.getCompanyId()));
+
+        //when
+        mockMvc.perform(delete("/companies/" + company.getCompanyId()).param("employees", "detach"))
+            .andExpect(status().isNoContent());
+        assertEquals(1, employeeRepository.findAll().size());
+        assertNull(employeeRepository.findAll().get(0).getCompanyId());
+    }
+
+    @Test
+    void should_return_bad_request_when_called_delete_given_unknown_employees_cascade() throws Exception {
+        //when
+        mockMvc.perform(delete("/companies/5f0c2b6e1c9d440000a1b2c3").param("employees", "orphan"))
+            .andExpect(status().isBadRequest());
+    }
 }
@@ -1,21 +1,35 @@
 package com.thoughtworks.springbootemployee.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.jayway.jsonpath.JsonPath;
+import com.thoughtworks.springbootemployee.entity.Company;
 import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.repository.CompanyRepository;
 import com.thoughtworks.springbootemployee.repository.EmployeeRepository;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Arrays;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -24,12 +38,16 @@ class EmployeeIntegrationTest {
     @Autowired
     EmployeeRepository employeeRepository;
 
+    @Autowired
+    CompanyRepository companyRepository;
+
     @Autowired
     MockMvc mockMvc;
 
     @AfterEach
     void tearDown() {
         employeeRepository.deleteAll();
+        companyRepository.deleteAll();
     }
 
     @Test
@@ -49,6 +67,29 @@ class EmployeeIntegrationTest {
             .andExpect(jsonPath("$[0].salary").value(10000));
     }
 
+    @Test
+    void should_stream_employees_as_ndjson_when_called_get_all_given_employees_and_accept_ndjson() throws Exception {
+        //given
+        Employee employee1 = new Employee("Tom", 18, "Male", 10000);
+        Employee employee2 = new Employee("Tom1", 19, "Male", 10001);
+        employeeRepository.insert(Arrays.asList(employee1, employee2));
+
+        //when
+        MvcResult result = mockMvc.perform(get("/employees")
+            .accept("application/x-ndjson"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        //then
+        String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+            .andExpect(content().string(containsString("\"name\":\"Tom\"")))
+            .andExpect(content().string(containsString("\"name\":\"Tom1\"")))
+            .andReturn().getResponse().getContentAsString();
+        assertEquals(2, body.split("\n").length);
+    }
+
     @Test
     void should_return_specific_employee_when_called_get_one_by_id_given_employee() throws Exception {
         //given
@@ -65,6 +106,184 @@ class EmployeeIntegrationTest {
             .andExpect(jsonPath("$.salary").value(10000));
     }
 
+    @Test
+    void should_return_smile_encoded_employees_when_called_get_all_given_accept_smile() throws Exception {
+        //given
+        employeeRepository.insert(new Employee("Tom", 18, "Male", 10000));
+
+        //when
+        byte[] body = mockMvc.perform(get("/employees").accept("application/x-jackson-smile"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-jackson-smile"))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        //then
+        JsonNode employees = new ObjectMapper(new SmileFactory()).readTree(body);
+        assertEquals("Tom", employees.get(0).get("name").asText());
+    }
+
+    @Test
+    void should_return_only_selected_fields_when_called_get_all_given_fields_name_and_salary() throws Exception {
+        //given
+        employeeRepository.insert(new Employee("Tom", 18, "Male", 10000));
+
+        //when
+        mockMvc.perform(get("/employees").param("fields", "name,salary"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].name").value("Tom"))
+            .andExpect(jsonPath("$[0].salary").value(10000))
+            .andExpect(jsonPath("$[0].id").doesNotExist())
+            .andExpect(jsonPath("$[0].age").doesNotExist())
+            .andExpect(jsonPath("$[0].gender").doesNotExist());
+    }
+
+    @Test
+    void should_return_only_selected_fields_when_called_get_one_by_id_given_fields_name() throws Exception {
+        //given
+        Employee employee = new Employee("Tom", 18, "Male", 10000);
+        employeeRepository.insert(employee);
+
+        //when
+        mockMvc.perform(get("/employees/" + employee.getId()).param("fields", "name"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("Tom"))
+            .andExpect(jsonPath("$.salary").doesNotExist());
+    }
+
+    @Test
+    void should_return_bad_request_when_called_get_all_given_unknown_field() throws Exception {
+        //when
+        mockMvc.perform(get("/employees").param("fields", "name,password"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Unknown field: password"));
+    }
+
+    @Test
+    void should_return_not_modified_when_called_get_one_by_id_given_if_none_match_of_current_etag() throws Exception {
+        //given
+        Employee employee = new Employee("Tom", 18, "Male", 10000);
+        employeeRepository.insert(employee);
+        String etag = mockMvc.perform(get("/employees/" + employee.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //when
+        mockMvc.perform(get("/employees/" + employee.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    void should_return_own_etag_and_vary_on_accept_when_called_get_one_by_id_given_accept_cbor() throws Exception {
+        //given
+        Employee employee = new Employee("Tom", 18, "Male", 10000);
+        employeeRepository.insert(employee);
+        String jsonEtag = mockMvc.perform(get("/employees/" + employee.getId()))
+            .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //when
+        mockMvc.perform(get("/employees/" + employee.getId())
+            .accept(MediaType.parseMediaType("application/cbor"))
+            .header(HttpHeaders.IF_NONE_MATCH, jsonEtag))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/cbor"))
+            .andExpect(header().string(HttpHeaders.ETAG, not(jsonEtag)))
+            .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)));
+    }
+
+    @Test
+    void should_return_new_etag_when_called_get_one_by_id_given_employee_updated_after_etag() throws Exception {
+        //given
+        Employee employee = new Employee("Tom", 18, "Male", 10000);
+        employeeRepository.insert(employee);
+        String etag = mockMvc.perform(get("/employees/" + employee.getId()))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(put("/employees/" + employee.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"name\": \"Tom updated\", \"age\": 19, \"gender\": \"Male\", \"salary\": 7000}"))
+            .andExpect(status().isOk());
+
+        //when
+        mockMvc.perform(get("/employees/" + employee.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+            .andExpect(jsonPath("$.name").value("Tom updated"));
+    }
+
+    @Test
+    void should_return_not_modified_when_called_get_all_paginated_given_if_none_match_of_current_etag() throws Exception {
+        //given
+        employeeRepository.insert(new Employee("Tom", 18, "Male", 10000));
+        String etag = mockMvc.perform(get("/employees").param("page", "1").param("pageSize", "10"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //when
+        mockMvc.perform(get("/employees").param("page", "1").param("pageSize", "10").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void should_not_hash_body_when_called_get_all_given_no_page_or_limit() throws Exception {
+        //given
+        employeeRepository.insert(new Employee("Tom", 18, "Male", 10000));
+
+        //when
+        mockMvc.perform(get("/employees"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void should_return_updated_employee_when_called_get_one_by_id_given_cached_employee_updated() throws Exception {
+        //given
+        Employee employee = new Employee("Tom", 18, "Male", 10000);
+        employeeRepository.insert(employee);
+        mockMvc.perform(get("/employees/" + employee.getId()))
+            .andExpect(jsonPath("$.name").value("Tom"));
+        String updateEmployeeJson = "{\n" +
+            "    \"name\": \"Tom updated\",\n" +
+            "    \"age\": 19,\n" +
+            "    \"gender\": \"Male\",\n" +
+            "    \"salary\": 7000\n" +
+            "}";
+        mockMvc.perform(put("/employees/" + employee.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(updateEmployeeJson))
+            .andExpect(status().isOk());
+
+        //when
+        mockMvc.perform(get("/employees/" + employee.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("Tom updated"))
+            .andExpect(jsonPath("$.salary").value(7000));
+        mockMvc.perform(get("/stats/caches"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].name").value("employees"))
+            .andExpect(jsonPath("$[0].hitCount").isNumber());
+    }
+
+    @Test
+    void should_count_loads_of_employees_and_companies_when_called_get_single_flight_stats_given_employee_read() throws Exception {
+        //given
+        Employee employee = new Employee("Tom", 18, "male", 1000);
+        employeeRepository.insert(employee);
+        mockMvc.perform(get("/employees/" + employee.getId()))
+            .andExpect(status().isOk());
+
+        //when
+        mockMvc.perform(get("/stats/single-flight"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].name").value("employees"))
+            .andExpect(jsonPath("$[0].loads").isNumber())
+            .andExpect(jsonPath("$[0].collapsed").isNumber())
+            .andExpect(jsonPath("$[0].inFlight").value(0))
+            .andExpect(jsonPath("$[1].name").value("companies"));
+    }
+
     @Test
     void should_return_2_employee_when_called_get_all_paginated_given_3_employees_page_1_page_size_2() throws Exception {
         //given
@@ -94,6 +313,70 @@ class EmployeeIntegrationTest {
             .andExpect(jsonPath("$.content[1].salary").value(10001));
     }
 
+    @Test
+    void should_return_slice_without_total_when_called_get_all_paginated_given_total_none() throws Exception {
+        //given
+        Employee employee1 = new Employee("Tom", 18, "Male", 10000);
+        Employee employee2 = new Employee("Tom1", 19, "Male", 10001);
+        Employee employee3 = new Employee("Tom2", 20, "Male", 10002);
+        employeeRepository.insert(Arrays.asList(employee1, employee2, employee3));
+
+        //when
+        mockMvc.perform(get("/employees")
+            .param("page", "1")
+            .param("pageSize", "2")
+            .param("total", "none"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(2)))
+            .andExpect(jsonPath("$.last").value(false))
+            .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void should_return_estimated_total_when_called_get_all_paginated_given_total_estimated() throws Exception {
+        //given
+        Employee employee1 = new Employee("Tom", 18, "Male", 10000);
+        Employee employee2 = new Employee("Tom1", 19, "Male", 10001);
+        Employee employee3 = new Employee("Tom2", 20, "Male", 10002);
+        employeeRepository.insert(Arrays.asList(employee1, employee2, employee3));
+
+        //when
+        mockMvc.perform(get("/employees")
+            .param("page", "1")
+            .param("pageSize", "2")
+            .param("total", "estimated"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(2)))
+            .andExpect(jsonPath("$.page").value(1))
+            .andExpect(jsonPath("$.hasNext").value(true))
+            .andExpect(jsonPath("$.totalElements").value(3))
+            .andExpect(jsonPath("$.totalExact").value(false));
+    }
+
+    @Test
+    void should_return_next_page_after_cursor_when_called_get_all_given_3_employees_limit_2_and_next_cursor() throws Exception {
+        //given
+        Employee employee1 = new Employee("Tom", 18, "Male", 10000);
+        Employee employee2 = new Employee("Tom1", 19, "Male", 10001);
+        Employee employee3 = new Employee("Tom2", 20, "Male", 10002);
+        employeeRepository.insert(Arrays.asList(employee1, employee2, employee3));
+        String firstPage = mockMvc.perform(get("/employees").param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(2)))
+            .andExpect(jsonPath("$.nextCursor").isString())
+            .andReturn().getResponse().getContentAsString();
+        String nextCursor = JsonPath.read(firstPage, "$.nextCursor");
+
+        //when
+        mockMvc.perform(get("/employees")
+            .param("after", nextCursor)
+            .param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(1)))
+            .andExpect(jsonPath("$.content[0].name").value("Tom2"))
+            .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
     @Test
     void should_return_all_male_employees_when_called_get_all_given_employees_param_gender_male() throws Exception {
         //given
@@ -112,6 +395,77 @@ class EmployeeIntegrationTest {
             .andExpect(jsonPath("$[0].salary").value(10000));
     }
 
+    @Test
+    void should_return_matching_employees_sorted_when_called_get_all_given_age_salary_and_gender_filters_and_sort() throws Exception {
+        //given
+        Employee employee1 = new Employee("Tom", 25, "Male", 6000);
+        Employee employee2 = new Employee("Tom1", 35, "Female", 9000);
+        Employee employee3 = new Employee("Tom2", 45, "Male", 8000);
+        Employee employee4 = new Employee("Tom3", 35, "Other", 9500);
+        Employee employee5 = new Employee("Tom4", 60, "Male", 20000);
+        employeeRepository.insert(Arrays.asList(employee1, employee2, employee3, employee4, employee5));
+
+        //when
+        mockMvc.perform(get("/employees")
+            .param("minAge", "20")
+            .param("maxAge", "50")
+            .param("minSalary", "7000")
+            .param("gender", "Male,Female")
+            .param("sort", "salary,desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].name").value("Tom1"))
+            .andExpect(jsonPath("$[1].name").value("Tom2"));
+    }
+
+    @Test
+    void should_return_filtered_page_with_exact_total_when_called_get_all_paginated_given_company_filter_and_total_estimated() throws Exception {
+        //given
+        Employee employee1 = new Employee("Tom", 18, "Male", 10000, "company1");
+        Employee employee2 = new Employee("Tom1", 19, "Male", 10001, "company1");
+        Employee employee3 = new Employee("Tom2", 20, "Male", 10002, "company2");
+        employeeRepository.insert(Arrays.asList(employee1, employee2, employee3));
+
+        //when
+        mockMvc.perform(get("/employees")
+            .param("page", "1")
+            .param("pageSize", "1")
+            .param("total", "estimated")
+            .param("companyId", "company1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(1)))
+            .andExpect(jsonPath("$.content[0].name").value("Tom"))
+            .andExpect(jsonPath("$.hasNext").value(true))
+            .andExpect(jsonPath("$.totalElements").value(2))
+            .andExpect(jsonPath("$.totalExact").value(true));
+    }
+
+    @Test
+    void should_return_bad_request_when_called_get_all_given_min_age_above_max_age() throws Exception {
+        //when
+        mockMvc.perform(get("/employees")
+            .param("minAge", "50")
+            .param("maxAge", "20"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void should_return_ranked_matches_when_called_search_given_name_prefix() throws Exception {
+        //given
+        Employee employee1 = new Employee("Anna Tomlinson", 18, "Female", 10000);
+        Employee employee2 = new Employee("Tom Hanks", 19, "Male", 10001);
+        Employee employee3 = new Employee("Jerry", 20, "Male", 10002);
+        employeeRepository.insert(Arrays.asList(employee1, employee2, employee3));
+
+        //when
+        mockMvc.perform(get("/employees/search")
+            .param("q", "tom"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].name").value("Tom Hanks"))
+            .andExpect(jsonPath("$[1].name").value("Anna Tomlinson"));
+    }
+
     @Test
     void should_return_created_employee_when_called_create_given_employee() throws Exception {
         //given
@@ -134,6 +488,76 @@ class EmployeeIntegrationTest {
             .andExpect(jsonPath("$.salary").value(7000));
     }
 
+    @Test
+    void should_return_per_item_ids_when_called_create_all_given_json_array_of_employees() throws Exception {
+        //given
+        String employeesJson = "[\n" +
+            "    {\"name\": \"tom\", \"age\": 19, \"gender\": \"female\", \"salary\": 7000},\n" +
+            "    {\"name\": \"tom1\", \"age\": 20, \"gender\": \"male\", \"salary\": 8000}\n" +
+            "]";
+
+        //when
+        mockMvc.perform(post("/employees/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(employeesJson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.inserted").value(2))
+            .andExpect(jsonPath("$.failed").value(0))
+            .andExpect(jsonPath("$.items", hasSize(2)))
+            .andExpect(jsonPath("$.items[0].id").isString())
+            .andExpect(jsonPath("$.items[1].id").isString());
+        assertEquals(2, employeeRepository.findAll().size());
+    }
+
+    @Test
+    void should_insert_every_line_when_called_create_all_given_ndjson_employees() throws Exception {
+        //given
+        String employeesNdjson = "{\"name\": \"tom\", \"age\": 19, \"gender\": \"female\", \"salary\": 7000}\n" +
+            "{\"name\": \"tom1\", \"age\": 20, \"gender\": \"male\", \"salary\": 8000}\n";
+
+        //when
+        mockMvc.perform(post("/employees/batch")
+            .param("ordered", "false")
+            .contentType("application/x-ndjson")
+            .content(employeesNdjson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.inserted").value(2))
+            .andExpect(jsonPath("$.items", hasSize(2)));
+        assertEquals(2, employeeRepository.findAll().size());
+    }
+
+    @Test
+    void should_report_import_progress_when_called_get_import_job_given_csv_import_started() throws Exception {
+        //given
+        String csv = "name,age,gender,salary\n" +
+            "tom,19,female,7000\n" +
+            "tom1,abc,male,8000\n";
+        String job = mockMvc.perform(post("/employees/imports")
+            .contentType("text/csv")
+            .content(csv))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.id").isString())
+            .andReturn().getResponse().getContentAsString();
+        String jobId = JsonPath.read(job, "$.id");
+
+        //when
+        String status = "QUEUED";
+        for (int attempt = 0; attempt < 100 && !status.equals("COMPLETED"); attempt++) {
+            Thread.sleep(50);
+            status = JsonPath.read(mockMvc.perform(get("/employees/imports/" + jobId))
+                .andReturn().getResponse().getContentAsString(), "$.status");
+        }
+
+        //then
+        mockMvc.perform(get("/employees/imports/" + jobId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("COMPLETED"))
+            .andExpect(jsonPath("$.rowsImported").value(1))
+            .andExpect(jsonPath("$.rowsFailed").value(1))
+            .andExpect(jsonPath("$.errors[0].line").value(3));
+        assertEquals(1, employeeRepository.findAll().size());
+    }
+
     @Test
     void should_return_updated_employee_when_called_update_given_employee_id_and_update_employee() throws Exception {
         //given
@@ -160,6 +584,122 @@ class EmployeeIntegrationTest {
             .andExpect(jsonPath("$.salary").value(7000));
     }
 
+    @Test
+    void should_change_only_sent_fields_when_called_patch_given_employee_id_and_salary() throws Exception {
+        //given
+        Employee employee = new Employee("tom", 18, "male", 10);
+        employeeRepository.insert(employee);
+
+        //when
+        mockMvc.perform(patch("/employees/" + employee.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"salary\": 20000}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("tom"))
+            .andExpect(jsonPath("$.age").value(18))
+            .andExpect(jsonPath("$.salary").value(20000));
+
+        //then
+        Employee patched = employeeRepository.findById(employee.getId()).orElseThrow(IllegalStateException::new);
+        assertEquals("male", patched.getGender());
+        assertEquals(20000, patched.getSalary());
+        assertEquals(1L, patched.getVersion());
+    }
+
+    @Test
+    void should_keep_version_when_called_patch_given_employee_id_and_empty_patch() throws Exception {
+        //given
+        Employee employee = new Employee("tom", 18, "male", 10);
+        employeeRepository.insert(employee);
+
+        //when
+        mockMvc.perform(patch("/employees/" + employee.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("tom"));
+
+        //then
+        Employee unchanged = employeeRepository.findById(employee.getId()).orElseThrow(IllegalStateException::new);
+        assertEquals(employee.getVersion(), unchanged.getVersion());
+    }
+
+    @Test
+    void should_return_not_found_when_called_patch_given_employee_id_not_exists() throws Exception {
+        //when
+        mockMvc.perform(patch("/employees/" + new ObjectId().toHexString())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"salary\": 20000}"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void should_return_employees_in_order_of_ids_when_called_get_all_given_ids() throws Exception {
+        //given
+        Employee employee1 = new Employee("Tom", 18, "male", 1000);
+        Employee employee2 = new Employee("Tom1", 19, "male", 1001);
+        employeeRepository.insert(Arrays.asList(employee1, employee2));
+
+        //when
+        mockMvc.perform(get("/employees").param("ids", employee2.getId() + "," + new ObjectId() + "," + employee1.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].name").value("Tom1"))
+            .andExpect(jsonPath("$[1].name").value("Tom"));
+    }
+
+    @Test
+    void should_return_selected_fields_of_employees_when_called_lookup_given_ids_and_fields_name() throws Exception {
+        //given
+        Employee employee1 = new Employee("Tom", 18, "male", 1000);
+        Employee employee2 = new Employee("Tom1", 19, "male", 1001);
+        employeeRepository.insert(Arrays.asList(employee1, employee2));
+
+        //when
+        mockMvc.perform(post("/employees/lookup")
+            .param("fields", "name")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(String.format("{\"ids\": [\"%s\", \"%s\"]}", employee1.getId(), employee2.getId())))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].name").value("Tom"))
+            .andExpect(jsonPath("$[0].salary").doesNotExist())
+            .andExpect(jsonPath("$[1].name").value("Tom1"));
+    }
+
+    @Test
+    void should_raise_salaries_of_matching_employees_when_called_adjust_salaries_given_gender_age_range_and_percent() throws Exception {
+        //given
+        Employee employee1 = new Employee("Tom", 30, "male", 1000);
+        Employee employee2 = new Employee("Tom1", 40, "male", 2000);
+        Employee employee3 = new Employee("Anna", 30, "female", 3000);
+        employeeRepository.insert(Arrays.asList(employee1, employee2, employee3));
+
+        //when
+        mockMvc.perform(post("/employees/salary-adjustments")
+            .param("gender", "male")
+            .param("maxAge", "35")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"percent\": 3}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.matched").value(1))
+            .andExpect(jsonPath("$.modified").value(1));
+
+        //then
+        assertEquals(1030, employeeRepository.findById(employee1.getId()).get().getSalary());
+        assertEquals(2000, employeeRepository.findById(employee2.getId()).get().getSalary());
+        assertEquals(3000, employeeRepository.findById(employee3.getId()).get().getSalary());
+    }
+
+    @Test
+    void should_return_bad_request_when_called_adjust_salaries_given_neither_percent_nor_amount() throws Exception {
+        //when
+        mockMvc.perform(post("/employees/salary-adjustments")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{}"))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     void should_delete_employee_when_called_delete_given_employee_id() throws Exception {
         //given
@@ -171,4 +711,47 @@ class EmployeeIntegrationTest {
             .andExpect(status().isNoContent());
         assertEquals(0, employeeRepository.findAll().size());
     }
+
+    @Test
+    void should_keep_company_employees_number_exact_when_called_create_update_and_delete_given_employee_moving_between_companies() throws Exception {
+        //given
+        Company company1 = new Company("OOCL", 0);
+        Company company2 = new Company("TEST", 0);
+        companyRepository.insert(Arrays.asList(company1, company2));
+        String employeeJson = "{\n" +
+            "    \"name\": \"tom\",\n" +
+            "    \"age\": 19,\n" +
+            "    \"gender\": \"female\",\n" +
+            "    \"salary\": 7000,\n" +
+            "    \"companyId\": \"%s\"\n" +
+            "}";
+
+        //when
+        String body = mockMvc.perform(post("/employees")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(String.format(employeeJson, company1.getCompanyId())))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        String employeeId = JsonPath.read(body, "$.id");
+
+        //then
+        assertEquals(1, companyRepository.findById(company1.getCompanyId()).get().getEmployeesNumber());
+
+        //when
+        mockMvc.perform(put("/employees/" + employeeId)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(String.format(employeeJson, company2.getCompanyId())))
+            .andExpect(status().isOk());
+
+        //then
+        assertEquals(0, companyRepository.findById(company1.getCompanyId()).get().getEmployeesNumber());
+        assertEquals(1, companyRepository.findById(company2.getCompanyId()).get().getEmployeesNumber());
+
+        //when
+        mockMvc.perform(delete("/employees/" + employeeId))
+            .andExpect(status().isNoContent());
+
+        //then
+        assertEquals(0, companyRepository.findById(company2.getCompanyId()).get().getEmployeesNumber());
+    }
 }
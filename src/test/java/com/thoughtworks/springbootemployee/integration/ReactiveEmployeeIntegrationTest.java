@@ -0,0 +1,118 @@
+package com.thoughtworks.springbootemployee.integration;
+
+import com.thoughtworks.springbootemployee.entity.Company;
+import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.repository.CompanyRepository;
+import com.thoughtworks.springbootemployee.repository.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+class ReactiveEmployeeIntegrationTest {
+    @Autowired
+    EmployeeRepository employeeRepository;
+
+    @Autowired
+    CompanyRepository companyRepository;
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAll();
+        companyRepository.deleteAll();
+    }
+
+    @Test
+    void should_return_employees_when_called_get_all_given_employees() {
+        //given
+        employeeRepository.insert(new Employee("Tom", 18, "male", 10000));
+
+        //when
+        webTestClient.get().uri("/employees")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$[0].id").isNotEmpty()
+            .jsonPath("$[0].name").isEqualTo("Tom")
+            .jsonPath("$[0].salary").isEqualTo(10000);
+    }
+
+    @Test
+    void should_stream_employees_as_ndjson_when_called_get_all_given_accept_ndjson() {
+        //given
+        employeeRepository.insert(Arrays.asList(new Employee("Tom", 18, "male", 1000), new Employee("Tom1", 19, "male", 1001)));
+
+        //when
+        String body = webTestClient.get().uri("/employees")
+            .accept(MediaType.parseMediaType("application/x-ndjson"))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(String.class)
+            .returnResult().getResponseBody();
+
+        //then
+        assertEquals(2, body.trim().split("\n").length);
+    }
+
+    @Test
+    void should_return_not_found_when_called_get_one_by_id_given_employee_id_not_exists() {
+        //when
+        webTestClient.get().uri("/employees/5f0c6a2b9d1e8a3b4c5d6e7f")
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody()
+            .jsonPath("$.status").isEqualTo("NOT_FOUND");
+    }
+
+    @Test
+    void should_return_page_when_called_get_paginated_given_3_employees_page_1_page_size_2() {
+        //given
+        employeeRepository.insert(Arrays.asList(
+            new Employee("Tom", 18, "male", 1000),
+            new Employee("Tom1", 19, "male", 1001),
+            new Employee("Tom2", 20, "male", 1002)
+        ));
+
+        //when
+        webTestClient.get().uri("/employees?page=1&pageSize=2")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.content.length()").isEqualTo(2)
+            .jsonPath("$.totalElements").isEqualTo(3);
+    }
+
+    @Test
+    void should_increment_company_employees_number_when_called_create_given_employee_of_company() {
+        //given
+        Company company = new Company("OOCL", 0);
+        companyRepository.insert(company);
+        String employeeJson = "{\"name\": \"tom\", \"age\": 19, \"gender\": \"female\", \"salary\": 7000, \"companyId\": \"" + company.getCompanyId() + "\"}";
+
+        //when
+        webTestClient.post().uri("/employees")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(employeeJson)
+            .exchange()
+            .expectStatus().isCreated()
+            .expectBody()
+            .jsonPath("$.name").isEqualTo("tom");
+
+        //then
+        assertEquals(1, companyRepository.findById(company.getCompanyId()).get().getEmployeesNumber());
+    }
+}
@@ -0,0 +1,41 @@
+package com.thoughtworks.springbootemployee.mapper;
+
+import com.thoughtworks.springbootemployee.dto.CompanyRequest;
+import com.thoughtworks.springbootemployee.dto.CompanyResponse;
+import com.thoughtworks.springbootemployee.entity.Company;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CompanyMapperTest {
+    CompanyMapper companyMapper = new CompanyMapper();
+
+    @Test
+    void should_copy_every_field_when_to_entity_given_company_request() {
+        //given
+        CompanyRequest companyRequest = new CompanyRequest("OOCL", 100);
+
+        //when
+        Company actual = companyMapper.toEntity(companyRequest);
+
+        //then
+        assertNull(actual.getCompanyId());
+        assertEquals("OOCL", actual.getCompanyName());
+        assertEquals(100, actual.getEmployeesNumber());
+    }
+
+    @Test
+    void should_copy_every_field_when_to_response_given_company() {
+        //given
+        Company company = new Company("1", "OOCL", 100);
+
+        //when
+        CompanyResponse actual = companyMapper.toResponse(company);
+
+        //then
+        assertEquals("1", actual.getCompanyId());
+        assertEquals("OOCL", actual.getCompanyName());
+        assertEquals(100, actual.getEmployeesNumber());
+    }
+}
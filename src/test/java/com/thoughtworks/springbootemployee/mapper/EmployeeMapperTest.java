@@ -0,0 +1,48 @@
+package com.thoughtworks.springbootemployee.mapper;
+
+import com.thoughtworks.springbootemployee.dto.EmployeeRequest;
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import com.thoughtworks.springbootemployee.entity.Employee;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EmployeeMapperTest {
+    EmployeeMapper employeeMapper = new EmployeeMapper();
+
+    @Test
+    void should_copy_every_field_when_to_entity_given_employee_request() {
+        //given
+        EmployeeRequest employeeRequest = new EmployeeRequest("Tom", 18, "male", 1000, "1");
+
+        //when
+        Employee actual = employeeMapper.toEntity(employeeRequest);
+
+        //then
+        assertNull(actual.getId());
+        assertEquals("Tom", actual.getName());
+        assertEquals(18, actual.getAge());
+        assertEquals("male", actual.getGender());
+        assertEquals(1000, actual.getSalary());
+        assertEquals("1", actual.getCompanyId());
+    }
+
+    @Test
+    void should_copy_every_field_when_to_response_given_employee() {
+        //given
+        Employee employee = new Employee("Tom", 18, "male", 1000, "1");
+        employee.setId("2");
+
+        //when
+        EmployeeResponse actual = employeeMapper.toResponse(employee);
+
+        //then
+        assertEquals("2", actual.getId());
+        assertEquals("Tom", actual.getName());
+        assertEquals(18, actual.getAge());
+        assertEquals("male", actual.getGender());
+        assertEquals(1000, actual.getSalary());
+        assertEquals("1", actual.getCompanyId());
+    }
+}
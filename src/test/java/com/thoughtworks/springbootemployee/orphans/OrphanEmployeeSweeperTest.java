@@ -0,0 +1,124 @@
+package com.thoughtworks.springbootemployee.orphans;
+
+import com.thoughtworks.springbootemployee.config.CacheConfig;
+import com.thoughtworks.springbootemployee.entity.Company;
+import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+import com.thoughtworks.springbootemployee.repository.CompanyRepository;
+import com.thoughtworks.springbootemployee.repository.EmployeeRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrphanEmployeeSweeperTest {
+    @Mock
+    EmployeeRepository employeeRepository;
+
+    @Mock
+    CompanyRepository companyRepository;
+
+    @Mock
+    CacheManager cacheManager;
+
+    @Mock
+    Cache cache;
+
+    @Test
+    void should_detach_only_employees_of_missing_companies_when_sweep_given_employees_of_existing_and_deleted_companies() {
+        //given
+        OrphanEmployeeSweeper sweeper = new OrphanEmployeeSweeper(employeeRepository, companyRepository, cacheManager, "detach", 10, 5, Duration.ZERO);
+        Employee kept = employee("5f0c2b6e1c9d440000a1b2c1", "company1");
+        Employee orphan = employee("5f0c2b6e1c9d440000a1b2c2", "company2");
+        Company company = new Company("company1", "OOCL", 1);
+        when(employeeRepository.findProjected(any(Query.class), any(FieldSelection.class))).thenReturn(Arrays.asList(kept, orphan));
+        when(companyRepository.findProjected(any(Query.class), any(FieldSelection.class))).thenReturn(Collections.singletonList(company));
+        when(employeeRepository.detachFromCompany(any(Query.class))).thenReturn(1L);
+        when(cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE)).thenReturn(cache);
+        ArgumentCaptor<Query> detached = ArgumentCaptor.forClass(Query.class);
+
+        //when
+        long swept = sweeper.sweep();
+
+        //then
+        assertEquals(1, swept);
+        verify(employeeRepository).detachFromCompany(detached.capture());
+        assertEquals(new Document("$in", Collections.singletonList(orphan.getId())), detached.getValue().getQueryObject().get("id"));
+        assertEquals(new Document("$in", Collections.singleton("company2")), detached.getValue().getQueryObject().get("companyId"));
+        verify(employeeRepository, never()).deleteMatching(any(Query.class));
+        verify(cache).evict(orphan.getId());
+    }
+
+    @Test
+    void should_resume_after_last_employee_of_previous_run_when_sweep_given_full_batches() {
+        //given
+        OrphanEmployeeSweeper sweeper = new OrphanEmployeeSweeper(employeeRepository, companyRepository, cacheManager, "delete", 1, 1, Duration.ZERO);
+        Employee first = employee("5f0c2b6e1c9d440000a1b2c1", "company1");
+        Company company = new Company("company1", "OOCL", 1);
+        ArgumentCaptor<Query> batches = ArgumentCaptor.forClass(Query.class);
+        when(employeeRepository.findProjected(batches.capture(), any(FieldSelection.class)))
+            .thenReturn(Collections.singletonList(first))
+            .thenReturn(Collections.emptyList());
+        when(companyRepository.findProjected(any(Query.class), any(FieldSelection.class))).thenReturn(Collections.singletonList(company));
+
+        //when
+        sweeper.sweep();
+        sweeper.sweep();
+
+        //then
+        assertEquals(2, batches.getAllValues().size());
+        assertEquals(1, batches.getAllValues().get(0).getLimit());
+        assertEquals(new Document("$gt", first.getId()), batches.getAllValues().get(1).getQueryObject().get("id"));
+        verify(employeeRepository, never()).deleteMatching(any(Query.class));
+        verifyNoInteractions(cacheManager);
+    }
+
+    @Test
+    void should_sweep_on_own_thread_and_skip_tick_when_request_sweep_given_previous_run_pausing() {
+        //given
+        OrphanEmployeeSweeper sweeper = new OrphanEmployeeSweeper(employeeRepository, companyRepository, cacheManager, "detach", 1, 2, Duration.ofHours(1));
+        Employee first = employee("5f0c2b6e1c9d440000a1b2c1", "company1");
+        when(employeeRepository.findProjected(any(Query.class), any(FieldSelection.class))).thenReturn(Collections.singletonList(first));
+        when(companyRepository.findProjected(any(Query.class), any(FieldSelection.class)))
+            .thenReturn(Collections.singletonList(new Company("company1", "OOCL", 1)));
+
+        //when
+        sweeper.requestSweep();
+        verify(employeeRepository, timeout(1000)).findProjected(any(Query.class), any(FieldSelection.class));
+        sweeper.requestSweep();
+
+        //then
+        verify(employeeRepository, after(100).times(1)).findProjected(any(Query.class), any(FieldSelection.class));
+        sweeper.shutdown();
+    }
+
+    @Test
+    void should_throw_illegal_argument_exception_when_create_given_action_keep() {
+        //when
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new OrphanEmployeeSweeper(employeeRepository, companyRepository, cacheManager, "keep", 10, 5, Duration.ZERO)
+        );
+    }
+
+    private static Employee employee(String id, String companyId) {
+        Employee employee = new Employee("Tom", 18, "male", 1000, companyId);
+        employee.setId(id);
+        return employee;
+    }
+}
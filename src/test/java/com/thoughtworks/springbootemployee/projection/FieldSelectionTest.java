@@ -0,0 +1,44 @@
+package com.thoughtworks.springbootemployee.projection;
+
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FieldSelectionTest {
+    @Test
+    void should_select_all_fields_when_parse_given_no_fields() {
+        //when
+        FieldSelection selection = FieldSelection.parse(" ", EmployeeResponse.class);
+
+        //then
+        assertTrue(selection.isAll());
+        assertTrue(selection.applyTo(new Query()).getFieldsObject().isEmpty());
+    }
+
+    @Test
+    void should_include_only_selected_fields_in_query_when_apply_to_given_fields_name_and_salary() {
+        //given
+        FieldSelection selection = FieldSelection.parse("name, salary,", EmployeeResponse.class);
+
+        //when
+        Document fields = selection.applyTo(new Query()).getFieldsObject();
+
+        //then
+        assertEquals(new Document("name", 1).append("salary", 1), fields);
+    }
+
+    @Test
+    void should_throw_illegal_argument_exception_when_parse_given_unknown_field() {
+        //then
+        assertThrows(
+            IllegalArgumentException.class,
+            // when
+            () -> FieldSelection.parse("name,password", EmployeeResponse.class)
+        );
+    }
+}
@@ -0,0 +1,27 @@
+package com.thoughtworks.springbootemployee.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NameTokensTest {
+    @Test
+    void should_split_into_distinct_lower_case_tokens_without_accents_when_of_given_mixed_name() {
+        //when
+        List<String> tokens = NameTokens.of("  Jos\u00e9 O'Neil-Jos\u00e9  2nd ");
+
+        //then
+        assertEquals(Arrays.asList("jose", "o", "neil", "2nd"), tokens);
+    }
+
+    @Test
+    void should_return_no_tokens_when_of_given_name_without_letters_or_digits() {
+        //then
+        assertTrue(NameTokens.of(" -- ").isEmpty());
+        assertTrue(NameTokens.of(null).isEmpty());
+    }
+}
@@ -1,25 +1,47 @@
 package com.thoughtworks.springbootemployee.services;
 
+import com.thoughtworks.springbootemployee.batch.BatchResult;
+import com.thoughtworks.springbootemployee.batch.BulkInserter;
+import com.thoughtworks.springbootemployee.batch.BulkUpdateResult;
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
 import com.thoughtworks.springbootemployee.entity.Company;
+import com.thoughtworks.springbootemployee.entity.CompanyStats;
 import com.thoughtworks.springbootemployee.entity.Employee;
 import com.thoughtworks.springbootemployee.exceptions.CompanyNotFoundException;
+import com.thoughtworks.springbootemployee.existence.ExistenceIndex;
+import com.thoughtworks.springbootemployee.pagination.CountedPage;
+import com.thoughtworks.springbootemployee.pagination.CursorPage;
+import com.thoughtworks.springbootemployee.pagination.Cursors;
+import com.thoughtworks.springbootemployee.pagination.TotalCount;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
 import com.thoughtworks.springbootemployee.repository.CompanyRepository;
 import com.thoughtworks.springbootemployee.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.mongodb.core.query.Query;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +55,17 @@ class CompanyServiceTest {
     @Mock
     EmployeeRepository employeeRepository;
 
+    @Mock
+    BulkInserter bulkInserter;
+
+    @Mock
+    ExistenceIndex existenceIndex;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(existenceIndex.mightContainCompany(anyString())).thenReturn(true);
+    }
+
     @Test
     void should_return_all_companies_when_get_all_given_repository_with_all_companies() {
         //given
@@ -46,6 +79,22 @@ class CompanyServiceTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    void should_stream_all_companies_when_stream_all_given_repository_with_all_companies() {
+        //given
+        List<Company> expected = Arrays.asList(new Company(), new Company());
+        when(companyRepository.streamAllBy()).thenReturn(expected.stream());
+
+        //when
+        List<Company> actual;
+        try (Stream<Company> stream = companyService.streamAll()) {
+            actual = stream.collect(Collectors.toList());
+        }
+
+        //then
+        assertEquals(expected, actual);
+    }
+
     @Test
     void should_return_targeted_company_when_get_one_given_a_company_id_in_repository() {
         //given
@@ -81,8 +130,7 @@ class CompanyServiceTest {
         Employee employee1 = new Employee();
         Employee employee2 = new Employee();
         List<Employee> expected = Arrays.asList(employee1, employee2);
-        when(companyRepository.existsById(companyId)).thenReturn(true);
-        when(employeeRepository.findAllByCompanyId(companyId)).thenReturn(expected);
+        when(companyRepository.streamEmployees(companyId, FieldSelection.ALL)).thenReturn(Optional.of(expected.stream()));
 
         //when
         List<Employee> actual = companyService.getCompanyEmployees(companyId);
@@ -91,11 +139,28 @@ class CompanyServiceTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    void should_query_selected_employee_fields_when_get_company_employees_given_company_id_and_fields_name() {
+        //given
+        String companyId = "1";
+        FieldSelection fields = FieldSelection.parse("name", EmployeeResponse.class);
+        List<Employee> expected = Collections.singletonList(new Employee("Tom", null, null, null));
+        when(companyRepository.streamEmployees(companyId, fields)).thenReturn(Optional.of(expected.stream()));
+
+        //when
+        List<Employee> actual = companyService.getCompanyEmployees(companyId, fields);
+
+        //then
+        assertEquals(expected, actual);
+        verify(companyRepository, never()).existsById(anyString());
+        verifyNoInteractions(employeeRepository);
+    }
+
     @Test
     void should_throw_company_not_found_exception_when_get_company_employees_given_company_id_not_exists() {
         //given
         String companyId = "1";
-        when(companyRepository.existsById(companyId)).thenReturn(false);
+        when(companyRepository.streamEmployees(companyId, FieldSelection.ALL)).thenReturn(Optional.empty());
 
         //when
         assertThrows(
@@ -105,6 +170,105 @@ class CompanyServiceTest {
         );
     }
 
+    @Test
+    void should_return_first_page_and_next_cursor_when_get_company_employees_after_given_no_cursor() {
+        //given
+        String companyId = "1";
+        when(companyRepository.existsById(companyId)).thenReturn(true);
+        Employee employee1 = new Employee();
+        employee1.setId("5f0c2b6e1c9d440000a1b2c1");
+        Employee employee2 = new Employee();
+        employee2.setId("5f0c2b6e1c9d440000a1b2c2");
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(employeeRepository.findProjected(query.capture(), eq(FieldSelection.ALL))).thenReturn(Arrays.asList(employee1, employee2));
+
+        //when
+        CursorPage<Employee> actual = companyService.getCompanyEmployeesAfter(companyId, null, 1, FieldSelection.ALL);
+
+        //then
+        assertEquals(Collections.singletonList(employee1), actual.getContent());
+        assertNotNull(actual.getNextCursor());
+        assertEquals(2, query.getValue().getLimit());
+        assertEquals(companyId, query.getValue().getQueryObject().get("companyId"));
+    }
+
+    @Test
+    void should_throw_company_not_found_exception_without_reading_employees_when_get_company_employees_after_given_company_not_exists() {
+        //given
+        String companyId = "1";
+        when(companyRepository.existsById(companyId)).thenReturn(false);
+
+        //when
+        assertThrows(
+            CompanyNotFoundException.class,
+            () -> companyService.getCompanyEmployeesAfter(companyId, null, 10, FieldSelection.ALL)
+        );
+        verify(employeeRepository, never()).findProjected(any(Query.class), any(FieldSelection.class));
+    }
+
+    @Test
+    void should_throw_company_not_found_exception_without_query_when_get_company_employees_given_id_not_in_existence_index() {
+        //given
+        String companyId = "1";
+        when(existenceIndex.mightContainCompany(companyId)).thenReturn(false);
+
+        //when
+        assertThrows(
+            CompanyNotFoundException.class,
+            () -> companyService.getCompanyEmployees(companyId)
+        );
+        verifyNoInteractions(companyRepository, employeeRepository);
+    }
+
+    @Test
+    void should_return_aggregated_stats_when_get_stats_given_company_id_with_employees() {
+        //given
+        String companyId = "1";
+        CompanyStats expected = new CompanyStats(companyId, 2, 2001, 1000.5, 1000, 1001, 18.5, Collections.singletonMap("male", 2L));
+        when(companyRepository.existsById(companyId)).thenReturn(true);
+        when(employeeRepository.aggregateCompanyStats(Collections.singletonList(companyId))).thenReturn(Collections.singletonList(expected));
+
+        //when
+        CompanyStats actual = companyService.getStats(companyId);
+
+        //then
+        assertSame(expected, actual);
+        verify(employeeRepository, never()).findAllByCompanyId(companyId);
+    }
+
+    @Test
+    void should_return_empty_stats_when_get_stats_given_company_id_without_employees() {
+        //given
+        String companyId = "1";
+        when(companyRepository.existsById(companyId)).thenReturn(true);
+        when(employeeRepository.aggregateCompanyStats(Collections.singletonList(companyId))).thenReturn(Collections.emptyList());
+
+        //when
+        CompanyStats actual = companyService.getStats(companyId);
+
+        //then
+        assertEquals(companyId, actual.getCompanyId());
+        assertEquals(0, actual.getHeadcount());
+        assertNull(actual.getSalaryAverage());
+    }
+
+    @Test
+    void should_return_stats_in_requested_order_when_get_stats_given_company_ids_and_one_without_employees() {
+        //given
+        List<String> companyIds = Arrays.asList("1", "2");
+        CompanyStats stats = new CompanyStats("2", 1, 1000, 1000.0, 1000, 1000, 18.0, Collections.singletonMap("female", 1L));
+        when(employeeRepository.aggregateCompanyStats(companyIds)).thenReturn(Collections.singletonList(stats));
+
+        //when
+        List<CompanyStats> actual = companyService.getStats(companyIds);
+
+        //then
+        assertEquals(2, actual.size());
+        assertEquals("1", actual.get(0).getCompanyId());
+        assertEquals(0, actual.get(0).getHeadcount());
+        assertSame(stats, actual.get(1));
+    }
+
     @Test
     void should_return_2_companies_when_get_all_paginated_give_repository_with_three_companies_page_1_page_size_2() {
         //given
@@ -122,6 +286,97 @@ class CompanyServiceTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    void should_return_exact_total_when_get_all_paginated_given_total_exact() {
+        //given
+        when(companyRepository.findSliceBy(any())).thenReturn(new SliceImpl<>(Arrays.asList(new Company(), new Company())));
+        when(companyRepository.count()).thenReturn(3L);
+
+        //when
+        CountedPage<Company> actual = companyService.getAllPaginated(1, 2, TotalCount.EXACT);
+
+        //then
+        assertEquals(2, actual.getContent().size());
+        assertEquals(3L, actual.getTotalElements());
+        assertTrue(actual.isTotalExact());
+    }
+
+    @Test
+    void should_return_slice_without_counting_when_get_slice_given_page_1_page_size_2() {
+        //given
+        Slice<Company> expected = new SliceImpl<>(Arrays.asList(new Company(), new Company()));
+        when(companyRepository.findSliceBy(any())).thenReturn(expected);
+
+        //when
+        Slice<Company> actual = companyService.getSlice(1, 2);
+
+        //then
+        assertEquals(expected, actual);
+        verify(companyRepository, never()).count();
+    }
+
+    @Test
+    void should_return_estimated_total_when_get_all_paginated_given_total_estimated() {
+        //given
+        when(companyRepository.findSliceBy(any())).thenReturn(new SliceImpl<>(Arrays.asList(new Company(), new Company())));
+        when(companyRepository.estimatedCount()).thenReturn(3L);
+
+        //when
+        CountedPage<Company> actual = companyService.getAllPaginated(1, 2, TotalCount.ESTIMATED);
+
+        //then
+        assertEquals(3L, actual.getTotalElements());
+        assertFalse(actual.isTotalExact());
+        verify(companyRepository, never()).count();
+    }
+
+    @Test
+    void should_count_once_and_reuse_total_when_get_all_paginated_twice_given_total_cached() {
+        //given
+        when(companyRepository.findSliceBy(any())).thenReturn(new SliceImpl<>(Arrays.asList(new Company(), new Company())));
+        when(companyRepository.count()).thenReturn(3L);
+
+        //when
+        CountedPage<Company> first = companyService.getAllPaginated(1, 2, TotalCount.CACHED);
+        CountedPage<Company> second = companyService.getAllPaginated(2, 2, TotalCount.CACHED);
+
+        //then
+        assertTrue(first.isTotalExact());
+        assertFalse(second.isTotalExact());
+        assertEquals(3L, second.getTotalElements());
+        verify(companyRepository, times(1)).count();
+    }
+
+    @Test
+    void should_return_first_company_and_next_cursor_when_get_all_after_given_no_cursor_and_limit_1() {
+        //given
+        Company company1 = new Company("5f8e9c0a1c9d440000a1b2c1", "alibaba", 100);
+        Company company2 = new Company("5f8e9c0a1c9d440000a1b2c2", "tencent", 100);
+        when(companyRepository.findAllBy(any())).thenReturn(Arrays.asList(company1, company2));
+
+        //when
+        CursorPage<Company> actual = companyService.getAllAfter(null, 1);
+
+        //then
+        assertEquals(Collections.singletonList(company1), actual.getContent());
+        assertEquals(Cursors.encode(company1.getCompanyId()), actual.getNextCursor());
+    }
+
+    @Test
+    void should_seek_after_last_id_when_get_all_after_given_cursor() {
+        //given
+        String lastId = "5f8e9c0a1c9d440000a1b2c1";
+        Company company2 = new Company("5f8e9c0a1c9d440000a1b2c2", "tencent", 100);
+        when(companyRepository.findAllByCompanyIdGreaterThan(eq(lastId), any())).thenReturn(Collections.singletonList(company2));
+
+        //when
+        CursorPage<Company> actual = companyService.getAllAfter(Cursors.encode(lastId), 1);
+
+        //then
+        assertEquals(Collections.singletonList(company2), actual.getContent());
+        assertNull(actual.getNextCursor());
+    }
+
     @Test
     void should_return_created_company_when_create_given_an_empty_repository_and_company_request() {
         //given
@@ -131,6 +386,21 @@ class CompanyServiceTest {
         //when
         Company actual = companyService.create(expected);
 
+        //then
+        assertEquals(expected, actual);
+        assertEquals(0, actual.getEmployeesNumber());
+    }
+
+    @Test
+    void should_bulk_insert_companies_when_create_all_given_companies_and_ordered() {
+        //given
+        Iterator<Company> companies = Arrays.asList(new Company(), new Company()).iterator();
+        BatchResult expected = new BatchResult();
+        when(bulkInserter.insertAll(any(), eq(Company.class), any(), any(), eq(true), any())).thenReturn(expected);
+
+        //when
+        BatchResult actual = companyService.createAll(companies, true);
+
         //then
         assertEquals(expected, actual);
     }
@@ -139,16 +409,16 @@ class CompanyServiceTest {
     void should_return_updated_company_when_update_given_company_id_and_company_update_request() {
         //given
         String companyId = "1";
-        Company newCompany = new Company(companyId, "alibaba", 10);
-        when(companyRepository.existsById(companyId)).thenReturn(true);
-        when(companyRepository.save(newCompany)).thenReturn(newCompany);
+        Company newCompany = new Company("alibaba", 10);
+        Company updatedCompany = new Company(companyId, "alibaba", 3);
+        when(companyRepository.updateDetails(companyId, newCompany)).thenReturn(Optional.of(updatedCompany));
 
         //when
         Company actual = companyService.update(companyId, newCompany);
 
         //then
-        verify(companyRepository, times(1)).save(newCompany);
-        assertEquals(newCompany, actual);
+        verify(companyRepository, never()).save(any());
+        assertEquals(updatedCompany, actual);
     }
 
     @Test
@@ -156,7 +426,7 @@ class CompanyServiceTest {
         //given
         String companyId = "1";
         Company company = new Company();
-        when(companyRepository.existsById(companyId)).thenReturn(false);
+        when(companyRepository.updateDetails(companyId, company)).thenReturn(Optional.empty());
 
         //then
         assertThrows(
@@ -167,6 +437,51 @@ class CompanyServiceTest {
         );
     }
 
+    @Test
+    void should_return_patched_company_when_patch_given_company_id_and_company_name_only() {
+        //given
+        String companyId = "1";
+        Company patch = new Company("alibaba", null);
+        Company patchedCompany = new Company(companyId, "alibaba", 3);
+        when(companyRepository.patchDetails(companyId, patch)).thenReturn(Optional.of(patchedCompany));
+
+        //when
+        Company actual = companyService.patch(companyId, patch);
+
+        //then
+        verify(companyRepository, never()).save(any());
+        assertEquals(patchedCompany, actual);
+    }
+
+    @Test
+    void should_throw_company_not_found_exception_when_patch_given_no_company_matched() {
+        //given
+        String companyId = "1";
+        Company patch = new Company("alibaba", null);
+        when(companyRepository.patchDetails(companyId, patch)).thenReturn(Optional.empty());
+
+        //then
+        assertThrows(
+            CompanyNotFoundException.class,
+            //when
+            () -> companyService.patch(companyId, patch)
+        );
+    }
+
+    @Test
+    void should_return_recount_result_when_recount_employees_numbers_given_companies_with_drifted_counters() {
+        //given
+        BulkUpdateResult result = new BulkUpdateResult(3, 1);
+        when(companyRepository.recountEmployeesNumbers()).thenReturn(result);
+
+        //when
+        BulkUpdateResult actual = companyService.recountEmployeesNumbers();
+
+        //then
+        assertEquals(result, actual);
+        verifyNoInteractions(employeeRepository);
+    }
+
     @Test
     void should_call_repository_delete_once_with_company_id_1_when_delete_given_company_id_1() {
         //given
@@ -177,5 +492,36 @@ class CompanyServiceTest {
 
         //then
         verify(companyRepository, times(1)).deleteById(companyId);
+        verifyNoInteractions(employeeRepository);
+    }
+
+    @Test
+    void should_delete_employees_with_one_query_when_delete_given_company_id_and_cascade_delete() {
+        //given
+        String companyId = "1";
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+
+        //when
+        companyService.delete(companyId, EmployeeCascade.DELETE);
+
+        //then
+        verify(companyRepository, times(1)).deleteById(companyId);
+        verify(employeeRepository, times(1)).deleteMatching(query.capture());
+        assertEquals(companyId, query.getValue().getQueryObject().get("companyId"));
+        verify(employeeRepository, never()).detachFromCompany(any(Query.class));
+    }
+
+    @Test
+    void should_detach_employees_with_one_query_when_delete_given_company_id_and_cascade_detach() {
+        //given
+        String companyId = "1";
+
+        //when
+        companyService.delete(companyId, EmployeeCascade.DETACH);
+
+        //then
+        verify(companyRepository, times(1)).deleteById(companyId);
+        verify(employeeRepository, times(1)).detachFromCompany(any(Query.class));
+        verify(employeeRepository, never()).deleteMatching(any(Query.class));
     }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.thoughtworks.springbootemployee.services;
+
+import com.thoughtworks.springbootemployee.batch.BulkInserter;
+import com.thoughtworks.springbootemployee.config.CacheConfig;
+import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.existence.ExistenceIndex;
+import com.thoughtworks.springbootemployee.repository.CompanyRepository;
+import com.thoughtworks.springbootemployee.repository.EmployeeRepository;
+import com.thoughtworks.springbootemployee.repository.Patched;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {EmployeeService.class, CacheConfig.class})
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+class EmployeeServiceCacheTest {
+    @Autowired
+    EmployeeService employeeService;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @MockBean
+    EmployeeRepository employeeRepository;
+
+    @MockBean
+    CompanyRepository companyRepository;
+
+    @MockBean
+    BulkInserter bulkInserter;
+
+    @MockBean
+    ExistenceIndex existenceIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(existenceIndex.mightContainEmployee(anyString())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE).clear();
+    }
+
+    @Test
+    void should_query_repository_once_when_get_one_by_id_twice_given_same_employee_id() {
+        //given
+        Employee employee = new Employee("1", "Tom", 18, "male", 10000);
+        when(employeeRepository.findById("1")).thenReturn(Optional.of(employee));
+
+        //when
+        employeeService.getOneById("1");
+        Employee actual = employeeService.getOneById("1");
+
+        //then
+        assertEquals(employee, actual);
+        verify(employeeRepository, times(1)).findById("1");
+    }
+
+    @Test
+    void should_return_updated_employee_without_query_when_get_one_by_id_given_employee_updated() {
+        //given
+        Employee employee = new Employee("1", "Tom", 18, "male", 10000);
+        Employee updatedEmployee = new Employee("1", "Tom updated", 19, "male", 20000);
+        when(employeeRepository.findById("1")).thenReturn(Optional.of(employee));
+        when(employeeRepository.replaceById("1", updatedEmployee)).thenReturn(Optional.of(new Patched<>(employee, updatedEmployee)));
+        employeeService.getOneById("1");
+
+        //when
+        employeeService.update("1", updatedEmployee);
+        Employee actual = employeeService.getOneById("1");
+
+        //then
+        assertEquals(updatedEmployee, actual);
+        verify(employeeRepository, times(1)).findById("1");
+    }
+
+    @Test
+    void should_query_repository_again_when_get_one_by_id_given_employee_deleted() {
+        //given
+        Employee employee = new Employee("1", "Tom", 18, "male", 10000);
+        when(employeeRepository.findById("1")).thenReturn(Optional.of(employee));
+        when(employeeRepository.findAndRemoveById("1")).thenReturn(Optional.of(employee));
+        employeeService.getOneById("1");
+
+        //when
+        employeeService.delete("1");
+        employeeService.getOneById("1");
+
+        //then
+        verify(employeeRepository, times(2)).findById("1");
+    }
+}
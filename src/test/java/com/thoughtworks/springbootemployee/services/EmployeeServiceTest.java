@@ -1,25 +1,60 @@
 package com.thoughtworks.springbootemployee.services;
 
+import com.thoughtworks.springbootemployee.batch.BatchItemResult;
+import com.thoughtworks.springbootemployee.batch.BatchResult;
+import com.thoughtworks.springbootemployee.batch.BulkInserter;
+import com.thoughtworks.springbootemployee.batch.BulkUpdateResult;
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
 import com.thoughtworks.springbootemployee.entity.Employee;
 import com.thoughtworks.springbootemployee.exceptions.EmployeeNotFoundException;
+import com.thoughtworks.springbootemployee.existence.ExistenceIndex;
+import com.thoughtworks.springbootemployee.filter.EmployeeFilter;
+import com.thoughtworks.springbootemployee.filter.EmployeeSort;
+import com.thoughtworks.springbootemployee.pagination.CountedPage;
+import com.thoughtworks.springbootemployee.pagination.CursorPage;
+import com.thoughtworks.springbootemployee.pagination.Cursors;
+import com.thoughtworks.springbootemployee.pagination.TotalCount;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+import com.thoughtworks.springbootemployee.repository.CompanyRepository;
 import com.thoughtworks.springbootemployee.repository.EmployeeRepository;
+import com.thoughtworks.springbootemployee.repository.Patched;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Query;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +65,20 @@ class EmployeeServiceTest {
     @Mock
     EmployeeRepository employeeRepository;
 
+    @Mock
+    CompanyRepository companyRepository;
+
+    @Mock
+    BulkInserter bulkInserter;
+
+    @Mock
+    ExistenceIndex existenceIndex;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(existenceIndex.mightContainEmployee(anyString())).thenReturn(true);
+    }
+
     @Test
     void should_return_all_employee_when_get_all_given_repository_with_all_employee() {
         //given
@@ -43,6 +92,22 @@ class EmployeeServiceTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    void should_stream_all_employees_when_stream_all_given_repository_with_all_employee() {
+        //given
+        List<Employee> expected = Arrays.asList(new Employee(), new Employee());
+        when(employeeRepository.streamAllBy()).thenReturn(expected.stream());
+
+        //when
+        List<Employee> actual;
+        try (Stream<Employee> stream = employeeService.streamAll()) {
+            actual = stream.collect(Collectors.toList());
+        }
+
+        //then
+        assertEquals(expected, actual);
+    }
+
     @Test
     void should_return_targeted_employee_when_get_one_by_id_given_an_employee_id_repository_with_employee() {
         //given
@@ -72,6 +137,21 @@ class EmployeeServiceTest {
         );
     }
 
+    @Test
+    void should_throw_employee_not_found_exception_without_query_when_get_one_by_id_given_id_not_in_existence_index() {
+        //given
+        String employeeId = "1";
+        when(existenceIndex.mightContainEmployee(employeeId)).thenReturn(false);
+
+        //then
+        assertThrows(
+            EmployeeNotFoundException.class,
+            // when
+            () -> employeeService.getOneById(employeeId)
+        );
+        verifyNoInteractions(employeeRepository);
+    }
+
     @Test
     void should_return_created_employee_when_create_given_an_empty_repository_and_employee_request() {
         //given
@@ -83,6 +163,65 @@ class EmployeeServiceTest {
 
         //then
         assertEquals(expected, actual);
+        verify(existenceIndex, times(1)).addEmployee("1");
+        verifyNoInteractions(companyRepository);
+    }
+
+    @Test
+    void should_increment_company_employees_number_when_create_given_employee_of_company() {
+        //given
+        Employee expected = new Employee("Tom", 18, "male", 10000, "c1");
+        when(employeeRepository.insert(expected)).thenReturn(expected);
+
+        //when
+        employeeService.create(expected);
+
+        //then
+        verify(companyRepository, times(1)).incrementEmployeesNumber("c1", 1);
+    }
+
+    @Test
+    void should_bulk_insert_employees_when_create_all_given_employees_and_unordered() {
+        //given
+        Iterator<Employee> employees = Arrays.asList(new Employee(), new Employee()).iterator();
+        BatchResult expected = new BatchResult();
+        when(bulkInserter.insertAll(any(), eq(Employee.class), any(), any(), eq(false), any())).thenReturn(expected);
+
+        //when
+        BatchResult actual = employeeService.createAll(employees, false);
+
+        //then
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void should_increment_employees_number_of_stored_employees_only_when_create_all_given_one_item_failed() {
+        //given
+        Employee tom = new Employee("1", "Tom", 18, "male", 1000);
+        tom.setCompanyId("c1");
+        Employee tom2 = new Employee("3", "Tom2", 20, "male", 1002);
+        tom2.setCompanyId("c2");
+        Iterator<Employee> employees = Arrays.asList(tom, new Employee("Tom1", 19, "male", 1001, "c1"), tom2).iterator();
+        when(bulkInserter.insertAll(any(), eq(Employee.class), any(), any(), eq(false), any())).thenAnswer(invocation -> {
+            Consumer<List<Employee>> onStored = invocation.getArgument(5);
+            onStored.accept(Arrays.asList(tom, tom2));
+            BatchResult result = new BatchResult();
+            result.add(BatchItemResult.inserted(0, "1"));
+            result.add(BatchItemResult.failed(1, "duplicate"));
+            result.add(BatchItemResult.inserted(2, "3"));
+            return result;
+        });
+
+        //when
+        employeeService.createAll(employees, false);
+
+        //then
+        Map<String, Integer> expected = new HashMap<>();
+        expected.put("c1", 1);
+        expected.put("c2", 1);
+        verify(companyRepository, times(1)).incrementEmployeesNumbers(expected);
+        verify(existenceIndex, times(1)).addEmployee("1");
+        verify(existenceIndex, times(1)).addEmployee("3");
     }
 
     @Test
@@ -118,17 +257,180 @@ class EmployeeServiceTest {
     }
 
     @Test
-    void should_call_repository_update_once_with_new_employee_of_id_1_when_update_given_update_employee_details_of_id_1() {
+    void should_return_slice_without_counting_when_get_slice_given_page_1_page_size_2() {
+        //given
+        Slice<Employee> expected = new SliceImpl<>(Arrays.asList(new Employee(), new Employee()));
+        when(employeeRepository.findSliceBy(any())).thenReturn(expected);
+
+        //when
+        Slice<Employee> actual = employeeService.getSlice(1, 2);
+
+        //then
+        assertEquals(expected, actual);
+        verify(employeeRepository, never()).count();
+    }
+
+    @Test
+    void should_return_estimated_total_when_get_all_paginated_given_total_estimated() {
+        //given
+        when(employeeRepository.findSliceBy(any())).thenReturn(new SliceImpl<>(Arrays.asList(new Employee(), new Employee())));
+        when(employeeRepository.estimatedCount()).thenReturn(3L);
+
+        //when
+        CountedPage<Employee> actual = employeeService.getAllPaginated(1, 2, TotalCount.ESTIMATED);
+
+        //then
+        assertEquals(3L, actual.getTotalElements());
+        assertFalse(actual.isTotalExact());
+        verify(employeeRepository, never()).count();
+    }
+
+    @Test
+    void should_count_once_and_reuse_total_when_get_all_paginated_twice_given_total_cached() {
+        //given
+        when(employeeRepository.findSliceBy(any())).thenReturn(new SliceImpl<>(Arrays.asList(new Employee(), new Employee())));
+        when(employeeRepository.count()).thenReturn(3L);
+
+        //when
+        CountedPage<Employee> first = employeeService.getAllPaginated(1, 2, TotalCount.CACHED);
+        CountedPage<Employee> second = employeeService.getAllPaginated(2, 2, TotalCount.CACHED);
+
+        //then
+        assertTrue(first.isTotalExact());
+        assertFalse(second.isTotalExact());
+        assertEquals(3L, second.getTotalElements());
+        verify(employeeRepository, times(1)).count();
+    }
+
+    @Test
+    void should_return_first_2_employees_and_next_cursor_when_get_all_after_given_no_cursor_and_limit_2() {
+        //given
+        Employee employee1 = new Employee("5f8e9c0a1c9d440000a1b2c1", "Tom", 18, "male", 10000);
+        Employee employee2 = new Employee("5f8e9c0a1c9d440000a1b2c2", "Tom1", 19, "male", 10001);
+        Employee employee3 = new Employee("5f8e9c0a1c9d440000a1b2c3", "Tom2", 20, "male", 10002);
+        when(employeeRepository.findAllBy(any())).thenReturn(Arrays.asList(employee1, employee2, employee3));
+
+        //when
+        CursorPage<Employee> actual = employeeService.getAllAfter(null, 2);
+
+        //then
+        assertEquals(Arrays.asList(employee1, employee2), actual.getContent());
+        assertEquals(Cursors.encode(employee2.getId()), actual.getNextCursor());
+    }
+
+    @Test
+    void should_seek_after_last_id_and_return_no_next_cursor_when_get_all_after_given_cursor_of_last_page() {
+        //given
+        String lastId = "5f8e9c0a1c9d440000a1b2c2";
+        Employee employee3 = new Employee("5f8e9c0a1c9d440000a1b2c3", "Tom2", 20, "male", 10002);
+        when(employeeRepository.findAllByIdGreaterThan(eq(lastId), any())).thenReturn(Collections.singletonList(employee3));
+
+        //when
+        CursorPage<Employee> actual = employeeService.getAllAfter(Cursors.encode(lastId), 2);
+
+        //then
+        assertEquals(Collections.singletonList(employee3), actual.getContent());
+        assertNull(actual.getNextCursor());
+    }
+
+    @Test
+    void should_throw_illegal_argument_exception_without_query_when_get_all_after_given_sort() {
+        //then
+        assertThrows(
+            IllegalArgumentException.class,
+            // when
+            () -> employeeService.getAllAfter(null, 2, new EmployeeFilter(), EmployeeSort.parse("salary"), FieldSelection.ALL)
+        );
+        verifyNoInteractions(employeeRepository);
+    }
+
+    @Test
+    void should_throw_illegal_argument_exception_when_get_all_after_given_invalid_cursor() {
+        //then
+        assertThrows(
+            IllegalArgumentException.class,
+            // when
+            () -> employeeService.getAllAfter("not-a-cursor", 2)
+        );
+    }
+
+    @Test
+    void should_replace_employee_in_one_write_when_update_given_update_employee_details_of_id_1() {
+        //given
+        String employeeId = "1";
+        Employee newEmployee = new Employee(employeeId, "Tom updated", 18, "male", 10000);
+        Employee before = new Employee(employeeId, "Tom", 18, "male", 10000);
+        when(employeeRepository.replaceById(employeeId, newEmployee)).thenReturn(Optional.of(new Patched<>(before, newEmployee)));
+
+        //when
+        Employee actual = employeeService.update(employeeId, newEmployee);
+
+        //then
+        assertEquals(newEmployee, actual);
+        verify(employeeRepository, times(1)).replaceById(employeeId, newEmployee);
+        verify(employeeRepository, never()).findById(anyString());
+        verify(employeeRepository, never()).save(any(Employee.class));
+        verifyNoInteractions(companyRepository);
+    }
+
+    @Test
+    void should_bump_version_when_update_given_employee_of_version_3() {
         //given
         String employeeId = "1";
+        Employee oldEmployee = new Employee(employeeId, "Tom", 18, "male", 10000);
+        oldEmployee.setVersion(3L);
         Employee newEmployee = new Employee(employeeId, "Tom updated", 18, "male", 10000);
-        when(employeeRepository.existsById(employeeId)).thenReturn(true);
+        Employee replaced = new Employee(employeeId, "Tom updated", 18, "male", 10000);
+        replaced.setVersion(4L);
+        when(employeeRepository.replaceById(employeeId, newEmployee)).thenReturn(Optional.of(new Patched<>(oldEmployee, replaced)));
+
+        //when
+        Employee actual = employeeService.update(employeeId, newEmployee);
+
+        //then
+        assertEquals(4L, actual.getVersion());
+    }
+
+    @Test
+    void should_return_version_without_reading_document_when_get_version_given_employee_id() {
+        //given
+        when(employeeRepository.findVersionById("1")).thenReturn(Optional.of(3L));
+
+        //when
+        long actual = employeeService.getVersion("1");
+
+        //then
+        assertEquals(3L, actual);
+        verify(employeeRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void should_throw_employee_not_found_exception_when_get_version_given_employee_id_not_exists() {
+        //given
+        when(employeeRepository.findVersionById("1")).thenReturn(Optional.empty());
+
+        //then
+        assertThrows(
+            EmployeeNotFoundException.class,
+            // when
+            () -> employeeService.getVersion("1")
+        );
+    }
+
+    @Test
+    void should_move_employees_number_between_companies_when_update_given_employee_moved_to_another_company() {
+        //given
+        String employeeId = "1";
+        Employee newEmployee = new Employee("Tom", 18, "male", 10000, "c2");
+        Employee before = new Employee("Tom", 18, "male", 10000, "c1");
+        when(employeeRepository.replaceById(employeeId, newEmployee)).thenReturn(Optional.of(new Patched<>(before, newEmployee)));
 
         //when
         employeeService.update(employeeId, newEmployee);
 
         //then
-        verify(employeeRepository, times(1)).save(newEmployee);
+        verify(companyRepository, times(1)).incrementEmployeesNumber("c1", -1);
+        verify(companyRepository, times(1)).incrementEmployeesNumber("c2", 1);
     }
 
     @Test
@@ -136,7 +438,7 @@ class EmployeeServiceTest {
         //given
         String employeeId = "1";
         Employee employee = new Employee();
-        when(employeeRepository.existsById(employeeId)).thenReturn(false);
+        when(employeeRepository.replaceById(employeeId, employee)).thenReturn(Optional.empty());
 
         //then
         assertThrows(
@@ -147,15 +449,267 @@ class EmployeeServiceTest {
         );
     }
 
+    @Test
+    void should_throw_employee_not_found_exception_without_query_when_update_given_id_not_in_existence_index() {
+        //given
+        String employeeId = "1";
+        when(existenceIndex.mightContainEmployee(employeeId)).thenReturn(false);
+
+        //then
+        assertThrows(
+            EmployeeNotFoundException.class,
+            // when
+            () -> employeeService.update(employeeId, new Employee())
+        );
+        verifyNoInteractions(employeeRepository);
+    }
+
+    @Test
+    void should_return_patched_employee_and_move_employees_number_when_patch_given_company_id_only() {
+        //given
+        String employeeId = "1";
+        Employee patch = new Employee(null, null, null, null, "c2");
+        Employee before = new Employee("Tom", 18, "male", 10000, "c1");
+        Employee after = new Employee("Tom", 18, "male", 10000, "c2");
+        when(employeeRepository.patchById(employeeId, patch)).thenReturn(Optional.of(new Patched<>(before, after)));
+
+        //when
+        Employee actual = employeeService.patch(employeeId, patch);
+
+        //then
+        assertEquals(after, actual);
+        verify(employeeRepository, never()).findById(anyString());
+        verify(employeeRepository, never()).save(any());
+        verify(companyRepository, times(1)).incrementEmployeesNumber("c1", -1);
+        verify(companyRepository, times(1)).incrementEmployeesNumber("c2", 1);
+    }
+
+    @Test
+    void should_throw_employee_not_found_exception_when_patch_given_no_employee_matched() {
+        //given
+        String employeeId = "1";
+        Employee patch = new Employee("Tom", null, null, null);
+        when(employeeRepository.patchById(employeeId, patch)).thenReturn(Optional.empty());
+
+        //then
+        assertThrows(
+            EmployeeNotFoundException.class,
+            // when
+            () -> employeeService.patch(employeeId, patch)
+        );
+        verifyNoInteractions(companyRepository);
+    }
+
     @Test
     void should_call_repository_delete_once_with_employee_id_when_update_given_employee_id_to_delete() {
         //given
         String employeeId = "1";
+        when(employeeRepository.findAndRemoveById(employeeId)).thenReturn(Optional.of(new Employee("Tom", 18, "male", 10000, "c1")));
 
         //when
         employeeService.delete(employeeId);
 
         //then
-        verify(employeeRepository, times(1)).deleteById(employeeId);
+        verify(employeeRepository, times(1)).findAndRemoveById(employeeId);
+        verify(companyRepository, times(1)).incrementEmployeesNumber("c1", -1);
+    }
+
+    @Test
+    void should_not_decrement_employees_number_when_delete_given_employee_id_not_exists() {
+        //given
+        String employeeId = "1";
+        when(employeeRepository.findAndRemoveById(employeeId)).thenReturn(Optional.empty());
+
+        //when
+        employeeService.delete(employeeId);
+
+        //then
+        verifyNoInteractions(companyRepository);
+    }
+
+    @Test
+    void should_query_selected_fields_only_when_get_all_given_fields_name_and_company_id() {
+        //given
+        FieldSelection fields = FieldSelection.parse("name,companyId", EmployeeResponse.class);
+        List<Employee> expected = Collections.singletonList(new Employee("Tom", null, null, null, "c1"));
+        when(employeeRepository.findProjected(any(Query.class), eq(fields))).thenReturn(expected);
+
+        //when
+        List<Employee> actual = employeeService.getAll(fields);
+
+        //then
+        assertEquals(expected, actual);
+        verify(employeeRepository, never()).findAll();
+    }
+
+    @Test
+    void should_return_projected_employee_without_caching_when_get_one_by_id_given_fields_name() {
+        //given
+        FieldSelection fields = FieldSelection.parse("name", EmployeeResponse.class);
+        Employee expected = new Employee("Tom", null, null, null);
+        when(employeeRepository.findProjectedById("1", fields)).thenReturn(Optional.of(expected));
+
+        //when
+        Employee actual = employeeService.getOneById("1", fields);
+
+        //then
+        assertEquals(expected, actual);
+        verify(employeeRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void should_return_next_slice_flag_when_get_slice_given_fields_and_one_more_employee_than_page_size() {
+        //given
+        FieldSelection fields = FieldSelection.parse("name", EmployeeResponse.class);
+        when(employeeRepository.findProjected(any(Query.class), eq(fields)))
+            .thenReturn(Arrays.asList(new Employee(), new Employee(), new Employee()));
+
+        //when
+        Slice<Employee> actual = employeeService.getSlice(1, 2, fields);
+
+        //then
+        assertEquals(2, actual.getContent().size());
+        assertTrue(actual.hasNext());
+    }
+
+    @Test
+    void should_query_filter_with_default_id_sort_and_count_matching_when_get_all_paginated_given_filter() {
+        //given
+        EmployeeFilter filter = new EmployeeFilter(20, 30, null, null, null, Collections.singletonList("male"));
+        List<Employee> expected = Arrays.asList(new Employee(), new Employee());
+        when(employeeRepository.findProjected(any(Query.class), eq(FieldSelection.ALL))).thenReturn(expected);
+        when(employeeRepository.countMatching(any(Query.class))).thenReturn(5L);
+
+        //when
+        Page<Employee> actual = employeeService.getAllPaginated(1, 2, filter, Sort.unsorted(), FieldSelection.ALL);
+
+        //then
+        assertEquals(expected, actual.getContent());
+        assertEquals(5, actual.getTotalElements());
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(employeeRepository).findProjected(query.capture(), eq(FieldSelection.ALL));
+        assertEquals(filter.toQuery().getQueryObject(), query.getValue().getQueryObject());
+        assertEquals(new Document("id", 1), query.getValue().getSortObject());
+        verify(employeeRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void should_count_exactly_when_get_all_paginated_given_filter_and_total_estimated() {
+        //given
+        EmployeeFilter filter = new EmployeeFilter(null, null, null, null, Collections.singletonList("company1"), null);
+        when(employeeRepository.findProjected(any(Query.class), eq(FieldSelection.ALL))).thenReturn(Collections.singletonList(new Employee()));
+        when(employeeRepository.countMatching(any(Query.class))).thenReturn(1L);
+
+        //when
+        CountedPage<Employee> actual = employeeService.getAllPaginated(1, 2, TotalCount.ESTIMATED, filter, Sort.unsorted(), FieldSelection.ALL);
+
+        //then
+        assertEquals(1, actual.getTotalElements());
+        assertTrue(actual.isTotalExact());
+        verify(employeeRepository, never()).estimatedCount();
+    }
+
+    @Test
+    void should_use_plain_find_all_when_get_all_given_empty_filter_and_no_sort() {
+        //given
+        List<Employee> expected = Collections.singletonList(new Employee());
+        when(employeeRepository.findAll()).thenReturn(expected);
+
+        //when
+        List<Employee> actual = employeeService.getAll(new EmployeeFilter(), Sort.unsorted(), FieldSelection.ALL);
+
+        //then
+        assertEquals(expected, actual);
+        verify(employeeRepository, never()).findProjected(any(Query.class), any(FieldSelection.class));
+    }
+
+    @Test
+    void should_rank_whole_name_prefix_then_exact_token_then_other_matches_when_search_given_query_tom() {
+        //given
+        Employee tommy = new Employee("1", "Anna Tommy", 18, "female", 1000);
+        Employee tom = new Employee("2", "Anna Tom", 18, "female", 1000);
+        Employee tomas = new Employee("3", "Tomas Long Name", 18, "male", 1000);
+        Employee tomShort = new Employee("4", "Tomas", 18, "male", 1000);
+        when(employeeRepository.findByNameTokenPrefixes(eq(Collections.singletonList("tom")), anyInt()))
+            .thenReturn(Arrays.asList(tommy, tom, tomas, tomShort));
+
+        //when
+        List<Employee> actual = employeeService.search("Tom", 3);
+
+        //then
+        assertEquals(Arrays.asList(tomShort, tomas, tom), actual);
+    }
+
+    @Test
+    void should_throw_illegal_argument_exception_when_search_given_query_without_letters_or_digits() {
+        //then
+        assertThrows(IllegalArgumentException.class, () -> employeeService.search(" - ", 10));
+        verify(employeeRepository, never()).findByNameTokenPrefixes(any(), anyInt());
+    }
+
+    @Test
+    void should_adjust_salaries_of_filtered_employees_with_salary_in_one_update_when_adjust_salaries_given_company_gender_and_3_percent() {
+        //given
+        EmployeeFilter filter = new EmployeeFilter(null, null, null, null, Collections.singletonList("1"), Collections.singletonList("male"));
+        BulkUpdateResult expected = new BulkUpdateResult(2, 2);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(employeeRepository.adjustSalaries(query.capture(), eq(1.03), eq(0))).thenReturn(expected);
+
+        //when
+        BulkUpdateResult actual = employeeService.adjustSalaries(filter, 3.0, null);
+
+        //then
+        assertEquals(expected, actual);
+        assertEquals(new Document("companyId", "1").append("gender", "male").append("salary", new Document("$ne", null)),
+            query.getValue().getQueryObject());
+    }
+
+    @Test
+    void should_throw_illegal_argument_exception_when_adjust_salaries_given_infinite_percent() {
+        //then
+        assertThrows(IllegalArgumentException.class, () -> employeeService.adjustSalaries(new EmployeeFilter(), Double.POSITIVE_INFINITY, null));
+        verify(employeeRepository, never()).adjustSalaries(any(Query.class), anyDouble(), anyInt());
+    }
+
+    @Test
+    void should_throw_illegal_argument_exception_when_adjust_salaries_given_neither_percent_nor_amount() {
+        //then
+        assertThrows(IllegalArgumentException.class, () -> employeeService.adjustSalaries(new EmployeeFilter(), null, null));
+        verify(employeeRepository, never()).adjustSalaries(any(Query.class), anyDouble(), anyInt());
+    }
+
+    @Test
+    void should_return_employees_in_order_of_ids_without_unknown_ids_when_get_all_by_ids_given_3_ids() {
+        //given
+        Employee employee1 = new Employee("1", "Tom", 18, "male", 1000);
+        Employee employee2 = new Employee("2", "Tom1", 19, "male", 1001);
+        when(employeeRepository.findAllById(Arrays.asList("2", "3", "1"))).thenReturn(Arrays.asList(employee1, employee2));
+
+        //when
+        List<Employee> actual = employeeService.getAllByIds(Arrays.asList("2", "3", "1", "2"), FieldSelection.ALL);
+
+        //then
+        assertEquals(Arrays.asList(employee2, employee1), actual);
+        verify(employeeRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void should_return_employee_when_get_all_by_ids_given_id_in_upper_case_hex() {
+        //given
+        Employee employee = new Employee("5f0c2b6e1c9d440000a1b2c1", "Tom", 18, "male", 1000);
+        when(employeeRepository.findById("5f0c2b6e1c9d440000a1b2c1")).thenReturn(Optional.of(employee));
+
+        //when
+        List<Employee> actual = employeeService.getAllByIds(Collections.singletonList("5F0C2B6E1C9D440000A1B2C1"), FieldSelection.ALL);
+
+        //then
+        assertEquals(Collections.singletonList(employee), actual);
+    }
+
+    @Test
+    void should_throw_illegal_argument_exception_when_get_all_by_ids_given_no_ids() {
+        //then
+        assertThrows(IllegalArgumentException.class, () -> employeeService.getAllByIds(Collections.singletonList(" "), FieldSelection.ALL));
+        verifyNoInteractions(employeeRepository);
     }
-}
\ No newline at end of file
+}
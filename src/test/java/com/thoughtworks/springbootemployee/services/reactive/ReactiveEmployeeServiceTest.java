@@ -0,0 +1,167 @@
+package com.thoughtworks.springbootemployee.services.reactive;
+
+import com.thoughtworks.springbootemployee.entity.Employee;
+import com.thoughtworks.springbootemployee.exceptions.EmployeeNotFoundException;
+import com.thoughtworks.springbootemployee.pagination.CountedPage;
+import com.thoughtworks.springbootemployee.pagination.CursorPage;
+import com.thoughtworks.springbootemployee.pagination.TotalCount;
+import com.thoughtworks.springbootemployee.repository.Patched;
+import com.thoughtworks.springbootemployee.repository.reactive.ReactiveCompanyRepository;
+import com.thoughtworks.springbootemployee.repository.reactive.ReactiveEmployeeRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveEmployeeServiceTest {
+    @InjectMocks
+    ReactiveEmployeeService employeeService;
+
+    @Mock
+    ReactiveEmployeeRepository employeeRepository;
+
+    @Mock
+    ReactiveCompanyRepository companyRepository;
+
+    @Test
+    void should_throw_employee_not_found_exception_when_get_one_by_id_given_employee_id_not_exists() {
+        //given
+        when(employeeRepository.findById("1")).thenReturn(Mono.empty());
+
+        //then
+        assertThrows(
+            EmployeeNotFoundException.class,
+            // when
+            () -> employeeService.getOneById("1").block()
+        );
+    }
+
+    @Test
+    void should_return_page_with_total_when_get_all_paginated_given_page_1_page_size_2() {
+        //given
+        Employee employee1 = new Employee("1", "Tom", 18, "male", 1000);
+        Employee employee2 = new Employee("2", "Tom1", 19, "male", 1001);
+        when(employeeRepository.findAllBy(PageRequest.of(0, 2, Sort.by("id")))).thenReturn(Flux.just(employee1, employee2));
+        when(employeeRepository.count()).thenReturn(Mono.just(3L));
+
+        //when
+        Page<Employee> actual = employeeService.getAllPaginated(1, 2).block();
+
+        //then
+        assertNotNull(actual);
+        assertEquals(2, actual.getContent().size());
+        assertEquals(3, actual.getTotalElements());
+    }
+
+    @Test
+    void should_count_once_and_reuse_total_when_get_all_paginated_twice_given_total_cached() {
+        //given
+        when(employeeRepository.findAllBy(any(Pageable.class))).thenReturn(Flux.empty());
+        when(employeeRepository.count()).thenReturn(Mono.just(3L));
+
+        //when
+        CountedPage<Employee> first = employeeService.getAllPaginated(1, 2, TotalCount.CACHED).block();
+        CountedPage<Employee> second = employeeService.getAllPaginated(2, 2, TotalCount.CACHED).block();
+
+        //then
+        assertNotNull(first);
+        assertNotNull(second);
+        assertTrue(first.isTotalExact());
+        assertFalse(second.isTotalExact());
+        assertEquals(3L, second.getTotalElements());
+        verify(employeeRepository, times(1)).count();
+    }
+
+    @Test
+    void should_return_next_cursor_when_get_all_after_given_more_employees_than_limit() {
+        //given
+        Employee employee1 = new Employee("5f0c6a2b9d1e8a3b4c5d6e7a", "Tom", 18, "male", 1000);
+        Employee employee2 = new Employee("5f0c6a2b9d1e8a3b4c5d6e7b", "Tom1", 19, "male", 1001);
+        when(employeeRepository.findAllBy(PageRequest.of(0, 2, Sort.by("id")))).thenReturn(Flux.just(employee1, employee2));
+
+        //when
+        CursorPage<Employee> actual = employeeService.getAllAfter(null, 1).block();
+
+        //then
+        assertNotNull(actual);
+        assertEquals(1, actual.getContent().size());
+        assertNotNull(actual.getNextCursor());
+    }
+
+    @Test
+    void should_increment_company_employees_number_when_create_given_employee_of_company() {
+        //given
+        Employee employee = new Employee("Tom", 18, "male", 1000, "c1");
+        when(employeeRepository.insert(employee)).thenReturn(Mono.just(employee));
+        when(companyRepository.incrementEmployeesNumber("c1", 1)).thenReturn(Mono.empty());
+
+        //when
+        Employee actual = employeeService.create(employee).block();
+
+        //then
+        assertEquals(employee, actual);
+        verify(companyRepository, times(1)).incrementEmployeesNumber("c1", 1);
+    }
+
+    @Test
+    void should_move_employees_number_when_update_given_employee_moved_to_another_company() {
+        //given
+        Employee newEmployee = new Employee("Tom", 18, "male", 1000, "c2");
+        when(employeeRepository.replaceById("1", newEmployee))
+            .thenReturn(Mono.just(new Patched<>(new Employee("Tom", 18, "male", 1000, "c1"), newEmployee)));
+        when(companyRepository.incrementEmployeesNumber(any(), anyInt())).thenReturn(Mono.empty());
+
+        //when
+        Employee actual = employeeService.update("1", newEmployee).block();
+
+        //then
+        assertEquals(newEmployee, actual);
+        verify(companyRepository, times(1)).incrementEmployeesNumber("c1", -1);
+        verify(companyRepository, times(1)).incrementEmployeesNumber("c2", 1);
+        verify(employeeRepository, never()).save(any(Employee.class));
+    }
+
+    @Test
+    void should_throw_employee_not_found_exception_when_update_given_employee_id_not_exists() {
+        //given
+        Employee newEmployee = new Employee("Tom", 18, "male", 1000, "c2");
+        when(employeeRepository.replaceById("1", newEmployee)).thenReturn(Mono.empty());
+
+        //then
+        assertThrows(
+            EmployeeNotFoundException.class,
+            // when
+            () -> employeeService.update("1", newEmployee).block()
+        );
+        verifyNoInteractions(companyRepository);
+    }
+
+    @Test
+    void should_decrement_company_employees_number_when_delete_given_employee_of_company() {
+        //given
+        when(employeeRepository.findAndRemoveById("1")).thenReturn(Mono.just(new Employee("Tom", 18, "male", 1000, "c1")));
+        when(companyRepository.incrementEmployeesNumber("c1", -1)).thenReturn(Mono.empty());
+
+        //when
+        employeeService.delete("1").block();
+
+        //then
+        verify(companyRepository, times(1)).incrementEmployeesNumber("c1", -1);
+    }
+}